@@ -0,0 +1,28 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/** Falling-block kinematics, stepped the way the game moves them. */
+public final class Ballistics {
+    private Ballistics() {}
+
+    private static final double GRAVITY = 0.04;
+    private static final double DRAG = 0.98;
+    private static final double INITIAL_VELOCITY = -0.05;
+    private static final int MAX_TICKS = 400;
+
+    /**
+     * Ticks a falling block takes to drop {@code height} blocks: move, then gravity, then drag,
+     * starting slightly downward. At least 1, at most 400.
+     */
+    public static int fallTicks(double height) {
+        double y = 0.0;
+        double v = INITIAL_VELOCITY;
+        int ticks = 0;
+        while (-y < height && ticks < MAX_TICKS) {
+            y += v;
+            v -= GRAVITY;
+            v *= DRAG;
+            ticks++;
+        }
+        return Math.max(1, ticks);
+    }
+}
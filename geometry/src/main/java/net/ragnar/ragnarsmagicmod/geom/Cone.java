@@ -0,0 +1,47 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/** Cone and aim-cone tests from an origin along a unit direction. */
+public final class Cone {
+    private Cone() {}
+
+    /**
+     * Cosine of the angle between the unit direction D and the vector from O to P, or NaN when P is
+     * nearer than {@code minDist} or further than {@code maxDist} from O.
+     */
+    public static double cosTo(double ox, double oy, double oz, double dx, double dy, double dz,
+                               double px, double py, double pz, double minDist, double maxDist) {
+        double tx = px - ox, ty = py - oy, tz = pz - oz;
+        double dist = Math.sqrt(tx * tx + ty * ty + tz * tz);
+        if (dist > maxDist || dist < minDist) return Double.NaN;
+        return (tx * dx + ty * dy + tz * dz) / dist;
+    }
+
+    /**
+     * Distance from O to P if P lies inside the cone of half-angle {@code acos(cosLimit)} around the
+     * unit direction D, between {@code minDist} and {@code maxDist}; otherwise -1.
+     */
+    public static double distanceInside(double ox, double oy, double oz, double dx, double dy, double dz,
+                                        double px, double py, double pz,
+                                        double cosLimit, double minDist, double maxDist) {
+        double tx = px - ox, ty = py - oy, tz = pz - oz;
+        double dist = Math.sqrt(tx * tx + ty * ty + tz * tz);
+        if (dist > maxDist || dist < minDist) return -1.0;
+        if ((tx * dx + ty * dy + tz * dz) / dist < cosLimit) return -1.0;
+        return dist;
+    }
+
+    /** Radius of a cone widening linearly from {@code startRadius} to {@code endRadius} at fraction t of its length. */
+    public static double radiusAt(double t, double startRadius, double endRadius) {
+        return startRadius + (endRadius - startRadius) * t;
+    }
+
+    /**
+     * Index of the first of {@code samples} evenly spaced points over {@code length} (the first at 0,
+     * the last at the far end) that lies at least {@code minOffset} from the start.
+     */
+    public static int firstSampleFrom(double minOffset, double length, int samples) {
+        double step = length / (samples - 1);
+        int i = (int) Math.ceil(minOffset / step);
+        return Math.max(0, Math.min(samples - 1, i));
+    }
+}
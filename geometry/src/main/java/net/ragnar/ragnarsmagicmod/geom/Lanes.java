@@ -0,0 +1,32 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/**
+ * Ground lanes running forward from an origin: step {@code s} along the horizontal heading F,
+ * offset {@code o} to its left. Left of (fx, fz) is (-fz, fx).
+ */
+public final class Lanes {
+    private Lanes() {}
+
+    /**
+     * Normalize the horizontal part of a heading into {@code out[0..1]}. Returns false, leaving
+     * {@code out} alone, when the heading is (nearly) straight up or down.
+     */
+    public static boolean heading(double fx, double fz, double[] out) {
+        double lenSq = fx * fx + fz * fz;
+        if (lenSq < 1.0e-6) return false;
+        double len = Math.sqrt(lenSq);
+        out[0] = fx / len;
+        out[1] = fz / len;
+        return true;
+    }
+
+    /** X of the lane point {@code step} ahead and {@code offset} to the left, for a unit heading. */
+    public static double x(double ox, double fx, double fz, double step, double offset) {
+        return ox + fx * step - fz * offset;
+    }
+
+    /** Z of the lane point {@code step} ahead and {@code offset} to the left, for a unit heading. */
+    public static double z(double oz, double fx, double fz, double step, double offset) {
+        return oz + fz * step + fx * offset;
+    }
+}
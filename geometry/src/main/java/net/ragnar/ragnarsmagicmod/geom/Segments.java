@@ -0,0 +1,50 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/** Point-to-segment queries, used for beams and for anything swept along one tick of travel. */
+public final class Segments {
+    private Segments() {}
+
+    private static final double DEGENERATE_SQ = 1.0e-12;
+
+    /**
+     * Parameter t of the point on line AB closest to P, unclamped: 0 at A, 1 at B.
+     * A segment shorter than 1e-6 counts as the point A (t = 0).
+     */
+    public static double projectParam(double ax, double ay, double az, double bx, double by, double bz,
+                                      double px, double py, double pz) {
+        double abx = bx - ax, aby = by - ay, abz = bz - az;
+        double abLenSq = abx * abx + aby * aby + abz * abz;
+        if (abLenSq <= DEGENERATE_SQ) return 0.0;
+        return ((px - ax) * abx + (py - ay) * aby + (pz - az) * abz) / abLenSq;
+    }
+
+    /** {@link #projectParam}, clamped to the segment. */
+    public static double closestParam(double ax, double ay, double az, double bx, double by, double bz,
+                                      double px, double py, double pz) {
+        double t = projectParam(ax, ay, az, bx, by, bz, px, py, pz);
+        return t < 0 ? 0 : (t > 1 ? 1 : t);
+    }
+
+    /** Squared distance from P to segment AB. */
+    public static double distanceSq(double px, double py, double pz,
+                                    double ax, double ay, double az, double bx, double by, double bz) {
+        double t = closestParam(ax, ay, az, bx, by, bz, px, py, pz);
+        double dx = px - (ax + (bx - ax) * t);
+        double dy = py - (ay + (by - ay) * t);
+        double dz = pz - (az + (bz - az) * t);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Whether a sphere moving from A to B, its radius growing linearly from {@code radiusA} to
+     * {@code radiusB}, touches a sphere of radius {@code pointRadius} at P. The moving radius is taken
+     * where P projects onto the path, which is exact for a constant radius and close for slow growth.
+     */
+    public static boolean sweptSphereHits(double ax, double ay, double az, double radiusA,
+                                          double bx, double by, double bz, double radiusB,
+                                          double px, double py, double pz, double pointRadius) {
+        double t = closestParam(ax, ay, az, bx, by, bz, px, py, pz);
+        double limit = radiusA + (radiusB - radiusA) * t + pointRadius;
+        return distanceSq(px, py, pz, ax, ay, az, bx, by, bz) <= limit * limit;
+    }
+}
@@ -0,0 +1,47 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/**
+ * Limited-turn homing for projectiles. Results are written to a caller-owned {@code double[3]} so a
+ * steering step allocates nothing.
+ */
+public final class Steering {
+    private Steering() {}
+
+    // same cut-off as Minecraft's Vec3d.normalize: shorter vectors normalize to zero
+    private static final double MIN_LENGTH = 1.0e-5;
+
+    /**
+     * Blend velocity V towards {@code speed} along T (any length) by {@code turn}, 0 keeping V and 1
+     * snapping to the new heading. A zero T just damps V.
+     */
+    public static void seek(double vx, double vy, double vz, double tx, double ty, double tz,
+                            double speed, double turn, double[] out) {
+        double len = Math.sqrt(tx * tx + ty * ty + tz * tz);
+        double k = len < MIN_LENGTH ? 0.0 : speed * turn / len;
+        double keep = 1.0 - turn;
+        out[0] = vx * keep + tx * k;
+        out[1] = vy * keep + ty * k;
+        out[2] = vz * keep + tz * k;
+    }
+
+    /**
+     * If velocity V (in place) no longer points along the unit forward F, drop its backward part
+     * and add {@code nudge} along F, so the projectile slides sideways instead of turning back.
+     */
+    public static void keepForward(double[] v, double fx, double fy, double fz, double nudge) {
+        double comp = v[0] * fx + v[1] * fy + v[2] * fz;
+        if (comp > 0) return;
+        double k = nudge - comp;
+        v[0] += fx * k;
+        v[1] += fy * k;
+        v[2] += fz * k;
+    }
+
+    /** If velocity V (in place) points backwards against the unit forward F, replace it with {@code speed} along F. */
+    public static void resetIfBackward(double[] v, double fx, double fy, double fz, double speed) {
+        if (v[0] * fx + v[1] * fy + v[2] * fz >= 0) return;
+        v[0] = fx * speed;
+        v[1] = fy * speed;
+        v[2] = fz * speed;
+    }
+}
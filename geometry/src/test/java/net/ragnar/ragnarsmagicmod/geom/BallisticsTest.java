@@ -0,0 +1,39 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BallisticsTest {
+    // SpellEffects.estimateFallTicks before the move
+    private static int estimateFallTicks(double h) {
+        double y = 0.0;
+        double v = -0.05;
+        int ticks = 0;
+        while (-y < h && ticks < 400) {
+            y += v;
+            v -= 0.04;
+            v *= 0.98;
+            ticks++;
+        }
+        return Math.max(1, ticks);
+    }
+
+    @Test
+    void matchesEstimateFallTicks() {
+        for (double h = -2; h <= 400; h += 0.125) {
+            assertEquals(estimateFallTicks(h), Ballistics.fallTicks(h), "height " + h);
+        }
+    }
+
+    @Test
+    void atLeastOneTick() {
+        assertEquals(1, Ballistics.fallTicks(0));
+        assertEquals(1, Ballistics.fallTicks(-5));
+    }
+
+    @Test
+    void givesUpAfterFourHundredTicks() {
+        assertEquals(400, Ballistics.fallTicks(1.0e6));
+    }
+}
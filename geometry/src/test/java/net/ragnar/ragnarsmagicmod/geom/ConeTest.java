@@ -0,0 +1,105 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConeTest {
+    private static final int RUNS = 20_000;
+
+    private static RefVec unit(SplittableRandom r) {
+        RefVec v;
+        do {
+            v = new RefVec(r.nextDouble(-1, 1), r.nextDouble(-1, 1), r.nextDouble(-1, 1));
+        } while (v.lengthSquared() < 1e-3);
+        return v.normalize();
+    }
+
+    private static RefVec around(SplittableRandom r, RefVec o, double spread) {
+        return o.add(new RefVec(r.nextDouble(-spread, spread), r.nextDouble(-spread, spread), r.nextDouble(-spread, spread)));
+    }
+
+    @Test
+    void cosToMatchesTrackingTargetPick() {
+        SplittableRandom r = new SplittableRandom(23);
+        double maxDist = 48.0;
+        for (int i = 0; i < RUNS; i++) {
+            RefVec eye = around(r, RefVec.ZERO, 100), look = unit(r);
+            // some right on top of the eye, some out of range
+            RefVec target = i % 40 == 0 ? around(r, eye, 0.05) : around(r, eye, 60);
+
+            // TrackingSpell.findLookTarget before the move: NaN here stands for "skipped"
+            RefVec to = target.subtract(eye);
+            double dist = to.length();
+            double expected = dist > maxDist || dist < 0.1 ? Double.NaN : to.normalize().dotProduct(look);
+
+            double actual = Cone.cosTo(eye.x(), eye.y(), eye.z(), look.x(), look.y(), look.z(),
+                    target.x(), target.y(), target.z(), 0.1, maxDist);
+            if (Double.isNaN(expected)) {
+                assertTrue(Double.isNaN(actual), () -> "eye=" + eye + " target=" + target);
+            } else {
+                assertEquals(expected, actual, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void distanceInsideMatchesWindPush() {
+        SplittableRandom r = new SplittableRandom(24);
+        double range = 10.0;
+        for (int i = 0; i < RUNS; i++) {
+            RefVec origin = around(r, RefVec.ZERO, 100), dir = unit(r);
+            RefVec p = around(r, origin, 14);
+            double cosLimit = Math.cos(Math.toRadians(r.nextDouble(10, 80)));
+
+            // WindPushSpell's cone filter before the move: -1 for skipped
+            RefVec to = p.subtract(origin);
+            double dist = to.length();
+            double expected;
+            if (dist > range || dist < 0.001) {
+                expected = -1;
+            } else {
+                double dot = to.normalize().dotProduct(dir);
+                // rounding may flip a point right on the cone's edge either way
+                if (Math.abs(dot - cosLimit) < 1e-12) continue;
+                expected = dot < cosLimit ? -1 : dist;
+            }
+
+            double actual = Cone.distanceInside(origin.x(), origin.y(), origin.z(), dir.x(), dir.y(), dir.z(),
+                    p.x(), p.y(), p.z(), cosLimit, 0.001, range);
+            assertEquals(expected, actual, 1e-12, () -> "origin=" + origin + " p=" + p);
+        }
+    }
+
+    @Test
+    void firstSampleFromMatchesDragonBreath() {
+        for (int samples = 2; samples <= 40; samples++) {
+            for (double length = 1; length <= 16; length += 0.5) {
+                for (double minOffset = -1; minOffset <= 20; minOffset += 0.25) {
+                    // DragonBreathSpell before the move
+                    double step = length / (samples - 1);
+                    int expected = (int) Math.ceil(minOffset / step);
+                    if (expected < 0) expected = 0;
+                    if (expected >= samples) expected = samples - 1;
+
+                    assertEquals(expected, Cone.firstSampleFrom(minOffset, length, samples));
+                }
+            }
+        }
+    }
+
+    @Test
+    void radiusAtMatchesLerp() {
+        SplittableRandom r = new SplittableRandom(25);
+        for (int i = 0; i < RUNS; i++) {
+            double t = r.nextDouble(), start = r.nextDouble(0, 2), end = r.nextDouble(0, 6);
+            // MathHelper.lerp(t, start, end)
+            assertEquals(start + t * (end - start), Cone.radiusAt(t, start, end), 1e-12);
+        }
+        assertEquals(0.5, Cone.radiusAt(0, 0.5, 3.0));
+        assertEquals(3.0, Cone.radiusAt(1, 0.5, 3.0));
+    }
+}
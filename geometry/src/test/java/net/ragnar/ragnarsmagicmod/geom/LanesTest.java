@@ -0,0 +1,59 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanesTest {
+    private static final int[] LANE_OFFSETS = {-1, 0, 1};
+
+    @Test
+    void matchesSpikeWave() {
+        SplittableRandom r = new SplittableRandom(41);
+        double[] f = new double[2];
+        for (int i = 0; i < 5_000; i++) {
+            RefVec origin = new RefVec(r.nextDouble(-1000, 1000), r.nextDouble(0, 100), r.nextDouble(-1000, 1000));
+            RefVec forward = new RefVec(r.nextDouble(-1, 1), r.nextDouble(-1, 1), r.nextDouble(-1, 1));
+
+            // SpikeWave.queueWave before the move
+            RefVec flat = new RefVec(forward.x(), 0, forward.z());
+            boolean expectedOk = flat.lengthSquared() >= 1.0e-6;
+            assertEquals(expectedOk, Lanes.heading(forward.x(), forward.z(), f));
+            if (!expectedOk) continue;
+            flat = flat.normalize();
+            RefVec left = new RefVec(-flat.z(), 0, flat.x());
+            assertEquals(flat.x(), f[0], 1e-12);
+            assertEquals(flat.z(), f[1], 1e-12);
+
+            for (int step = 1; step <= 12; step++) {
+                RefVec base = origin.add(flat.multiply(step));
+                for (int off : LANE_OFFSETS) {
+                    RefVec lane = base.add(left.multiply(off));
+                    assertEquals(lane.x(), Lanes.x(origin.x(), f[0], f[1], step, off), 1e-9);
+                    assertEquals(lane.z(), Lanes.z(origin.z(), f[0], f[1], step, off), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    void verticalHeadingIsRejectedAndOutIsUntouched() {
+        double[] f = {7, 7};
+        assertFalse(Lanes.heading(0.0, 0.0005, f));
+        assertArrayEquals(new double[]{7, 7}, f);
+    }
+
+    @Test
+    void leftOfForwardIsMinusFzFx() {
+        double[] f = new double[2];
+        // heading +z: left is -x
+        assertTrue(Lanes.heading(0, 3, f));
+        assertEquals(-2.0, Lanes.x(0, f[0], f[1], 0, 2), 1e-12);
+        assertEquals(5.0, Lanes.z(0, f[0], f[1], 5, 2), 1e-12);
+    }
+}
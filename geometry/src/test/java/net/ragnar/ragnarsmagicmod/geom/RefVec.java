@@ -0,0 +1,52 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+/**
+ * The parts of Minecraft's {@code Vec3d} (1.21.1) the spells used before their math moved here,
+ * copied operation for operation so the tests compare against what the game actually computed.
+ */
+record RefVec(double x, double y, double z) {
+    static final RefVec ZERO = new RefVec(0, 0, 0);
+
+    RefVec add(RefVec v) {
+        return new RefVec(x + v.x, y + v.y, z + v.z);
+    }
+
+    RefVec subtract(RefVec v) {
+        return new RefVec(x - v.x, y - v.y, z - v.z);
+    }
+
+    RefVec multiply(double k) {
+        return new RefVec(x * k, y * k, z * k);
+    }
+
+    double dotProduct(RefVec v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    double length() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    RefVec normalize() {
+        double d = Math.sqrt(x * x + y * y + z * z);
+        return d < 1.0E-5 ? ZERO : new RefVec(x / d, y / d, z / d);
+    }
+
+    // MathHelper.lerp(delta, start, end) = start + delta * (end - start), per axis
+    RefVec lerp(RefVec to, double delta) {
+        return new RefVec(x + delta * (to.x - x), y + delta * (to.y - y), z + delta * (to.z - z));
+    }
+
+    double squaredDistanceTo(RefVec v) {
+        double dx = v.x - x, dy = v.y - y, dz = v.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    double distanceTo(RefVec v) {
+        return Math.sqrt(squaredDistanceTo(v));
+    }
+}
@@ -0,0 +1,131 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentsTest {
+    private static final int RUNS = 20_000;
+
+    // IceBeamSpell.distancePointToSegment before the move
+    private static double iceBeamDistance(RefVec p, RefVec a, RefVec b) {
+        RefVec ab = b.subtract(a);
+        double ab2 = ab.lengthSquared();
+        if (ab2 <= 1e-9) return p.distanceTo(a);
+        double t = p.subtract(a).dotProduct(ab) / ab2;
+        t = Math.max(0.0, Math.min(1.0, t));
+        RefVec q = a.lerp(b, t);
+        return p.distanceTo(q);
+    }
+
+    // SunSpell.projectParamOnSegment before the move
+    private static double sunProjectParam(RefVec a, RefVec b, RefVec p) {
+        RefVec ab = b.subtract(a);
+        double abLenSq = ab.lengthSquared();
+        if (abLenSq <= 1.0e-12) return 0.0;
+        return p.subtract(a).dotProduct(ab) / abLenSq;
+    }
+
+    private static double clamp01(double t) {
+        return t < 0 ? 0 : (t > 1 ? 1 : t);
+    }
+
+    // SunSpell.distanceSqPointToSegment before the move
+    private static double sunDistanceSq(RefVec p, RefVec a, RefVec b) {
+        double t = clamp01(sunProjectParam(a, b, p));
+        RefVec q = a.lerp(b, t);
+        return p.squaredDistanceTo(q);
+    }
+
+    private static RefVec point(SplittableRandom r) {
+        return new RefVec(r.nextDouble(-64, 64), r.nextDouble(-16, 128), r.nextDouble(-64, 64));
+    }
+
+    // a few blocks long, like one tick of travel or a beam; every 50th one degenerate
+    private static RefVec end(SplittableRandom r, RefVec a, int i) {
+        if (i % 50 == 0) return a;
+        return a.add(new RefVec(r.nextDouble(-4, 4), r.nextDouble(-4, 4), r.nextDouble(-4, 4)));
+    }
+
+    private static RefVec near(SplittableRandom r, RefVec a) {
+        return a.add(new RefVec(r.nextDouble(-6, 6), r.nextDouble(-6, 6), r.nextDouble(-6, 6)));
+    }
+
+    @Test
+    void distanceSqMatchesIceBeam() {
+        SplittableRandom r = new SplittableRandom(17);
+        for (int i = 0; i < RUNS; i++) {
+            RefVec a = point(r), b = end(r, a, i), p = near(r, a);
+            double expected = iceBeamDistance(p, a, b);
+            double actual = Math.sqrt(Segments.distanceSq(p.x(), p.y(), p.z(), a.x(), a.y(), a.z(), b.x(), b.y(), b.z()));
+            assertEquals(expected, actual, 1e-9, () -> "a=" + a + " b=" + b + " p=" + p);
+        }
+    }
+
+    @Test
+    void distanceSqMatchesSun() {
+        SplittableRandom r = new SplittableRandom(18);
+        for (int i = 0; i < RUNS; i++) {
+            RefVec a = point(r), b = end(r, a, i), p = near(r, a);
+            assertEquals(sunProjectParam(a, b, p),
+                    Segments.projectParam(a.x(), a.y(), a.z(), b.x(), b.y(), b.z(), p.x(), p.y(), p.z()), 1e-12);
+            assertEquals(sunDistanceSq(p, a, b),
+                    Segments.distanceSq(p.x(), p.y(), p.z(), a.x(), a.y(), a.z(), b.x(), b.y(), b.z()), 1e-9);
+        }
+    }
+
+    @Test
+    void sweptSphereHitsMatchesSun() {
+        SplittableRandom r = new SplittableRandom(19);
+        int hits = 0;
+        for (int i = 0; i < RUNS; i++) {
+            RefVec a = point(r), b = end(r, a, i), c = near(r, a);
+            double prevRadius = r.nextDouble(0.5, 3), radius = prevRadius + r.nextDouble(0, 0.5);
+            double entityRadius = r.nextDouble(0.3, 1.5);
+
+            // SunSpell's hit test before the move
+            double t = clamp01(sunProjectParam(a, b, c));
+            double limit = prevRadius + (radius - prevRadius) * t + entityRadius;
+            double distSq = sunDistanceSq(c, a, b);
+            // rounding may flip a point right on the surface either way
+            if (Math.abs(distSq - limit * limit) < 1e-9) continue;
+            boolean expected = distSq <= limit * limit;
+
+            boolean actual = Segments.sweptSphereHits(a.x(), a.y(), a.z(), prevRadius,
+                    b.x(), b.y(), b.z(), radius, c.x(), c.y(), c.z(), entityRadius);
+            assertEquals(expected, actual, () -> "a=" + a + " b=" + b + " c=" + c);
+            if (actual) hits++;
+        }
+        // both outcomes need to have been exercised
+        assertTrue(hits > RUNS / 20 && hits < RUNS - RUNS / 20, "hits " + hits);
+    }
+
+    @Test
+    void distanceSqClampsToTheEnds() {
+        // beyond B along the line, and behind A
+        assertEquals(4.0, Segments.distanceSq(5, 0, 0, 0, 0, 0, 3, 0, 0), 1e-12);
+        assertEquals(1.0, Segments.distanceSq(-1, 0, 0, 0, 0, 0, 3, 0, 0), 1e-12);
+        // beside the middle, and on it
+        assertEquals(9.0, Segments.distanceSq(1.5, 3, 0, 0, 0, 0, 3, 0, 0), 1e-12);
+        assertEquals(0.0, Segments.distanceSq(2, 0, 0, 0, 0, 0, 3, 0, 0), 1e-12);
+    }
+
+    @Test
+    void degenerateSegmentIsItsStart() {
+        assertEquals(0.0, Segments.projectParam(1, 2, 3, 1, 2, 3, 9, 9, 9));
+        assertEquals(3.0 * 64, Segments.distanceSq(9, 10, 11, 1, 2, 3, 1, 2, 3), 1e-12);
+    }
+
+    @Test
+    void sweptSphereUsesTheRadiusAtTheProjection() {
+        // radius grows 1 -> 3 along x; a point 2.5 off the path is missed near A and hit near B
+        assertFalse(Segments.sweptSphereHits(0, 0, 0, 1, 10, 0, 0, 3, 1, 2.5, 0, 0));
+        assertTrue(Segments.sweptSphereHits(0, 0, 0, 1, 10, 0, 0, 3, 9, 2.5, 0, 0));
+        // the point's own radius counts too
+        assertTrue(Segments.sweptSphereHits(0, 0, 0, 1, 10, 0, 0, 3, 1, 2.5, 0, 1.5));
+    }
+}
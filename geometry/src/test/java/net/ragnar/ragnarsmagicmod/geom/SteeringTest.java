@@ -0,0 +1,109 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SteeringTest {
+    private static final int RUNS = 20_000;
+    private static final double EPS = 1e-12;
+
+    private static RefVec vec(SplittableRandom r, double spread) {
+        return new RefVec(r.nextDouble(-spread, spread), r.nextDouble(-spread, spread), r.nextDouble(-spread, spread));
+    }
+
+    private static void assertVec(RefVec expected, double[] actual) {
+        assertArrayEquals(new double[]{expected.x(), expected.y(), expected.z()}, actual, EPS);
+    }
+
+    @Test
+    void seekAndKeepForwardMatchTracking() {
+        SplittableRandom r = new SplittableRandom(31);
+        double speed = 0.60, turn = 0.14, nudge = 0.08;
+        double[] v = new double[3];
+        for (int i = 0; i < RUNS; i++) {
+            RefVec vel = vec(r, speed), forward = vec(r, 1).normalize();
+            // every 10th with no target, steering along its own velocity
+            RefVec toTarget = i % 10 == 0 ? vel : vec(r, 30);
+
+            // TrackingSpell.tickBolt before the move
+            RefVec desiredVel = toTarget.normalize().multiply(speed);
+            RefVec newVel = vel.multiply(1.0 - turn).add(desiredVel.multiply(turn));
+            double comp = newVel.dotProduct(forward);
+            if (comp <= 0) {
+                RefVec lateral = newVel.subtract(forward.multiply(comp));
+                newVel = lateral.add(forward.multiply(nudge));
+            }
+
+            Steering.seek(vel.x(), vel.y(), vel.z(), toTarget.x(), toTarget.y(), toTarget.z(), speed, turn, v);
+            Steering.keepForward(v, forward.x(), forward.y(), forward.z(), nudge);
+            assertVec(newVel, v);
+        }
+    }
+
+    @Test
+    void seekAndResetIfBackwardMatchBooming() {
+        SplittableRandom r = new SplittableRandom(32);
+        double speed = 0.90, turn = 0.30;
+        double[] v = new double[3];
+        for (int i = 0; i < RUNS; i++) {
+            RefVec vel = vec(r, speed), forward = vec(r, 1).normalize(), toAim = vec(r, 120);
+
+            // BoomingSpell.tickOrb before the move
+            RefVec desiredVel = toAim.normalize().multiply(speed);
+            RefVec newVel = vel.multiply(1.0 - turn).add(desiredVel.multiply(turn));
+            if (newVel.dotProduct(forward) < 0) {
+                newVel = forward.multiply(speed * 0.1);
+            }
+
+            Steering.seek(vel.x(), vel.y(), vel.z(), toAim.x(), toAim.y(), toAim.z(), speed, turn, v);
+            Steering.resetIfBackward(v, forward.x(), forward.y(), forward.z(), speed * 0.1);
+            assertVec(newVel, v);
+        }
+    }
+
+    @Test
+    void zeroTargetOnlyDamps() {
+        double[] v = new double[3];
+        Steering.seek(1, 2, 3, 0, 0, 0, 0.5, 0.25, v);
+        assertArrayEquals(new double[]{0.75, 1.5, 2.25}, v, EPS);
+        // shorter than Vec3d.normalize's cut-off counts as zero too
+        Steering.seek(1, 2, 3, 1e-6, 0, 0, 0.5, 0.25, v);
+        assertArrayEquals(new double[]{0.75, 1.5, 2.25}, v, EPS);
+    }
+
+    @Test
+    void fullTurnSnapsToTheNewHeading() {
+        double[] v = new double[3];
+        Steering.seek(1, 0, 0, 0, 0, 8, 0.5, 1.0, v);
+        assertArrayEquals(new double[]{0, 0, 0.5}, v, EPS);
+    }
+
+    @Test
+    void keepForwardLeavesForwardVelocityAlone() {
+        double[] v = {0.3, 0.1, -0.2};
+        Steering.keepForward(v, 1, 0, 0, 0.08);
+        assertArrayEquals(new double[]{0.3, 0.1, -0.2}, v, EPS);
+    }
+
+    @Test
+    void keepForwardSlidesSideways() {
+        double[] v = {-0.5, 0.2, 0.1};
+        Steering.keepForward(v, 1, 0, 0, 0.08);
+        assertArrayEquals(new double[]{0.08, 0.2, 0.1}, v, EPS);
+    }
+
+    @Test
+    void resetIfBackwardKeepsSidewaysVelocity() {
+        double[] v = {0.0, 0.4, 0.0};
+        Steering.resetIfBackward(v, 1, 0, 0, 0.09);
+        assertArrayEquals(new double[]{0.0, 0.4, 0.0}, v, EPS);
+        v[0] = -0.01;
+        Steering.resetIfBackward(v, 1, 0, 0, 0.09);
+        assertArrayEquals(new double[]{0.09, 0, 0}, v, EPS);
+        assertEquals(0.09, v[0]);
+    }
+}
@@ -0,0 +1,287 @@
+package net.ragnar.ragnarsmagicmod.gametest;
+
+import com.mojang.authlib.GameProfile;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.Hand;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.item.ModItems;
+import net.ragnar.ragnarsmagicmod.item.custom.StaffItem;
+import net.ragnar.ragnarsmagicmod.item.custom.TomeItem;
+import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import net.ragnar.ragnarsmagicmod.runtime.SpellProfiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Load test: N fake players, all holding a netherite staff socketed with the same spell, cast it on
+ * a fixed schedule over a flat arena. Every {@link SpellId} gets a phase of its own:
+ * {@value #CAST_TICKS} ticks of casting every {@value #CAST_INTERVAL} ticks, then
+ * {@value #DRAIN_TICKS} ticks for its effects to run out before the arena, and everything within
+ * projectile range of it, is cleared of entities.
+ * <p>
+ * Per phase it records the spell work the {@link SpellProfiler} saw per server tick, the phase's
+ * own server tick times (mean, p99, max; timed here, since the server's rolling mean spans the
+ * last 100 ticks whatever they were), bytes the server thread allocated per tick and the peak
+ * entity count. The table goes to the log and to {@code stress-report.csv} in the run directory.
+ * The test fails if any spell goes over its budget in {@code ragnarsmagicmod-stress.properties},
+ * or the phase's p99 MSPT goes over {@code mspt.max}.
+ * <p>
+ * Fake players aren't in the world's player list, so no packets are sent; network cost is
+ * {@code /rmm net}'s job. Run with {@code ./gradlew runGametest -PstressCasters=<n>}.
+ */
+public class SpellStressTest implements FabricGameTest {
+    private static final int CAST_TICKS = 100;
+    private static final int CAST_INTERVAL = 20;
+    private static final int DRAIN_TICKS = 60;
+    private static final int PHASE_TICKS = CAST_TICKS + DRAIN_TICKS;
+    private static final int ARENA_RADIUS = 16;
+    // projectiles fly up to 120 blocks from a caster before they time out
+    private static final int CLEAR_RADIUS = ARENA_RADIUS + 128;
+    private static final double CASTER_RING = 6.0;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // the phase whose server ticks are being timed, if any
+    private static Phase timed;
+    private static boolean hooked = false;
+
+    private record Result(SpellId spell, int casters, double spellMsPerTick, double budgetMs,
+                          double msptMean, double msptP99, double msptMax, long allocBytesPerTick,
+                          int peakEntities) {}
+
+    // every phase in one test, so spells run one after another and never overlap
+    @GameTest(templateName = EMPTY_STRUCTURE, batchId = "ragnarsmagicmod_stress", tickLimit = 10_000)
+    public void castEverySpell(TestContext context) {
+        hookTicks();
+        Properties budgets = loadBudgets();
+        int casters = Integer.getInteger("ragnarsmagicmod.stress.casters", 8);
+        List<SpellId> spells = new ArrayList<>();
+        for (SpellId id : SpellId.values()) {
+            if (findTome(id) != null) spells.add(id);
+        }
+        if ((long) spells.size() * PHASE_TICKS >= 10_000) {
+            throw new GameTestException("Too many spells for the tick limit, raise it");
+        }
+
+        buildArena(context);
+        clearArena(context);
+        Vec3d center = context.getAbsolute(new Vec3d(0.5, 2.0, 0.5));
+        List<FakePlayer> players = new ArrayList<>();
+        for (int i = 0; i < casters; i++) {
+            FakePlayer player = FakePlayer.get(context.getWorld(),
+                    new GameProfile(UUID.nameUUIDFromBytes(("rmm-stress-" + i).getBytes()), "rmm-stress-" + i));
+            // spread around the center, facing out, so projectiles don't hit the other casters
+            double angle = 2 * Math.PI * i / casters;
+            float yaw = (float) Math.toDegrees(angle) - 90.0f;
+            player.refreshPositionAndAngles(center.x + Math.cos(angle) * CASTER_RING, center.y,
+                    center.z + Math.sin(angle) * CASTER_RING, yaw, 0.0f);
+            player.setHeadYaw(yaw);
+            players.add(player);
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int s = 0; s < spells.size(); s++) {
+            SpellId spell = spells.get(s);
+            Phase phase = new Phase(spell, players, budget(budgets, spell));
+            long start = (long) s * PHASE_TICKS + 1;
+            context.runAtTick(start, phase::begin);
+            for (int t = 0; t < PHASE_TICKS; t++) {
+                long tick = start + t;
+                boolean cast = t < CAST_TICKS && t % CAST_INTERVAL == 0;
+                context.runAtTick(tick, () -> {
+                    if (cast) phase.castAll(context.getWorld());
+                    phase.sample(context.getWorld());
+                });
+            }
+            context.runAtTick(start + PHASE_TICKS - 1, () -> {
+                results.add(phase.end(context.getWorld()));
+                clearArena(context);
+            });
+        }
+
+        double msptMax = Double.parseDouble(budgets.getProperty("mspt.max", "50.0"));
+        context.runAtTick((long) spells.size() * PHASE_TICKS + 1, () -> {
+            report(results);
+            List<String> over = new ArrayList<>();
+            for (Result r : results) {
+                if (r.spellMsPerTick() > r.budgetMs()) {
+                    over.add(String.format("%s %.3fms > %.3fms", r.spell(), r.spellMsPerTick(), r.budgetMs()));
+                }
+                if (r.msptP99() > msptMax) {
+                    over.add(String.format("%s MSPT p99 %.1fms > %.1fms", r.spell(), r.msptP99(), msptMax));
+                }
+            }
+            if (!over.isEmpty()) {
+                throw new GameTestException(casters + " casters over budget: " + String.join(", ", over));
+            }
+            context.complete();
+        });
+    }
+
+    private static final class Phase {
+        final SpellId spell;
+        final List<FakePlayer> players;
+        final double budgetMs;
+        final LongArrayList tickNanos = new LongArrayList();
+        long allocStart;
+        long tickStart;
+        int ticks;
+        int peakEntities;
+
+        Phase(SpellId spell, List<FakePlayer> players, double budgetMs) {
+            this.spell = spell;
+            this.players = players;
+            this.budgetMs = budgetMs;
+        }
+
+        void begin() {
+            TomeItem tome = findTome(spell);
+            for (FakePlayer player : players) {
+                ItemStack staff = new ItemStack(ModItems.NETHERITE_STAFF);
+                ((StaffItem) ModItems.NETHERITE_STAFF).socket(staff, tome);
+                player.setStackInHand(Hand.MAIN_HAND, staff);
+            }
+            SpellProfiler.start();
+            allocStart = THREADS.getCurrentThreadAllocatedBytes();
+            timed = this;
+        }
+
+        void castAll(ServerWorld world) {
+            for (PlayerEntity player : players) {
+                // fake players don't tick, so nothing else refills xp or runs cooldowns down
+                if (player.experienceLevel < 100) player.addExperienceLevels(1000);
+                player.getItemCooldownManager().remove(ModItems.NETHERITE_STAFF);
+                ModItems.NETHERITE_STAFF.use(world, player, Hand.MAIN_HAND);
+            }
+        }
+
+        void sample(ServerWorld world) {
+            ticks++;
+            int entities = 0;
+            for (Entity ignored : world.iterateEntities()) entities++;
+            if (entities > peakEntities) peakEntities = entities;
+        }
+
+        // end runs inside the phase's last tick, which is why that one is never in tickNanos
+        Result end(ServerWorld world) {
+            timed = null;
+            long alloc = THREADS.getCurrentThreadAllocatedBytes() - allocStart;
+            SpellProfiler.stop();
+            long spellNanos = 0;
+            for (SpellProfiler.Row row : SpellProfiler.report()) spellNanos += row.totalNanos();
+
+            long[] sorted = tickNanos.toLongArray();
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long n : sorted) total += n;
+            int n = sorted.length;
+            return new Result(spell, players.size(), spellNanos / 1.0e6 / ticks, budgetMs,
+                    n == 0 ? 0 : total / 1.0e6 / n,
+                    n == 0 ? 0 : sorted[(int) Math.min(n - 1, Math.ceil(0.99 * n) - 1)] / 1.0e6,
+                    n == 0 ? 0 : sorted[n - 1] / 1.0e6,
+                    alloc / Math.max(1, ticks), peakEntities);
+        }
+    }
+
+    // same timing CastReplay does: a whole server tick, every world and all, from start to end
+    private static void hookTicks() {
+        if (hooked) return;
+        hooked = true;
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if (timed != null) timed.tickStart = System.nanoTime();
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (timed != null && timed.tickStart != 0) timed.tickNanos.add(System.nanoTime() - timed.tickStart);
+        });
+    }
+
+    private static void buildArena(TestContext context) {
+        for (int x = -ARENA_RADIUS; x <= ARENA_RADIUS; x++) {
+            for (int z = -ARENA_RADIUS; z <= ARENA_RADIUS; z++) {
+                context.setBlockState(new BlockPos(x, 1, z), Blocks.STONE);
+                for (int y = 2; y < 8; y++) context.setBlockState(new BlockPos(x, y, z), Blocks.AIR);
+            }
+        }
+    }
+
+    // killAllEntities only covers the empty test structure; the arena and what flies out of it is far bigger
+    private static void clearArena(TestContext context) {
+        ServerWorld world = context.getWorld();
+        BlockPos center = context.getAbsolutePos(BlockPos.ORIGIN);
+        Box box = new Box(center.getX() - CLEAR_RADIUS, world.getBottomY(), center.getZ() - CLEAR_RADIUS,
+                center.getX() + CLEAR_RADIUS + 1, world.getTopY(), center.getZ() + CLEAR_RADIUS + 1);
+        for (Entity e : world.getEntitiesByClass(Entity.class, box, e -> !(e instanceof PlayerEntity))) {
+            e.discard();
+        }
+    }
+
+    // highest tier that exists, since that's the one players reach for under load
+    private static TomeItem findTome(SpellId spell) {
+        TomeTier[] tiers = TomeTier.values();
+        for (int i = tiers.length - 1; i >= 0; i--) {
+            TomeItem tome = ModItems.getTomeFor(spell, tiers[i]);
+            if (tome != null) return tome;
+        }
+        return null;
+    }
+
+    private static Properties loadBudgets() {
+        Properties p = new Properties();
+        try (InputStream in = SpellStressTest.class.getResourceAsStream("/ragnarsmagicmod-stress.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            RagnarsMagicMod.LOGGER.warn("Could not read stress budgets, using defaults", e);
+        }
+        return p;
+    }
+
+    private static double budget(Properties budgets, SpellId spell) {
+        String value = budgets.getProperty("budget." + spell.name(), budgets.getProperty("budget.default", "2.0"));
+        return Double.parseDouble(value.trim());
+    }
+
+    private static void report(List<Result> results) {
+        StringBuilder csv = new StringBuilder("spell,casters,spell_ms_per_tick,budget_ms,mspt_mean,mspt_p99,mspt_max,"
+                + "alloc_bytes_per_tick,peak_entities\n");
+        for (Result r : results) {
+            RagnarsMagicMod.LOGGER.info("[stress] {} x{}: {} ms/tick (budget {}), MSPT mean {} / p99 {} / max {}, {} B/tick, {} entities peak",
+                    r.spell(), r.casters(), String.format("%.3f", r.spellMsPerTick()), r.budgetMs(),
+                    String.format("%.1f", r.msptMean()), String.format("%.1f", r.msptP99()),
+                    String.format("%.1f", r.msptMax()), r.allocBytesPerTick(), r.peakEntities());
+            csv.append(String.format("%s,%d,%.4f,%.4f,%.3f,%.3f,%.3f,%d,%d\n", r.spell(), r.casters(), r.spellMsPerTick(),
+                    r.budgetMs(), r.msptMean(), r.msptP99(), r.msptMax(), r.allocBytesPerTick(), r.peakEntities()));
+        }
+        Path path = FabricLoader.getInstance().getGameDir().resolve("stress-report.csv");
+        try {
+            Files.writeString(path, csv);
+        } catch (IOException e) {
+            RagnarsMagicMod.LOGGER.warn("Could not write {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package net.ragnar.ragnarsmagicmod.fx.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** One frame of a Fibonacci shell layer (Insight's scan draws 90 points per tick). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShellPointBenchmark {
+    @Param({"32", "90", "512"})
+    public int points;
+
+    private final double[] out = new double[3];
+    private double spin = 0.0;
+
+    @Benchmark
+    public void shell(Blackhole bh) {
+        spin += 0.05;
+        for (int i = 0; i < points; i++) {
+            FxEmitterClient.shellPoint(i, points, spin, out);
+            bh.consume(out[0]);
+            bh.consume(out[1]);
+            bh.consume(out[2]);
+        }
+    }
+}
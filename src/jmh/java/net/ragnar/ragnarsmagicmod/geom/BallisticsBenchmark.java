@@ -0,0 +1,25 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** The falling-anvil impact estimate; cost grows with the drop height since it steps tick by tick. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BallisticsBenchmark {
+    @Param({"4", "20", "80"})
+    public double height;
+
+    @Benchmark
+    public int fallTicks() {
+        return Ballistics.fallTicks(height);
+    }
+}
@@ -0,0 +1,73 @@
+package net.ragnar.ragnarsmagicmod.geom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-segment tests behind the sun's swept sphere and the ice beam, over a fixed set of random
+ * segments (a few blocks long, like one tick of travel) and points around them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SegmentsBenchmark {
+    private static final int N = 1024;
+
+    // a, b, p for segment i at [9i .. 9i+8]
+    private final double[] data = new double[N * 9];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < N; i++) {
+            int k = i * 9;
+            data[k] = random.nextDouble(-64, 64);
+            data[k + 1] = random.nextDouble(0, 128);
+            data[k + 2] = random.nextDouble(-64, 64);
+            // a few degenerate segments, as when a projectile didn't move this tick
+            double len = i % 64 == 0 ? 0 : 3;
+            for (int c = 0; c < 3; c++) {
+                data[k + 3 + c] = data[k + c] + random.nextDouble(-1, 1) * len;
+                data[k + 6 + c] = data[k + c] + random.nextDouble(-8, 8);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void projectParam(Blackhole bh) {
+        double[] d = data;
+        for (int k = 0; k < d.length; k += 9) {
+            bh.consume(Segments.projectParam(d[k], d[k + 1], d[k + 2], d[k + 3], d[k + 4], d[k + 5], d[k + 6], d[k + 7], d[k + 8]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void distanceSq(Blackhole bh) {
+        double[] d = data;
+        for (int k = 0; k < d.length; k += 9) {
+            bh.consume(Segments.distanceSq(d[k + 6], d[k + 7], d[k + 8], d[k], d[k + 1], d[k + 2], d[k + 3], d[k + 4], d[k + 5]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void sweptSphere(Blackhole bh) {
+        double[] d = data;
+        for (int k = 0; k < d.length; k += 9) {
+            bh.consume(Segments.sweptSphereHits(d[k], d[k + 1], d[k + 2], 2.0, d[k + 3], d[k + 4], d[k + 5], 2.4,
+                    d[k + 6], d[k + 7], d[k + 8], 0.5));
+        }
+    }
+}
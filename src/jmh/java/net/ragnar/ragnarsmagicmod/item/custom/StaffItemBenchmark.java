@@ -0,0 +1,69 @@
+package net.ragnar.ragnarsmagicmod.item.custom;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-cast bookkeeping in {@link StaffItem}: the experience total checked before every cast and the
+ * custom-data read behind every socket query (several per right click).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StaffItemBenchmark {
+    @State(Scope.Thread)
+    public static class Xp {
+        @Param({"5", "30", "100"})
+        public int level;
+    }
+
+    private ItemStack socketed;
+    private ItemStack empty;
+
+    @Setup
+    public void setup() {
+        // vanilla registries have to exist before any ItemStack does
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString(StaffItem.NBT_ID, SpellId.FIREBALLS.name());
+        nbt.putString(StaffItem.NBT_TIER, TomeTier.ADVANCED.name());
+        nbt.putInt(StaffItem.NBT_XP, 20);
+        socketed = new ItemStack(Items.STICK);
+        socketed.set(DataComponentTypes.CUSTOM_DATA, NbtComponent.of(nbt));
+        empty = new ItemStack(Items.STICK);
+    }
+
+    @Benchmark
+    public int totalXpPoints(Xp xp) {
+        return StaffItem.totalXpPoints(xp.level, 0.5f);
+    }
+
+    @Benchmark
+    public NbtCompound readCustomSocketed() {
+        return StaffItem.readCustom(socketed);
+    }
+
+    @Benchmark
+    public NbtCompound readCustomEmpty() {
+        return StaffItem.readCustom(empty);
+    }
+}
@@ -0,0 +1,106 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One world tick of pooled effects going through the runtime: acquire from an {@link EffectPool},
+ * add to a {@link WorldBucket}, tick and compact the bucket, hand finished instances back to the
+ * pool. Each runner is played with its pool size, lifetime and a busy server's spawn rate.
+ * <p>
+ * The stand-in effect only counts down: what the real runners do with the world (particles, entity
+ * lookups) is vanilla and allocates on its own, which is why {@link AllocationProbe} never reads
+ * zero. What's left here is the mod's part, and {@code gc.alloc.rate.norm} should stay at about
+ * 0 B/op once warmed up; anything more means the tick loop or the pools started allocating.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PooledEffectBenchmark {
+    // name, lifetime ticks, spawn every n ticks, spawns each time, pool capacity (as in the runner)
+    private static final Object[][] RUNNERS = {
+            {"dash", 10, 1, 4, 64},      // DashRunner, DashSpell.DURATION_T
+            {"cloud", 400, 10, 1, 32},   // CloudRunner, CloudSpell's 400 ticks
+            {"smash", 40, 1, 1, 32},     // SmashRunner, a typical leap (MAX_TICKS is 100)
+            {"trail", 60, 5, 1, 16},     // MeteorEffects.Trail, a typical fall
+            {"spike", 15, 1, 12, 256},   // SpikeWave, RisingSpikesSpell.LIFETIME_T over several lanes
+    };
+
+    @Param({"dash", "cloud", "smash", "trail", "spike"})
+    public String runner;
+
+    private WorldBucket bucket;
+    private EffectType type;
+    private EffectPool<Pooled> pool;
+    private int lifetime;
+    private int spawnEvery;
+    private int spawnCount;
+    private int tick;
+
+    // same shape as the runners' state: a counter and references dropped when it ends
+    private static final class Pooled extends SpellEffect {
+        Object owner;
+        int ticksLeft;
+
+        Pooled set(Object owner, int ticksLeft) {
+            this.owner = owner;
+            this.ticksLeft = ticksLeft;
+            return this;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return --ticksLeft > 0;
+        }
+
+        @Override
+        protected void onFinished() {
+            owner = null;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Object[] r = null;
+        for (Object[] row : RUNNERS) {
+            if (row[0].equals(runner)) r = row;
+        }
+        if (r == null) throw new IllegalArgumentException(runner);
+        lifetime = (int) r[1];
+        spawnEvery = (int) r[2];
+        spawnCount = (int) r[3];
+        pool = new EffectPool<>((int) r[4], Pooled::new);
+        type = SpellRuntime.registerType("bench_" + runner, lifetime);
+        bucket = new WorldBucket();
+
+        // run a couple of lifetimes so the bucket's list and the pool have reached their steady size
+        for (int i = 0; i < lifetime * 2; i++) worldTick();
+    }
+
+    @Benchmark
+    public int worldTick() {
+        if (tick++ % spawnEvery == 0) {
+            for (int i = 0; i < spawnCount; i++) {
+                // what SpellRuntime.spawn resets, without the world it reads the time from
+                Pooled effect = pool.acquire().set(this, lifetime);
+                effect.cpuNanos = 0;
+                effect.avgNanos = 0;
+                effect.strikes = 0;
+                effect.evicted = false;
+                bucket.add(type, effect);
+            }
+        }
+        // the stand-in never touches the world
+        bucket.tick(null);
+        return bucket.live;
+    }
+}
@@ -1,12 +1,20 @@
 package net.ragnar.ragnarsmagicmod;
 
 import net.fabricmc.api.ModInitializer;
+import net.ragnar.ragnarsmagicmod.command.ModCommands;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
 import net.ragnar.ragnarsmagicmod.enchantment.ModEnchantments;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitters;
 import net.ragnar.ragnarsmagicmod.entity.ModEntities;
 import net.ragnar.ragnarsmagicmod.item.ModItems;
 import net.ragnar.ragnarsmagicmod.item.spell.GhastFireballSpell;
 import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
 import net.ragnar.ragnarsmagicmod.item.spell.Spells;
+import net.ragnar.ragnarsmagicmod.metrics.SpellMetrics;
+import net.ragnar.ragnarsmagicmod.network.ModPayloads;
+import net.ragnar.ragnarsmagicmod.replay.CastRecorder;
+import net.ragnar.ragnarsmagicmod.replay.CastReplay;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 import net.ragnar.ragnarsmagicmod.util.ModLootTableModifiers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,16 +26,26 @@ public class RagnarsMagicMod implements ModInitializer {
     @Override
     public void onInitialize() {
         LOGGER.info("Initializing {}", MOD_ID);
+        ModConfig.load();
 
         ModItems.registerModItems();
         ModEnchantments.registerModEnchantments(); // Just loads the keys
 
         net.ragnar.ragnarsmagicmod.sound.ModSoundEvents.init();
         ModEntities.registerModEntities();
+        ModPayloads.registerModPayloads();
 
         // Register Loot Table Modifiers
         ModLootTableModifiers.modifyLootTables();
 
+        // Single tick driver for every active spell effect
+        SpellRuntime.init();
+        FxEmitters.init();
+        ModCommands.registerModCommands();
+        SpellMetrics.init();
+        CastRecorder.init();
+        CastReplay.init();
+
         // Spell Registration
         Spells.register(SpellId.FIREBALLS, new net.ragnar.ragnarsmagicmod.item.spell.FireballSpell());
         Spells.register(SpellId.GHAST_FIREBALL, new GhastFireballSpell(1));
@@ -4,6 +4,8 @@ import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.rendering.v1.EntityRendererRegistry;
 import net.ragnar.ragnarsmagicmod.entity.ModEntities;
 import net.ragnar.ragnarsmagicmod.entity.client.SteveRenderer;
+import net.ragnar.ragnarsmagicmod.fx.client.FxBatchReceiver;
+import net.ragnar.ragnarsmagicmod.fx.client.FxEmitterClient;
 
 
 public class RagnarsMagicModClient implements ClientModInitializer {
@@ -11,5 +13,7 @@ public class RagnarsMagicModClient implements ClientModInitializer {
     public void onInitializeClient() {
         net.ragnar.ragnarsmagicmod.entity.client.ModEntityRenderers.register();
         EntityRendererRegistry.register(ModEntities.STEVE, SteveRenderer::new);
+        FxBatchReceiver.register();
+        FxEmitterClient.register();
     }
 }
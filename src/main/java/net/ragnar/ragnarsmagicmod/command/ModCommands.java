@@ -0,0 +1,226 @@
+package net.ragnar.ragnarsmagicmod.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.math.BlockPos;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import net.ragnar.ragnarsmagicmod.replay.CastRecorder;
+import net.ragnar.ragnarsmagicmod.replay.CastReplay;
+import net.ragnar.ragnarsmagicmod.replay.ReplayFormat;
+import net.ragnar.ragnarsmagicmod.runtime.SpellMemory;
+import net.ragnar.ragnarsmagicmod.runtime.SpellProfiler;
+
+import java.io.IOException;
+import java.util.List;
+
+import static net.minecraft.server.command.CommandManager.argument;
+import static net.minecraft.server.command.CommandManager.literal;
+
+public class ModCommands {
+    private static final int DEFAULT_ROWS = 10;
+
+    public static void registerModCommands() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> register(dispatcher));
+    }
+
+    private static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(literal("rmm")
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(literal("profile")
+                        .then(literal("start").executes(ctx -> {
+                            SpellProfiler.start();
+                            ctx.getSource().sendFeedback(() -> Text.literal("Spell profiler started."), true);
+                            return 1;
+                        }))
+                        .then(literal("stop").executes(ctx -> {
+                            if (!SpellProfiler.isRunning()) {
+                                ctx.getSource().sendError(Text.literal("Spell profiler is not running."));
+                                return 0;
+                            }
+                            SpellProfiler.stop();
+                            ctx.getSource().sendFeedback(() -> Text.literal("Spell profiler stopped."), true);
+                            return dump(ctx.getSource(), DEFAULT_ROWS);
+                        }))
+                        .then(literal("dump")
+                                .executes(ctx -> dump(ctx.getSource(), DEFAULT_ROWS))
+                                .then(argument("rows", IntegerArgumentType.integer(1, 100))
+                                        .executes(ctx -> dump(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "rows"))))))
+                .then(literal("net")
+                        .then(literal("start").executes(ctx -> {
+                            NetAccounting.start();
+                            ctx.getSource().sendFeedback(() -> Text.literal("Spell network accounting started."), true);
+                            return 1;
+                        }))
+                        .then(literal("stop").executes(ctx -> {
+                            if (!NetAccounting.isRunning()) {
+                                ctx.getSource().sendError(Text.literal("Spell network accounting is not running."));
+                                return 0;
+                            }
+                            NetAccounting.stop();
+                            ctx.getSource().sendFeedback(() -> Text.literal("Spell network accounting stopped."), true);
+                            return dumpNet(ctx.getSource(), DEFAULT_ROWS);
+                        }))
+                        .then(literal("dump")
+                                .executes(ctx -> dumpNet(ctx.getSource(), DEFAULT_ROWS))
+                                .then(argument("rows", IntegerArgumentType.integer(1, 100))
+                                        .executes(ctx -> dumpNet(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "rows"))))))
+                .then(literal("memory")
+                        .executes(ctx -> dumpMemory(ctx.getSource(), DEFAULT_ROWS))
+                        .then(argument("rows", IntegerArgumentType.integer(1, 100))
+                                .executes(ctx -> dumpMemory(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "rows")))))
+                .then(literal("replay")
+                        .then(literal("record")
+                                .then(literal("start").then(argument("name", StringArgumentType.word()).executes(ctx -> {
+                                    String name = StringArgumentType.getString(ctx, "name");
+                                    ServerCommandSource source = ctx.getSource();
+                                    try {
+                                        CastRecorder.start(source.getWorld(), BlockPos.ofFloored(source.getPosition()), name);
+                                    } catch (IOException e) {
+                                        source.sendError(Text.literal("Could not start recording: " + e.getMessage()));
+                                        return 0;
+                                    }
+                                    source.sendFeedback(() -> Text.literal("Recording casts to " + CastRecorder.path()
+                                            + ", relative to where you stand."), true);
+                                    return 1;
+                                })))
+                                .then(literal("stop").executes(ctx -> {
+                                    int casts = CastRecorder.stop();
+                                    if (casts < 0) {
+                                        ctx.getSource().sendError(Text.literal("Not recording."));
+                                        return 0;
+                                    }
+                                    ctx.getSource().sendFeedback(() -> Text.literal("Recorded " + casts + " casts to "
+                                            + CastRecorder.path() + "."), true);
+                                    return casts;
+                                })))
+                        .then(literal("play").then(argument("name", StringArgumentType.word()).executes(ctx -> {
+                            String name = StringArgumentType.getString(ctx, "name");
+                            ServerCommandSource source = ctx.getSource();
+                            ReplayFormat.Header header;
+                            try {
+                                header = CastReplay.start(source.getWorld(), BlockPos.ofFloored(source.getPosition()), name,
+                                        summary -> source.sendFeedback(() -> Text.literal(String.format(
+                                                "Replay %s done: %d ticks, %d casts (%d skipped), MSPT mean %.2f / p50 %.2f / p99 %.2f / max %.2f. "
+                                                        + "See /rmm profile dump and /rmm net dump.",
+                                                summary.name(), summary.ticks(), summary.casts(), summary.skipped(), summary.msptMean(),
+                                                summary.msptP50(), summary.msptP99(), summary.msptMax())), true));
+                            } catch (IOException e) {
+                                source.sendError(Text.literal("Could not load replay " + name + ": " + e.getMessage()));
+                                return 0;
+                            }
+                            if (header.seed() != source.getWorld().getSeed()) {
+                                source.sendError(Text.literal("Recorded on a different world seed; terrain may not match."));
+                            }
+                            source.sendFeedback(() -> Text.literal("Replaying " + name + " (recorded on " + header.dimension()
+                                    + ", mod " + header.modVersion() + ") around where you stand."), true);
+                            return 1;
+                        })))
+                        .then(literal("stop").executes(ctx -> {
+                            if (!CastReplay.isRunning()) {
+                                ctx.getSource().sendError(Text.literal("No replay is running."));
+                                return 0;
+                            }
+                            CastReplay.stop();
+                            return 1;
+                        }))));
+    }
+
+    // top rows go to chat, the full table to the log
+    private static int dump(ServerCommandSource source, int rows) {
+        List<SpellProfiler.Row> report = SpellProfiler.report();
+        if (report.isEmpty()) {
+            source.sendError(Text.literal("No spell activity recorded. Start a window with /rmm profile start."));
+            return 0;
+        }
+
+        String header = String.format("Spell profile over %.1fs%s (total / calls / p50 / p99 / max, live now/peak):",
+                SpellProfiler.windowNanos() / 1.0e9, SpellProfiler.isRunning() ? ", still running" : "");
+        source.sendFeedback(() -> Text.literal(header), false);
+        RagnarsMagicMod.LOGGER.info("[profile] {}", header);
+
+        for (int i = 0; i < report.size(); i++) {
+            String line = format(report.get(i));
+            if (i < rows) source.sendFeedback(() -> Text.literal(line), false);
+            RagnarsMagicMod.LOGGER.info("[profile] {}", line);
+        }
+        return report.size();
+    }
+
+    private static String format(SpellProfiler.Row row) {
+        String line = String.format("%s: %s / %d / %s / %s / %s", row.name(), ms(row.totalNanos()), row.calls(),
+                ms(row.p50Nanos()), ms(row.p99Nanos()), ms(row.maxNanos()));
+        if (row.livePeak() > 0) line += " (" + row.liveNow() + "/" + row.livePeak() + ")";
+        return line;
+    }
+
+    private static int dumpNet(ServerCommandSource source, int rows) {
+        List<NetAccounting.Row> report = NetAccounting.report();
+        if (report.isEmpty()) {
+            source.sendError(Text.literal("No spell traffic recorded. Start a window with /rmm net start."));
+            return 0;
+        }
+
+        double seconds = Math.max(NetAccounting.windowNanos() / 1.0e9, 1.0e-3);
+        String header = String.format("Spell traffic over %.1fs%s (bytes / packets / bytes per second / bytes per cast):",
+                seconds, NetAccounting.isRunning() ? ", still running" : "");
+        source.sendFeedback(() -> Text.literal(header), false);
+        RagnarsMagicMod.LOGGER.info("[net] {}", header);
+
+        for (int i = 0; i < report.size(); i++) {
+            NetAccounting.Row row = report.get(i);
+            String line = String.format("%s: %s / %d / %s/s / %s", row.spell(), bytes(row.bytes()), row.packets(),
+                    bytes((long) (row.bytes() / seconds)), row.casts() == 0 ? "-" : bytes(row.bytes() / row.casts()));
+            if (i < rows) source.sendFeedback(() -> Text.literal(line), false);
+            RagnarsMagicMod.LOGGER.info("[net] {}", line);
+        }
+        return report.size();
+    }
+
+    // overdue rows are always shown, whatever the row limit
+    private static int dumpMemory(ServerCommandSource source, int rows) {
+        List<SpellMemory.Row> report = SpellMemory.report(source.getServer());
+        if (report.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("No spell state held."), false);
+            return 0;
+        }
+
+        long total = 0;
+        for (SpellMemory.Row row : report) total += row.bytes();
+        String header = String.format("Spell state, about %s (entries / bytes / oldest, overdue):", bytes(total));
+        source.sendFeedback(() -> Text.literal(header), false);
+        RagnarsMagicMod.LOGGER.info("[memory] {}", header);
+
+        for (int i = 0; i < report.size(); i++) {
+            SpellMemory.Row row = report.get(i);
+            String line = String.format("%s%s: %d / %s / %s", row.collection(), row.world() == null ? "" : " in " + row.world(),
+                    row.entries(), bytes(row.bytes()), row.oldestAgeTicks() < 0 ? "-" : row.oldestAgeTicks() + "t");
+            if (row.maxLifetimeTicks() > 0) line += " (max " + row.maxLifetimeTicks() + "t)";
+            if (row.overdue() > 0) {
+                String overdue = line + ", " + row.overdue() + " OVERDUE";
+                source.sendFeedback(() -> Text.literal(overdue).formatted(Formatting.RED), false);
+                RagnarsMagicMod.LOGGER.warn("[memory] {}", overdue);
+                continue;
+            }
+            String ok = line;
+            if (i < rows) source.sendFeedback(() -> Text.literal(ok), false);
+            RagnarsMagicMod.LOGGER.info("[memory] {}", ok);
+        }
+        return report.size();
+    }
+
+    private static String bytes(long n) {
+        if (n < 1024) return n + "B";
+        if (n < 1024 * 1024) return String.format("%.1fKiB", n / 1024.0);
+        return String.format("%.2fMiB", n / (1024.0 * 1024.0));
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.3fms", nanos / 1.0e6);
+    }
+}
@@ -0,0 +1,285 @@
+package net.ragnar.ragnarsmagicmod.config;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import net.ragnar.ragnarsmagicmod.runtime.CapPolicy;
+import net.ragnar.ragnarsmagicmod.runtime.EffectCap;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Server tuning, read once from {@code config/ragnarsmagicmod.properties}. Missing keys fall back to
+ * the defaults below; a missing file is written out with the defaults so there is something to edit.
+ */
+public class ModConfig {
+    private static final String FILE_NAME = RagnarsMagicMod.MOD_ID + ".properties";
+
+    // --- particle level of detail ---
+    /** Per-viewer thinning of batched effect particles. */
+    public static boolean fxLodEnabled = true;
+    /** Distance bands, ascending: a viewer up to {@code distance} blocks away gets {@code keep} of the particles. */
+    public static List<LodBand> fxLodBands = List.of(
+            new LodBand(12.0, 1.0f),
+            new LodBand(20.0, 0.5f),
+            new LodBand(32.0, 0.25f));
+    /** Extra factor for viewers looking away from the effect. */
+    public static float fxLodBehindScale = 0.5f;
+
+    /** Particles spell work may emit per world per tick (burst counts summed), 0 for no limit. See {@code ParticleBudget}. */
+    public static int fxBudgetPerTick = 4000;
+
+    // --- adaptive effect quality ---
+    /** {@code auto} follows MSPT; {@code low}, {@code medium} and {@code high} pin the quality. See {@code FxQuality}. */
+    public static QualityProfile fxQualityProfile = QualityProfile.AUTO;
+    /** Bounds on the quality scale, 0 to 1, whatever the profile. */
+    public static float fxQualityFloor = 0.25f;
+    public static float fxQualityCeiling = 1.0f;
+    /** Full quality up to this mean tick time, the floor from {@code msptHigh} up. */
+    public static float fxQualityMsptLow = 30.0f;
+    public static float fxQualityMsptHigh = 50.0f;
+
+    // --- effect caps ---
+    /**
+     * Per effect type overrides of the caps spells declare, from {@code caps.<effect type>} keys:
+     * {@code perPlayer,perWorld,policy}, e.g. {@code caps.sun_ball=2,16,evict_oldest}. 0 means no bound.
+     */
+    public static Map<String, EffectCap> effectCaps = Map.of();
+
+    // --- cast rate limits ---
+    /** A token bucket per player, and one for the server, in front of every cast. See {@code CastLimiter}. */
+    public static boolean castRateEnabled = true;
+    /**
+     * {@code cast.rate.player=perSecond,burst}, in tokens; a rate of 0 means no limit. Shared by every
+     * tier: refill and burst can't be set per tier any more, only the cost below.
+     */
+    public static CastRate castRatePlayer = new CastRate(4.0, 8);
+    /** {@code cast.cost.<tier>=tokens} a cast takes from the player's bucket, so stronger tomes cast less often. */
+    public static Map<TomeTier, Double> castCosts = Map.of(
+            TomeTier.BEGINNER, 1.0,
+            TomeTier.ADVANCED, 2.0,
+            TomeTier.MASTER, 4.0);
+    /** {@code cast.rate.global=perSecond,burst}, one token per cast whatever the tier. */
+    public static CastRate castRateGlobal = new CastRate(40.0, 80);
+
+    // --- networking ---
+    /** Hold back effect particles and sounds and send them to each player as one bundle per tick. */
+    public static boolean netBundleEnabled = true;
+
+    // --- metrics ---
+    /** Count casts, failures and emissions and export them (see {@code SpellMetrics}). */
+    public static boolean metricsEnabled = false;
+    /** Serve Prometheus text on this port, 0 for no HTTP endpoint. */
+    public static int metricsHttpPort = 9464;
+    public static String metricsHttpBind = "127.0.0.1";
+    /** Also (or instead) rewrite this file, relative to the game directory; empty for none. */
+    public static String metricsFile = "";
+    public static int metricsFileIntervalSeconds = 15;
+
+    // --- effect watchdog ---
+    /** Time every effect instance's tick and stop the ones that keep going over budget. */
+    public static boolean watchdogEnabled = true;
+    /** One instance, one tick. */
+    public static float watchdogTickBudgetMs = 5.0f;
+    /** One instance, moving average per tick over about the last second. */
+    public static float watchdogAverageBudgetMs = 2.0f;
+    /** Ticks in a row over either budget before the instance is stopped. */
+    public static int watchdogStrikes = 3;
+
+    // --- time-sliced work ---
+    /** Per-tick time a big sweep (nova, void zone, mining, insight reveal) may take before the rest carries over. */
+    public static float sliceBudgetMs = 1.0f;
+
+    public record LodBand(double distance, float keep) {}
+
+    public record CastRate(double perSecond, int burst) {}
+
+    public enum QualityProfile { AUTO, LOW, MEDIUM, HIGH }
+
+    public static void load() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        Properties props = new Properties();
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                props.load(reader);
+            } catch (IOException e) {
+                RagnarsMagicMod.LOGGER.warn("Could not read {}, using defaults", path, e);
+            }
+        }
+
+        fxLodEnabled = Boolean.parseBoolean(props.getProperty("fx.lod.enabled", Boolean.toString(fxLodEnabled)));
+        fxLodBands = parseBands(props.getProperty("fx.lod.bands"), fxLodBands);
+        fxLodBehindScale = parseFloat(props.getProperty("fx.lod.behindScale"), fxLodBehindScale);
+        fxBudgetPerTick = parseInt(props.getProperty("fx.budget.perTick"), fxBudgetPerTick);
+        fxQualityProfile = parseProfile(props.getProperty("fx.quality.profile"), fxQualityProfile);
+        fxQualityFloor = Math.max(0.0f, Math.min(1.0f, parseFloat(props.getProperty("fx.quality.floor"), fxQualityFloor)));
+        fxQualityCeiling = Math.max(fxQualityFloor, Math.min(1.0f, parseFloat(props.getProperty("fx.quality.ceiling"), fxQualityCeiling)));
+        fxQualityMsptLow = parseFloat(props.getProperty("fx.quality.msptLow"), fxQualityMsptLow);
+        fxQualityMsptHigh = parseFloat(props.getProperty("fx.quality.msptHigh"), fxQualityMsptHigh);
+        effectCaps = parseCaps(props);
+        castRateEnabled = Boolean.parseBoolean(props.getProperty("cast.rate.enabled", Boolean.toString(castRateEnabled)));
+        castRatePlayer = parseRate("cast.rate.player", props.getProperty("cast.rate.player"), castRatePlayer);
+        Map<TomeTier, Double> costs = new EnumMap<>(TomeTier.class);
+        for (TomeTier tier : TomeTier.values()) {
+            String key = "cast.cost." + tier.name().toLowerCase();
+            costs.put(tier, Math.max(0.0, parseDouble(props.getProperty(key), castCosts.get(tier))));
+        }
+        castCosts = costs;
+        castRateGlobal = parseRate("cast.rate.global", props.getProperty("cast.rate.global"), castRateGlobal);
+        netBundleEnabled = Boolean.parseBoolean(props.getProperty("net.bundle.enabled", Boolean.toString(netBundleEnabled)));
+        metricsEnabled = Boolean.parseBoolean(props.getProperty("metrics.enabled", Boolean.toString(metricsEnabled)));
+        metricsHttpPort = parseInt(props.getProperty("metrics.http.port"), metricsHttpPort);
+        metricsHttpBind = props.getProperty("metrics.http.bind", metricsHttpBind).trim();
+        metricsFile = props.getProperty("metrics.file", metricsFile).trim();
+        metricsFileIntervalSeconds = parseInt(props.getProperty("metrics.file.intervalSeconds"), metricsFileIntervalSeconds);
+        watchdogEnabled = Boolean.parseBoolean(props.getProperty("watchdog.enabled", Boolean.toString(watchdogEnabled)));
+        watchdogTickBudgetMs = parseFloat(props.getProperty("watchdog.tickBudgetMs"), watchdogTickBudgetMs);
+        watchdogAverageBudgetMs = parseFloat(props.getProperty("watchdog.averageBudgetMs"), watchdogAverageBudgetMs);
+        watchdogStrikes = Math.max(1, parseInt(props.getProperty("watchdog.strikes"), watchdogStrikes));
+        sliceBudgetMs = Math.max(0.0f, parseFloat(props.getProperty("slice.budgetMs"), sliceBudgetMs));
+
+        if (!Files.exists(path)) save(path);
+    }
+
+    private static void save(Path path) {
+        Properties props = new Properties();
+        props.setProperty("fx.lod.enabled", Boolean.toString(fxLodEnabled));
+        props.setProperty("fx.lod.bands", formatBands(fxLodBands));
+        props.setProperty("fx.lod.behindScale", Float.toString(fxLodBehindScale));
+        props.setProperty("fx.budget.perTick", Integer.toString(fxBudgetPerTick));
+        props.setProperty("fx.quality.profile", fxQualityProfile.name().toLowerCase());
+        props.setProperty("fx.quality.floor", Float.toString(fxQualityFloor));
+        props.setProperty("fx.quality.ceiling", Float.toString(fxQualityCeiling));
+        props.setProperty("fx.quality.msptLow", Float.toString(fxQualityMsptLow));
+        props.setProperty("fx.quality.msptHigh", Float.toString(fxQualityMsptHigh));
+        props.setProperty("cast.rate.enabled", Boolean.toString(castRateEnabled));
+        props.setProperty("cast.rate.player", formatRate(castRatePlayer));
+        for (TomeTier tier : TomeTier.values()) {
+            props.setProperty("cast.cost." + tier.name().toLowerCase(), Double.toString(castCosts.get(tier)));
+        }
+        props.setProperty("cast.rate.global", formatRate(castRateGlobal));
+        props.setProperty("net.bundle.enabled", Boolean.toString(netBundleEnabled));
+        props.setProperty("metrics.enabled", Boolean.toString(metricsEnabled));
+        props.setProperty("metrics.http.port", Integer.toString(metricsHttpPort));
+        props.setProperty("metrics.http.bind", metricsHttpBind);
+        props.setProperty("metrics.file", metricsFile);
+        props.setProperty("metrics.file.intervalSeconds", Integer.toString(metricsFileIntervalSeconds));
+        props.setProperty("watchdog.enabled", Boolean.toString(watchdogEnabled));
+        props.setProperty("watchdog.tickBudgetMs", Float.toString(watchdogTickBudgetMs));
+        props.setProperty("watchdog.averageBudgetMs", Float.toString(watchdogAverageBudgetMs));
+        props.setProperty("watchdog.strikes", Integer.toString(watchdogStrikes));
+        props.setProperty("slice.budgetMs", Float.toString(sliceBudgetMs));
+
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            props.store(writer, "Ragnars Magic Mod - fx.lod.bands is distance:keep pairs, keep is the fraction of particles sent");
+        } catch (IOException e) {
+            RagnarsMagicMod.LOGGER.warn("Could not write {}", path, e);
+        }
+    }
+
+    // "12:1.0, 20:0.5, 32:0.25"
+    private static List<LodBand> parseBands(String value, List<LodBand> fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        List<LodBand> bands = new ArrayList<>();
+        try {
+            for (String part : value.split(",")) {
+                String[] kv = part.trim().split(":");
+                bands.add(new LodBand(Double.parseDouble(kv[0].trim()), Float.parseFloat(kv[1].trim())));
+            }
+        } catch (RuntimeException e) {
+            RagnarsMagicMod.LOGGER.warn("Bad fx.lod.bands '{}', using defaults", value);
+            return fallback;
+        }
+        bands.sort((a, b) -> Double.compare(a.distance(), b.distance()));
+        return List.copyOf(bands);
+    }
+
+    private static String formatBands(List<LodBand> bands) {
+        StringBuilder sb = new StringBuilder();
+        for (LodBand band : bands) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(band.distance()).append(':').append(band.keep());
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, EffectCap> parseCaps(Properties props) {
+        Map<String, EffectCap> caps = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith("caps.")) continue;
+            String value = props.getProperty(key);
+            try {
+                String[] parts = value.split(",");
+                caps.put(key.substring("caps.".length()), new EffectCap(Integer.parseInt(parts[0].trim()),
+                        Integer.parseInt(parts[1].trim()), CapPolicy.valueOf(parts[2].trim().toUpperCase())));
+            } catch (RuntimeException e) {
+                RagnarsMagicMod.LOGGER.warn("Bad {} '{}', expected perPlayer,perWorld,policy", key, value);
+            }
+        }
+        return Map.copyOf(caps);
+    }
+
+    // "2.0,4"
+    private static CastRate parseRate(String key, String value, CastRate fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            String[] parts = value.split(",");
+            return new CastRate(Double.parseDouble(parts[0].trim()), Math.max(1, Integer.parseInt(parts[1].trim())));
+        } catch (RuntimeException e) {
+            RagnarsMagicMod.LOGGER.warn("Bad {} '{}', expected perSecond,burst", key, value);
+            return fallback;
+        }
+    }
+
+    private static String formatRate(CastRate rate) {
+        return rate.perSecond() + "," + rate.burst();
+    }
+
+    private static QualityProfile parseProfile(String value, QualityProfile fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return QualityProfile.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            RagnarsMagicMod.LOGGER.warn("Bad fx.quality.profile '{}', using {}", value, fallback.name().toLowerCase());
+            return fallback;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static float parseFloat(String value, float fallback) {
+        if (value == null) return fallback;
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static double parseDouble(String value, double fallback) {
+        if (value == null) return fallback;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
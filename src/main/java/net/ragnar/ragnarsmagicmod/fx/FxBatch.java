@@ -0,0 +1,270 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.item.ItemStack;
+import net.minecraft.particle.BlockStateParticleEffect;
+import net.minecraft.particle.DustParticleEffect;
+import net.minecraft.particle.ItemStackParticleEffect;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import net.ragnar.ragnarsmagicmod.network.FxBatchPayload;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the particles an effect emits in one tick and sends them as one {@link FxBatchPayload}.
+ * Drop-in for {@code ServerWorld.spawnParticles}: same arguments, same 32 block view range.
+ * <pre>
+ *     FxBatch fx = FxBatch.begin(world, center);
+ *     fx.particle(ParticleTypes.FLAME, x, y, z, 1, 0, 0, 0, 0);
+ *     ...
+ *     fx.send();
+ * </pre>
+ * Each viewer gets a level of detail picked from {@link ModConfig#fxLodBands} by their distance to
+ * the batch, halved again (by default) when they are looking away from it. Viewers on the same level
+ * share one payload. Batches are recycled on {@link #send()}; don't touch one after sending it.
+ * Server thread only.
+ */
+public final class FxBatch {
+    private static final double VIEW_DISTANCE_SQ = 32.0 * 32.0; // same range vanilla uses for particle packets
+    private static final int LOD_STEPS = 16; // keep fractions are rounded to 1/16 so viewers can share payloads
+    private static final ArrayDeque<FxBatch> FREE = new ArrayDeque<>();
+
+    private ServerWorld world;
+    private double ox, oy, oz;
+    private double minX, minY, minZ, maxX, maxY, maxZ;
+    private final List<GroupBuilder> groups = new ArrayList<>();
+    private int used = 0;
+    private GroupBuilder last;
+    private final FxBatchPayload[] byLevel = new FxBatchPayload[LOD_STEPS + 1];
+
+    private FxBatch() {}
+
+    private static final class GroupBuilder {
+        ParticleEffect effect;
+        int count;
+        float dx, dy, dz, speed;
+        boolean directional;
+        short[] positions = new short[48];
+        short[] velocities;
+        int length;
+
+        boolean matches(ParticleEffect effect, int count, float dx, float dy, float dz, float speed) {
+            if (this.count != count) return false;
+            // count 0 points carry their own velocity, so spread and speed don't have to match
+            if (!directional && (this.dx != dx || this.dy != dy || this.dz != dz || this.speed != speed)) return false;
+            return sameEffect(this.effect, effect);
+        }
+
+        void add(short x, short y, short z) {
+            if (length + 3 > positions.length) positions = Arrays.copyOf(positions, positions.length * 2);
+            positions[length++] = x;
+            positions[length++] = y;
+            positions[length++] = z;
+        }
+
+        void addVelocity(short vx, short vy, short vz) {
+            if (velocities == null) velocities = new short[positions.length];
+            else if (velocities.length < positions.length) velocities = Arrays.copyOf(velocities, positions.length);
+            velocities[length - 3] = vx;
+            velocities[length - 2] = vy;
+            velocities[length - 1] = vz;
+        }
+    }
+
+    /** Start a batch; positions are encoded relative to the origin, so pick the effect's center. */
+    public static FxBatch begin(ServerWorld world, double x, double y, double z) {
+        FxBatch batch = FREE.poll();
+        if (batch == null) batch = new FxBatch();
+        batch.world = world;
+        batch.ox = x;
+        batch.oy = y;
+        batch.oz = z;
+        batch.minX = batch.minY = batch.minZ = Double.POSITIVE_INFINITY;
+        batch.maxX = batch.maxY = batch.maxZ = Double.NEGATIVE_INFINITY;
+        return batch;
+    }
+
+    public static FxBatch begin(ServerWorld world, Vec3d origin) {
+        return begin(world, origin.x, origin.y, origin.z);
+    }
+
+    /** Same arguments as {@code ServerWorld.spawnParticles}. */
+    public FxBatch particle(ParticleEffect effect, double x, double y, double z,
+                            int count, double dx, double dy, double dz, double speed) {
+        long qx = Math.round((x - ox) * FxBatchPayload.QUANT);
+        long qy = Math.round((y - oy) * FxBatchPayload.QUANT);
+        long qz = Math.round((z - oz) * FxBatchPayload.QUANT);
+        long vx = 0, vy = 0, vz = 0;
+        if (count == 0) {
+            vx = Math.round(dx * speed * FxBatchPayload.VEL_QUANT);
+            vy = Math.round(dy * speed * FxBatchPayload.VEL_QUANT);
+            vz = Math.round(dz * speed * FxBatchPayload.VEL_QUANT);
+        }
+        if (outOfRange(qx) || outOfRange(qy) || outOfRange(qz) || outOfRange(vx) || outOfRange(vy) || outOfRange(vz)) {
+            // too far from the origin (or too fast) to encode, fall back to a vanilla packet
+            world.spawnParticles(effect, x, y, z, count, dx, dy, dz, speed);
+            return this;
+        }
+
+        if (!ParticleBudget.tryEmit(world, count)) return this;
+        SpellCounters.particlesEmitted++;
+        GroupBuilder g = group(effect, count, (float) dx, (float) dy, (float) dz, (float) speed);
+        g.add((short) qx, (short) qy, (short) qz);
+        if (g.directional) g.addVelocity((short) vx, (short) vy, (short) vz);
+
+        if (x < minX) minX = x;
+        if (y < minY) minY = y;
+        if (z < minZ) minZ = z;
+        if (x > maxX) maxX = x;
+        if (y > maxY) maxY = y;
+        if (z > maxZ) maxZ = z;
+        return this;
+    }
+
+    /** Send to every player within view range of any particle in the batch, then recycle it. */
+    public void send() {
+        if (used > 0) {
+            double cx = (minX + maxX) * 0.5, cy = (minY + maxY) * 0.5, cz = (minZ + maxZ) * 0.5;
+
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                double distSq = distanceSqToBounds(player.getX(), player.getY(), player.getZ());
+                if (distSq > VIEW_DISTANCE_SQ) continue;
+
+                int level = ModConfig.fxLodEnabled ? lodLevel(player, distSq, cx, cy, cz) : LOD_STEPS;
+                if (level == 0) continue;
+                FxBatchPayload payload = byLevel[level];
+                if (payload == null) payload = byLevel[level] = build(level / (float) LOD_STEPS);
+                if (!payload.groups().isEmpty()) ServerPlayNetworking.send(player, payload);
+            }
+        }
+        release();
+    }
+
+    private static int lodLevel(ServerPlayerEntity player, double distSq, double cx, double cy, double cz) {
+        double dist = Math.sqrt(distSq);
+        float keep = 0.0f;
+        for (ModConfig.LodBand band : ModConfig.fxLodBands) {
+            if (dist <= band.distance()) {
+                keep = band.keep();
+                break;
+            }
+        }
+        if (keep <= 0.0f) return 0;
+
+        // outside the effect and facing away from it: they'll only catch the edge of it
+        if (distSq > 0.0) {
+            Vec3d look = player.getRotationVector();
+            double tx = cx - player.getX(), ty = cy - player.getEyeY(), tz = cz - player.getZ();
+            if (look.x * tx + look.y * ty + look.z * tz < 0.0) keep *= ModConfig.fxLodBehindScale;
+        }
+        return Math.max(1, Math.min(LOD_STEPS, Math.round(keep * LOD_STEPS)));
+    }
+
+    // thin every group to `keep` of its points (evenly strided) and its burst count
+    private FxBatchPayload build(float keep) {
+        List<FxBatchPayload.Group> out = new ArrayList<>(used);
+        for (int i = 0; i < used; i++) {
+            GroupBuilder g = groups.get(i);
+            int points = g.length / 3;
+            if (points == 0) continue;
+
+            short[] positions, velocities = null;
+            int count = g.count;
+            if (keep >= 1.0f) {
+                positions = Arrays.copyOf(g.positions, g.length);
+                if (g.directional) velocities = Arrays.copyOf(g.velocities, g.length);
+            } else {
+                int kept = 0;
+                positions = new short[g.length];
+                if (g.directional) velocities = new short[g.length];
+                for (int p = 0; p < points; p++) {
+                    if ((int) ((p + 1) * keep) == (int) (p * keep)) continue;
+                    System.arraycopy(g.positions, p * 3, positions, kept * 3, 3);
+                    if (velocities != null) System.arraycopy(g.velocities, p * 3, velocities, kept * 3, 3);
+                    kept++;
+                }
+                if (kept == 0) {
+                    // a single burst point: keep it, thin its count instead
+                    System.arraycopy(g.positions, 0, positions, 0, 3);
+                    if (velocities != null) System.arraycopy(g.velocities, 0, velocities, 0, 3);
+                    kept = 1;
+                }
+                positions = Arrays.copyOf(positions, kept * 3);
+                if (velocities != null) velocities = Arrays.copyOf(velocities, kept * 3);
+                if (count > 1) count = Math.max(1, Math.round(count * keep));
+            }
+            out.add(new FxBatchPayload.Group(g.effect, count, g.dx, g.dy, g.dz, g.speed, positions, velocities));
+        }
+        return new FxBatchPayload(ox, oy, oz, out);
+    }
+
+    private void release() {
+        for (int i = 0; i < used; i++) {
+            GroupBuilder g = groups.get(i);
+            g.effect = null;
+            g.length = 0;
+        }
+        Arrays.fill(byLevel, null);
+        used = 0;
+        last = null;
+        world = null;
+        FREE.push(this);
+    }
+
+    private GroupBuilder group(ParticleEffect effect, int count, float dx, float dy, float dz, float speed) {
+        // effects usually emit runs of the same particle, so check the last group before scanning
+        if (last != null && last.matches(effect, count, dx, dy, dz, speed)) return last;
+        for (int i = 0; i < used; i++) {
+            GroupBuilder g = groups.get(i);
+            if (g.matches(effect, count, dx, dy, dz, speed)) return last = g;
+        }
+
+        if (used == groups.size()) groups.add(new GroupBuilder());
+        GroupBuilder g = groups.get(used++);
+        g.effect = effect;
+        g.count = count;
+        g.directional = count == 0;
+        // directional groups carry velocities per point instead
+        g.dx = g.directional ? 0 : dx;
+        g.dy = g.directional ? 0 : dy;
+        g.dz = g.directional ? 0 : dz;
+        g.speed = g.directional ? 0 : speed;
+        return last = g;
+    }
+
+    private double distanceSqToBounds(double x, double y, double z) {
+        double dx = Math.max(0, Math.max(minX - x, x - maxX));
+        double dy = Math.max(0, Math.max(minY - y, y - maxY));
+        double dz = Math.max(0, Math.max(minZ - z, z - maxZ));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static boolean outOfRange(long q) {
+        return q < Short.MIN_VALUE || q > Short.MAX_VALUE;
+    }
+
+    // particle effects with parameters are usually created fresh per call, compare them by value
+    private static boolean sameEffect(ParticleEffect a, ParticleEffect b) {
+        if (a == b) return true;
+        if (a.getType() != b.getType()) return false;
+        if (a instanceof BlockStateParticleEffect x && b instanceof BlockStateParticleEffect y) {
+            return x.getBlockState() == y.getBlockState();
+        }
+        if (a instanceof DustParticleEffect x && b instanceof DustParticleEffect y) {
+            return x.getColor().equals(y.getColor()) && x.getScale() == y.getScale();
+        }
+        if (a instanceof ItemStackParticleEffect x && b instanceof ItemStackParticleEffect y) {
+            return ItemStack.areEqual(x.getItemStack(), y.getItemStack());
+        }
+        return a.equals(b);
+    }
+}
@@ -0,0 +1,106 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Descriptor for an effect the client animates on its own: where it is, how it moves, how long it
+ * lives and which {@link FxLayer}s it draws. Sent once per viewer by {@link FxEmitters}; after that the
+ * server only sends a stop or an occasional position correction.
+ */
+public final class FxEmitter {
+    public static final PacketCodec<RegistryByteBuf, FxEmitter> PACKET_CODEC = PacketCodec.of(FxEmitter::write, FxEmitter::read);
+
+    static final int MAX_LAYERS = 8;
+
+    double x, y, z;
+    float driftX, driftY, driftZ;
+    int followEntityId = -1;
+    int duration;
+    long seed;
+    final List<FxLayer> layers = new ArrayList<>(2);
+
+    public FxEmitter(Vec3d center, int duration) {
+        this(center.x, center.y, center.z, duration);
+    }
+
+    public FxEmitter(double x, double y, double z, int duration) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.duration = duration;
+    }
+
+    /** Constant velocity in blocks per tick; the client moves the emitter itself. */
+    public FxEmitter drift(Vec3d perTick) {
+        this.driftX = (float) perTick.x;
+        this.driftY = (float) perTick.y;
+        this.driftZ = (float) perTick.z;
+        return this;
+    }
+
+    /** Stick to an entity's position (feet) instead of a fixed point. Ends early if the entity goes away. */
+    public FxEmitter follow(Entity entity) {
+        this.followEntityId = entity.getId();
+        this.x = entity.getX();
+        this.y = entity.getY();
+        this.z = entity.getZ();
+        return this;
+    }
+
+    public FxEmitter layer(FxLayer layer) {
+        layers.add(layer);
+        return this;
+    }
+
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getZ() { return z; }
+    public float getDriftX() { return driftX; }
+    public float getDriftY() { return driftY; }
+    public float getDriftZ() { return driftZ; }
+    public int getFollowEntityId() { return followEntityId; }
+    public int getDuration() { return duration; }
+    public long getSeed() { return seed; }
+    public List<FxLayer> getLayers() { return layers; }
+
+    float getMaxRadius() {
+        float r = 0;
+        for (FxLayer layer : layers) r = Math.max(r, layer.getMaxRadius());
+        return r;
+    }
+
+    private void write(RegistryByteBuf buf) {
+        buf.writeDouble(x);
+        buf.writeDouble(y);
+        buf.writeDouble(z);
+        buf.writeFloat(driftX);
+        buf.writeFloat(driftY);
+        buf.writeFloat(driftZ);
+        buf.writeVarInt(followEntityId + 1); // 0 = not following
+        buf.writeVarInt(duration);
+        buf.writeLong(seed);
+        buf.writeVarInt(layers.size());
+        for (FxLayer layer : layers) layer.write(buf);
+    }
+
+    private static FxEmitter read(RegistryByteBuf buf) {
+        FxEmitter e = new FxEmitter(buf.readDouble(), buf.readDouble(), buf.readDouble(), 0);
+        e.driftX = buf.readFloat();
+        e.driftY = buf.readFloat();
+        e.driftZ = buf.readFloat();
+        e.followEntityId = buf.readVarInt() - 1;
+        e.duration = buf.readVarInt();
+        e.seed = buf.readLong();
+        int count = buf.readVarInt();
+        if (count < 0 || count > MAX_LAYERS) throw new DecoderException("Bad fx layer count " + count);
+        for (int i = 0; i < count; i++) e.layers.add(FxLayer.read(buf));
+        return e;
+    }
+}
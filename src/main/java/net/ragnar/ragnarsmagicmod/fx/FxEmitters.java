@@ -0,0 +1,184 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.network.FxMovePayload;
+import net.ragnar.ragnarsmagicmod.network.FxStartPayload;
+import net.ragnar.ragnarsmagicmod.network.FxStopPayload;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.SpellMemory;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Server side of client-animated effects. {@link #start} sends one descriptor to everyone who could
+ * see the effect over its lifetime; the client draws every tick from it. Layer point counts are
+ * scaled to the {@link FxQuality} at start. Running emitters are kept here until they end, and
+ * players who come into range later (walking up, logging in, changing dimension) get the
+ * descriptor then, with its age so far, at the next resync. Server thread only.
+ */
+public final class FxEmitters {
+    private FxEmitters() {}
+
+    private static final double VIEW_DISTANCE = 32.0; // same range vanilla uses for particle packets
+    private static final int RESYNC_TICKS = 10;
+    private static final Map<Integer, Live> LIVE = new LinkedHashMap<>();
+    private static int nextId = 1;
+    private static boolean initialized = false;
+
+    // what the server knows about a running emitter, enough to start it late for a new viewer
+    private static final class Live {
+        final int id;
+        final ServerWorld world;
+        final FxEmitter emitter;
+        final long startTime;
+        final Set<UUID> viewers = new HashSet<>();
+        double baseX, baseY, baseZ;
+        int baseAge;
+        boolean moved;
+
+        Live(int id, ServerWorld world, FxEmitter emitter) {
+            this.id = id;
+            this.world = world;
+            this.emitter = emitter;
+            this.startTime = world.getTime();
+            this.baseX = emitter.x;
+            this.baseY = emitter.y;
+            this.baseZ = emitter.z;
+        }
+
+        int age() {
+            return (int) (world.getTime() - startTime);
+        }
+
+        boolean isOver() {
+            if (age() >= emitter.duration) return true;
+            return emitter.followEntityId >= 0 && followed() == null;
+        }
+
+        Entity followed() {
+            Entity e = world.getEntityById(emitter.followEntityId);
+            return e == null || e.isRemoved() ? null : e;
+        }
+
+        // where the client has it right now, the same way the client works it out
+        double x() { return emitter.followEntityId >= 0 ? followed().getX() : baseX + emitter.driftX * (age() - baseAge); }
+        double y() { return emitter.followEntityId >= 0 ? followed().getY() : baseY + emitter.driftY * (age() - baseAge); }
+        double z() { return emitter.followEntityId >= 0 ? followed().getZ() : baseZ + emitter.driftZ * (age() - baseAge); }
+
+        // everyone it will pass near from here on, not just who is near it now
+        double range() {
+            double travel = Math.sqrt(emitter.driftX * emitter.driftX + emitter.driftY * emitter.driftY
+                    + emitter.driftZ * emitter.driftZ) * (emitter.duration - age());
+            return VIEW_DISTANCE + emitter.getMaxRadius() + travel;
+        }
+
+        void sync(ServerPlayerEntity player) {
+            if (player.getWorld() != world || viewers.contains(player.getUuid()) || isOver()) return;
+            double range = range();
+            if (player.squaredDistanceTo(x(), y(), z()) > range * range) return;
+
+            viewers.add(player.getUuid());
+            int age = age();
+            ServerPlayNetworking.send(player, new FxStartPayload(id, age, emitter));
+            // a late start runs from the descriptor's position, so hand over any correction since
+            if (moved) {
+                ServerPlayNetworking.send(player, new FxMovePayload(id, x(), y(), z()));
+            }
+        }
+
+        void syncAll() {
+            for (ServerPlayerEntity player : world.getPlayers()) sync(player);
+        }
+    }
+
+    /** Registers the resync and cleanup hooks once. Called from {@link net.ragnar.ragnarsmagicmod.RagnarsMagicMod}. */
+    public static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (LIVE.isEmpty() || server.getTicks() % RESYNC_TICKS != 0) return;
+            Iterator<Live> it = LIVE.values().iterator();
+            while (it.hasNext()) {
+                Live live = it.next();
+                if (live.isOver()) {
+                    it.remove();
+                } else {
+                    live.syncAll();
+                }
+            }
+        });
+        // a player's client drops everything on disconnect or world change, so they need it all again
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> forget(handler.getPlayer().getUuid()));
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> syncPlayer(handler.getPlayer()));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> {
+            forget(player.getUuid());
+            syncPlayer(player);
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> LIVE.clear());
+        // map node + live record + emitter with two layers + a viewer or two
+        SpellMemory.register("fx emitters", LIVE::size, 400);
+    }
+
+    /** Returns an id for {@link #move} and {@link #stop}. Emitters end by themselves after their duration. */
+    public static int start(ServerWorld world, FxEmitter emitter) {
+        int id = nextId++;
+        emitter.seed = world.random.nextLong();
+        for (FxLayer layer : emitter.layers) {
+            layer.minPoints = FxQuality.count(layer.minPoints);
+            layer.maxPoints = FxQuality.count(layer.maxPoints);
+        }
+
+        Live live = new Live(id, world, emitter);
+        LIVE.put(id, live);
+        live.syncAll();
+        return id;
+    }
+
+    /** Correct a running emitter's position; drift continues from there. */
+    public static void move(ServerWorld world, int id, Vec3d pos) {
+        Live live = LIVE.get(id);
+        if (live == null) return;
+        live.baseX = pos.x;
+        live.baseY = pos.y;
+        live.baseZ = pos.z;
+        live.baseAge = live.age();
+        live.moved = true;
+
+        FxMovePayload payload = new FxMovePayload(id, pos.x, pos.y, pos.z);
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (live.viewers.contains(player.getUuid())) ServerPlayNetworking.send(player, payload);
+        }
+        live.syncAll();
+    }
+
+    public static void stop(ServerWorld world, int id) {
+        Live live = LIVE.remove(id);
+        if (live == null) return;
+        FxStopPayload payload = new FxStopPayload(id);
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (live.viewers.contains(player.getUuid())) ServerPlayNetworking.send(player, payload);
+        }
+    }
+
+    private static void syncPlayer(ServerPlayerEntity player) {
+        for (Live live : LIVE.values()) live.sync(player);
+    }
+
+    private static void forget(UUID player) {
+        for (Live live : LIVE.values()) live.viewers.remove(player);
+    }
+}
@@ -0,0 +1,154 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.particle.ParticleTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One animated shape inside a client emitter. Everything is a function of the emitter's age:
+ * radius eases linearly from {@code radiusStart} to {@code radiusEnd} over {@code growTicks}, the point
+ * count follows the same progress from {@code minPoints} to {@code maxPoints}, and the whole layer
+ * rises {@code rise} blocks per tick. Configure with the chained setters before starting the emitter.
+ */
+public final class FxLayer {
+    /** Cap on points per layer per tick, applied to whatever comes over the network. */
+    static final int MAX_POINTS = 1024;
+
+    final FxShape shape;
+    final List<ParticleEffect> palette = new ArrayList<>(2);
+    int accentEvery = 0;
+    float radiusStart = 1.0f, radiusEnd = 1.0f;
+    int growTicks = 0;
+    int minPoints = 16, maxPoints = 16;
+    float offsetY = 0.0f;
+    float rise = 0.0f;
+    float spin = 0.0f;
+    int everyTicks = 1;
+
+    private FxLayer(FxShape shape, ParticleEffect particle) {
+        this.shape = shape;
+        this.palette.add(particle);
+    }
+
+    public static FxLayer of(FxShape shape, ParticleEffect particle) {
+        return new FxLayer(shape, particle);
+    }
+
+    /** Use {@code particle} instead of the main one for every n-th point (rotating with age). */
+    public FxLayer accent(ParticleEffect particle, int every) {
+        if (palette.size() > 1) palette.set(1, particle);
+        else palette.add(particle);
+        this.accentEvery = every;
+        return this;
+    }
+
+    public FxLayer radius(float radius) {
+        return radius(radius, radius, 0);
+    }
+
+    public FxLayer radius(float start, float end, int growTicks) {
+        this.radiusStart = start;
+        this.radiusEnd = end;
+        this.growTicks = growTicks;
+        return this;
+    }
+
+    public FxLayer points(int points) {
+        return points(points, points);
+    }
+
+    public FxLayer points(int min, int max) {
+        this.minPoints = min;
+        this.maxPoints = max;
+        return this;
+    }
+
+    public FxLayer offsetY(float offsetY) {
+        this.offsetY = offsetY;
+        return this;
+    }
+
+    public FxLayer rise(float perTick) {
+        this.rise = perTick;
+        return this;
+    }
+
+    /** Radians per tick, for shells and rings. */
+    public FxLayer spin(float perTick) {
+        this.spin = perTick;
+        return this;
+    }
+
+    /** Only draw every n-th tick. */
+    public FxLayer every(int ticks) {
+        this.everyTicks = Math.max(1, ticks);
+        return this;
+    }
+
+    public FxShape getShape() { return shape; }
+    public int getAccentEvery() { return accentEvery; }
+    public int getEveryTicks() { return everyTicks; }
+    public float getOffsetY() { return offsetY; }
+    public float getRise() { return rise; }
+    public float getSpin() { return spin; }
+    public float getMaxRadius() { return Math.max(radiusStart, radiusEnd); }
+
+    public float progress(int age) {
+        return growTicks <= 0 ? 1.0f : Math.min(1.0f, age / (float) growTicks);
+    }
+
+    public float radiusAt(int age) {
+        return radiusStart + (radiusEnd - radiusStart) * progress(age);
+    }
+
+    public int pointsAt(int age) {
+        return Math.round(minPoints + (maxPoints - minPoints) * progress(age));
+    }
+
+    /** Particle for the i-th point drawn at this age. */
+    public ParticleEffect particle(int i, int age) {
+        if (accentEvery > 0 && palette.size() > 1 && (i + age) % accentEvery == 0) return palette.get(1);
+        return palette.get(0);
+    }
+
+    void write(RegistryByteBuf buf) {
+        buf.writeByte(shape.ordinal());
+        buf.writeVarInt(palette.size());
+        for (ParticleEffect p : palette) ParticleTypes.PACKET_CODEC.encode(buf, p);
+        buf.writeVarInt(accentEvery);
+        buf.writeFloat(radiusStart);
+        buf.writeFloat(radiusEnd);
+        buf.writeVarInt(growTicks);
+        buf.writeVarInt(minPoints);
+        buf.writeVarInt(maxPoints);
+        buf.writeFloat(offsetY);
+        buf.writeFloat(rise);
+        buf.writeFloat(spin);
+        buf.writeVarInt(everyTicks);
+    }
+
+    static FxLayer read(RegistryByteBuf buf) {
+        int shape = buf.readByte();
+        if (shape < 0 || shape >= FxShape.values().length) throw new DecoderException("Bad fx shape " + shape);
+        int paletteSize = buf.readVarInt();
+        if (paletteSize < 1 || paletteSize > 2) throw new DecoderException("Bad fx palette size " + paletteSize);
+
+        FxLayer layer = new FxLayer(FxShape.values()[shape], ParticleTypes.PACKET_CODEC.decode(buf));
+        if (paletteSize > 1) layer.palette.add(ParticleTypes.PACKET_CODEC.decode(buf));
+        layer.accentEvery = buf.readVarInt();
+        layer.radiusStart = buf.readFloat();
+        layer.radiusEnd = buf.readFloat();
+        layer.growTicks = buf.readVarInt();
+        layer.minPoints = Math.min(buf.readVarInt(), MAX_POINTS);
+        layer.maxPoints = Math.min(buf.readVarInt(), MAX_POINTS);
+        layer.offsetY = buf.readFloat();
+        layer.rise = buf.readFloat();
+        layer.spin = buf.readFloat();
+        layer.everyTicks = Math.max(1, buf.readVarInt());
+        return layer;
+    }
+}
@@ -0,0 +1,15 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+/** Point distributions a client emitter layer can draw. All are centered on the emitter. */
+public enum FxShape {
+    /** Evenly spread points on a sphere (Fibonacci lattice), optionally spinning. */
+    SHELL,
+    /** Random points on a sphere's surface, re-rolled every tick. */
+    SCATTER,
+    /** Random points inside a cube of half-size radius. */
+    VOLUME,
+    /** Evenly spaced points on a horizontal circle. */
+    RING,
+    /** Short vertical columns of points at random spots inside a horizontal disc. */
+    COLUMNS
+}
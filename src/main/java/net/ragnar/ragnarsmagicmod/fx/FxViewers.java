@@ -0,0 +1,112 @@
+package net.ragnar.ragnarsmagicmod.fx;
+
+import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The players who can see an effect this tick, looked up once and reused for every particle and
+ * sound it emits. {@code ServerWorld.spawnParticles} and {@code playSound} each walk every player in
+ * the world; an effect that emits a few hundred of them should walk the world once instead.
+ * <pre>
+ *     FxViewers viewers = FxViewers.near(world, center, radius);
+ *     viewers.particles(ParticleTypes.FLAME, x, y, z, 1, 0, 0, 0, 0);
+ *     viewers.sound(pos, SoundEvents.BLOCK_FIRE_AMBIENT, SoundCategory.PLAYERS, 1.0f, 1.0f);
+ *     ...
+ *     viewers.release();
+ * </pre>
+ * Each emission still applies vanilla's own range check, but only against the cached players, so
+ * who sees what is unchanged. Instances are pooled; don't touch one after releasing it.
+ * Server thread only.
+ */
+public final class FxViewers {
+    private static final double VIEW_DISTANCE = 32.0; // same range vanilla uses for particle packets
+    private static final ArrayDeque<FxViewers> FREE = new ArrayDeque<>();
+
+    private ServerWorld world;
+    private final List<ServerPlayerEntity> players = new ArrayList<>();
+
+    private FxViewers() {}
+
+    /**
+     * Collect everyone who could see an emission up to {@code radius} blocks from {@code center}.
+     * Emissions further out than that may miss some viewers.
+     */
+    public static FxViewers near(ServerWorld world, Vec3d center, double radius) {
+        FxViewers viewers = FREE.poll();
+        if (viewers == null) viewers = new FxViewers();
+        viewers.world = world;
+
+        double range = radius + VIEW_DISTANCE;
+        double rangeSq = range * range;
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (player.squaredDistanceTo(center) <= rangeSq) viewers.players.add(player);
+        }
+        return viewers;
+    }
+
+    public boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    /** Same arguments and range as {@code ServerWorld.spawnParticles}. */
+    public void particles(ParticleEffect effect, double x, double y, double z,
+                          int count, double dx, double dy, double dz, double speed) {
+        if (!ParticleBudget.tryEmit(world, count)) return;
+        SpellCounters.particlesEmitted++;
+        if (players.isEmpty()) return;
+        ParticleS2CPacket packet = null;
+        for (ServerPlayerEntity player : players) {
+            if (player.squaredDistanceTo(x, y, z) >= VIEW_DISTANCE * VIEW_DISTANCE) continue;
+            // one packet shared by every viewer, built only if someone is in range
+            if (packet == null) {
+                packet = new ParticleS2CPacket(effect, false, x, y, z, (float) dx, (float) dy, (float) dz, (float) speed, count);
+            }
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    /** Same as {@code World.playSound(null, pos, ...)}: plays from the center of the block. */
+    public void sound(BlockPos pos, SoundEvent sound, SoundCategory category, float volume, float pitch) {
+        sound(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, sound, category, volume, pitch);
+    }
+
+    /** Same as {@code World.playSound(null, x, y, z, ...)}. */
+    public void sound(double x, double y, double z, SoundEvent sound, SoundCategory category, float volume, float pitch) {
+        double distance = sound.getDistanceToTravel(volume);
+        if (distance > VIEW_DISTANCE) {
+            // loud sounds carry past the players we collected, let vanilla find its own listeners
+            world.playSound(null, x, y, z, sound, category, volume, pitch);
+            return;
+        }
+        SpellCounters.soundsPlayed++;
+        if (players.isEmpty()) return;
+
+        RegistryEntry<SoundEvent> entry = Registries.SOUND_EVENT.getEntry(sound);
+        PlaySoundS2CPacket packet = new PlaySoundS2CPacket(entry, category, x, y, z, volume, pitch, world.random.nextLong());
+        double distanceSq = distance * distance;
+        for (ServerPlayerEntity player : players) {
+            if (player.squaredDistanceTo(x, y, z) < distanceSq) player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    public void release() {
+        players.clear();
+        world = null;
+        FREE.push(this);
+    }
+}
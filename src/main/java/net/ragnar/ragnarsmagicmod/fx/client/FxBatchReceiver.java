@@ -0,0 +1,50 @@
+package net.ragnar.ragnarsmagicmod.fx.client;
+
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.random.Random;
+import net.ragnar.ragnarsmagicmod.network.FxBatchPayload;
+
+/** Expands {@link FxBatchPayload}s into particles, the same way vanilla handles a particle packet. */
+public class FxBatchReceiver {
+    public static void register() {
+        ClientPlayNetworking.registerGlobalReceiver(FxBatchPayload.ID, (payload, context) -> play(context.client(), payload));
+    }
+
+    private static void play(MinecraftClient client, FxBatchPayload payload) {
+        ClientWorld world = client.world;
+        if (world == null) return;
+        Random random = world.random;
+
+        for (FxBatchPayload.Group g : payload.groups()) {
+            short[] pos = g.positions();
+            short[] vel = g.velocities();
+            for (int i = 0; i < pos.length; i += 3) {
+                double x = payload.x() + pos[i] / FxBatchPayload.QUANT;
+                double y = payload.y() + pos[i + 1] / FxBatchPayload.QUANT;
+                double z = payload.z() + pos[i + 2] / FxBatchPayload.QUANT;
+
+                if (vel != null) {
+                    world.addParticle(g.effect(), x, y, z, vel[i] / FxBatchPayload.VEL_QUANT,
+                            vel[i + 1] / FxBatchPayload.VEL_QUANT, vel[i + 2] / FxBatchPayload.VEL_QUANT);
+                    continue;
+                }
+                if (g.count() == 0) {
+                    // count 0: the spread is a direction and speed scales it
+                    world.addParticle(g.effect(), x, y, z, g.speed() * g.dx(), g.speed() * g.dy(), g.speed() * g.dz());
+                    continue;
+                }
+                for (int n = 0; n < g.count(); n++) {
+                    double ox = random.nextGaussian() * g.dx();
+                    double oy = random.nextGaussian() * g.dy();
+                    double oz = random.nextGaussian() * g.dz();
+                    double vx = random.nextGaussian() * g.speed();
+                    double vy = random.nextGaussian() * g.speed();
+                    double vz = random.nextGaussian() * g.speed();
+                    world.addParticle(g.effect(), x + ox, y + oy, z + oz, vx, vy, vz);
+                }
+            }
+        }
+    }
+}
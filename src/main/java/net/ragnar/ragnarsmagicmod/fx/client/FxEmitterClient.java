@@ -0,0 +1,173 @@
+package net.ragnar.ragnarsmagicmod.fx.client;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.random.Random;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitter;
+import net.ragnar.ragnarsmagicmod.fx.FxLayer;
+import net.ragnar.ragnarsmagicmod.network.FxMovePayload;
+import net.ragnar.ragnarsmagicmod.network.FxStartPayload;
+import net.ragnar.ragnarsmagicmod.network.FxStopPayload;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/** Runs emitters started by the server, drawing every layer locally each client tick. */
+public class FxEmitterClient {
+    private static final Map<Integer, Running> RUNNING = new HashMap<>();
+    private static final double GOLDEN_ANGLE = Math.PI * (3.0 - Math.sqrt(5.0));
+    private static final double[] SHELL_POINT = new double[3];
+    // emitters belong to the world they were started in; the server sends the new world's ones again
+    private static ClientWorld lastWorld;
+
+    public static void register() {
+        ClientPlayNetworking.registerGlobalReceiver(FxStartPayload.ID, (payload, context) -> {
+            // a start can arrive before the first tick in a new world
+            checkWorld(context.client().world);
+            RUNNING.put(payload.id(), new Running(payload.emitter(), payload.age()));
+        });
+        ClientPlayNetworking.registerGlobalReceiver(FxMovePayload.ID, (payload, context) -> {
+            Running r = RUNNING.get(payload.id());
+            if (r != null) r.moveTo(payload.x(), payload.y(), payload.z());
+        });
+        ClientPlayNetworking.registerGlobalReceiver(FxStopPayload.ID, (payload, context) -> RUNNING.remove(payload.id()));
+        ClientTickEvents.END_CLIENT_TICK.register(FxEmitterClient::tick);
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> RUNNING.clear());
+    }
+
+    private static void tick(MinecraftClient client) {
+        ClientWorld world = client.world;
+        checkWorld(world);
+        if (RUNNING.isEmpty() || world == null) return;
+        if (client.isPaused()) return;
+
+        Iterator<Running> it = RUNNING.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().tick(world)) it.remove();
+        }
+    }
+
+    private static void checkWorld(ClientWorld world) {
+        if (world == lastWorld) return;
+        lastWorld = world;
+        RUNNING.clear();
+    }
+
+    /** Point i of n on a Fibonacci-spiral unit sphere, turned by spin, written to out[0..2]. */
+    static void shellPoint(int i, int n, double spin, double[] out) {
+        double y = 1.0 - (i + 0.5) * (2.0 / n);
+        double ring = Math.sqrt(1.0 - y * y);
+        double theta = GOLDEN_ANGLE * i + spin;
+        out[0] = Math.cos(theta) * ring;
+        out[1] = y;
+        out[2] = Math.sin(theta) * ring;
+    }
+
+    private static final class Running {
+        final FxEmitter emitter;
+        final Random random;
+        double baseX, baseY, baseZ;
+        int baseAge = 0;
+        int age = 0;
+
+        Running(FxEmitter emitter, int age) {
+            this.emitter = emitter;
+            this.age = age;
+            this.baseAge = age;
+            this.random = Random.create(emitter.getSeed());
+            this.baseX = emitter.getX();
+            this.baseY = emitter.getY();
+            this.baseZ = emitter.getZ();
+        }
+
+        void moveTo(double x, double y, double z) {
+            baseX = x;
+            baseY = y;
+            baseZ = z;
+            baseAge = age;
+        }
+
+        boolean tick(ClientWorld world) {
+            if (age >= emitter.getDuration()) return false;
+
+            double cx, cy, cz;
+            if (emitter.getFollowEntityId() >= 0) {
+                Entity e = world.getEntityById(emitter.getFollowEntityId());
+                if (e == null || e.isRemoved()) return false;
+                cx = e.getX();
+                cy = e.getY();
+                cz = e.getZ();
+            } else {
+                int t = age - baseAge;
+                cx = baseX + emitter.getDriftX() * t;
+                cy = baseY + emitter.getDriftY() * t;
+                cz = baseZ + emitter.getDriftZ() * t;
+            }
+
+            for (FxLayer layer : emitter.getLayers()) {
+                if (age % layer.getEveryTicks() != 0) continue;
+                draw(world, layer, cx, cy + layer.getOffsetY() + layer.getRise() * age, cz);
+            }
+            age++;
+            return true;
+        }
+
+        private void draw(ClientWorld world, FxLayer layer, double cx, double cy, double cz) {
+            double r = layer.radiusAt(age);
+            int n = layer.pointsAt(age);
+            double spin = layer.getSpin() * age;
+
+            switch (layer.getShape()) {
+                case SHELL -> {
+                    double[] p = SHELL_POINT;
+                    for (int i = 0; i < n; i++) {
+                        shellPoint(i, n, spin, p);
+                        world.addParticle(layer.particle(i, age), cx + p[0] * r, cy + p[1] * r, cz + p[2] * r, 0, 0, 0);
+                    }
+                }
+                case SCATTER -> {
+                    for (int i = 0; i < n; i++) {
+                        double theta = random.nextDouble() * MathHelper.TAU;
+                        double phi = Math.acos(2 * random.nextDouble() - 1);
+                        world.addParticle(layer.particle(i, age),
+                                cx + r * Math.sin(phi) * Math.cos(theta),
+                                cy + r * Math.sin(phi) * Math.sin(theta),
+                                cz + r * Math.cos(phi), 0, 0, 0);
+                    }
+                }
+                case VOLUME -> {
+                    for (int i = 0; i < n; i++) {
+                        world.addParticle(layer.particle(i, age),
+                                cx + (random.nextDouble() * 2 - 1) * r,
+                                cy + (random.nextDouble() * 2 - 1) * r,
+                                cz + (random.nextDouble() * 2 - 1) * r, 0, 0, 0);
+                    }
+                }
+                case RING -> {
+                    for (int i = 0; i < n; i++) {
+                        double a = spin + MathHelper.TAU * i / n;
+                        world.addParticle(layer.particle(i, age),
+                                cx + Math.cos(a) * r, cy, cz + Math.sin(a) * r, 0, 0, 0);
+                    }
+                }
+                case COLUMNS -> {
+                    for (int i = 0; i < n; i++) {
+                        double theta = random.nextDouble() * MathHelper.TAU;
+                        double d = r * (0.3 + 0.6 * random.nextDouble()); // inner to mid disc
+                        double x = cx + Math.cos(theta) * d;
+                        double z = cz + Math.sin(theta) * d;
+                        for (int h = 0; h < 6; h++) {
+                            world.addParticle(layer.particle(h, age), x, cy + h * 0.2, z, 0, 0, 0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
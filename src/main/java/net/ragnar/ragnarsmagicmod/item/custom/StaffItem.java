@@ -10,6 +10,9 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.tooltip.TooltipType;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.packet.s2c.play.ExperienceBarUpdateS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.stat.Stats;
 import net.minecraft.text.Text;
@@ -19,16 +22,29 @@ import net.minecraft.util.TypedActionResult;
 import net.minecraft.world.World;
 import net.ragnar.ragnarsmagicmod.enchantment.ModEnchantments;
 import net.ragnar.ragnarsmagicmod.item.ModItems;
+import net.ragnar.ragnarsmagicmod.item.spell.Spell;
 import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
 import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCastEvent;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import net.ragnar.ragnarsmagicmod.metrics.SpellMetrics;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import net.ragnar.ragnarsmagicmod.network.PacketBundler;
+import net.ragnar.ragnarsmagicmod.replay.CastRecorder;
+import net.ragnar.ragnarsmagicmod.runtime.CastLimiter;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellContext;
+import net.ragnar.ragnarsmagicmod.runtime.SpellProfiler;
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.UUID;
 
 public class StaffItem extends Item {
-    private static final String NBT_ID = "rmm_tome_id";
-    private static final String NBT_TIER = "rmm_tome_tier";
-    private static final String NBT_XP = "rmm_tome_xp";
+    static final String NBT_ID = "rmm_tome_id";
+    static final String NBT_TIER = "rmm_tome_tier";
+    static final String NBT_XP = "rmm_tome_xp";
 
     private final EnumSet<TomeTier> allowed;
 
@@ -51,7 +67,7 @@ public class StaffItem extends Item {
         return allowed.contains(tome.getTier());
     }
 
-    private static NbtCompound readCustom(ItemStack stack) {
+    static NbtCompound readCustom(ItemStack stack) {
         NbtComponent comp = stack.get(DataComponentTypes.CUSTOM_DATA);
         return comp == null ? new NbtCompound() : comp.copyNbt();
     }
@@ -95,6 +111,16 @@ public class StaffItem extends Item {
         }
     }
 
+    private static TomeTier getSocketedTier(ItemStack staff) {
+        NbtCompound nbt = readCustom(staff);
+        if (!nbt.contains(NBT_TIER)) return null;
+        try {
+            return TomeTier.valueOf(nbt.getString(NBT_TIER));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private int getXpCost(ItemStack staff) {
         NbtCompound nbt = readCustom(staff);
         return nbt.getInt(NBT_XP);
@@ -109,8 +135,10 @@ public class StaffItem extends Item {
     }
 
     private static int getCurrentXpPoints(PlayerEntity p) {
-        int lvl = p.experienceLevel;
-        float prog = p.experienceProgress;
+        return totalXpPoints(p.experienceLevel, p.experienceProgress);
+    }
+
+    static int totalXpPoints(int lvl, float prog) {
         int total = 0;
         for (int i = 0; i < lvl; i++) total += xpToNextLevel(i);
         total += Math.round(prog * xpToNextLevel(lvl));
@@ -123,6 +151,18 @@ public class StaffItem extends Item {
         return 7 + 2 * level;
     }
 
+    /**
+     * The client can't see the server's buckets, so it has already spent the XP and, for spells that
+     * cast client-side, started the cooldown for a cast the limiter just turned down. Neither would be
+     * corrected until the next real change, since the server's own values never moved.
+     */
+    private void undoClientCast(ServerPlayerEntity player) {
+        player.networkHandler.sendPacket(new ExperienceBarUpdateS2CPacket(
+                player.experienceProgress, player.totalExperience, player.experienceLevel));
+        // the server has no cooldown running (use() isn't called during one), and remove() sends the clear
+        player.getItemCooldownManager().remove(this);
+    }
+
     // Helper to get enchantment level in 1.21
     private int getEnchLevel(World world, ItemStack stack, net.minecraft.registry.RegistryKey<Enchantment> key) {
         var registry = world.getRegistryManager().get(RegistryKeys.ENCHANTMENT);
@@ -130,6 +170,47 @@ public class StaffItem extends Item {
         return entry.map(e -> EnchantmentHelper.getLevel(e, stack)).orElse(0);
     }
 
+    // cast effects ride in the same per-player bundle as the spell runtime's
+    private static boolean cast(SpellId id, Spell spell, World world, PlayerEntity player, ItemStack staff, int xpCost) {
+        if (world.isClient) return spell.cast(world, player, staff);
+        if (CastRecorder.isRecording()) CastRecorder.record((ServerWorld) world, player, id, getSocketedTier(staff));
+        SpellCastEvent event = new SpellCastEvent();
+        event.begin();
+        PacketBundler.begin();
+        long start = SpellProfiler.isRunning() ? System.nanoTime() : 0;
+        int particles = SpellCounters.particlesEmitted;
+        int sounds = SpellCounters.soundsPlayed;
+        boolean cast = false;
+        String outer = SpellContext.set(id.name());
+        UUID outerCaster = SpellContext.setCaster(player.getUuid());
+        FxPriority outerPriority = ParticleBudget.setPriority(FxPriority.NORMAL);
+        try {
+            cast = spell.cast(world, player, staff);
+            return cast;
+        } finally {
+            if (start != 0) SpellProfiler.recordCast(id.name(), System.nanoTime() - start);
+            PacketBundler.end();
+            SpellContext.set(outer);
+            SpellContext.setCaster(outerCaster);
+            ParticleBudget.setPriority(outerPriority);
+            if (cast && NetAccounting.isRunning()) NetAccounting.cast(id.name());
+            if (SpellMetrics.isEnabled()) {
+                if (cast) SpellMetrics.cast(id, getSocketedTier(staff));
+                else SpellMetrics.failure(SpellMetrics.CastFailure.REFUSED);
+                SpellMetrics.emitted(SpellCounters.particlesEmitted - particles, SpellCounters.soundsPlayed - sounds);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.spell = id.name();
+                event.tier = String.valueOf(getSocketedTier(staff));
+                event.caster = player.getGameProfile().getName();
+                event.xpCost = xpCost;
+                event.succeeded = cast;
+                event.commit();
+            }
+        }
+    }
+
     @Override
     public TypedActionResult<ItemStack> use(World world, PlayerEntity player, Hand hand) {
         ItemStack staff = player.getStackInHand(hand);
@@ -155,10 +236,21 @@ public class StaffItem extends Item {
 
         SpellId id = getSocketed(staff);
         if (id == null) {
-            if (!world.isClient) player.sendMessage(Text.literal("No tome socketed."), true);
+            if (!world.isClient) {
+                player.sendMessage(Text.literal("No tome socketed."), true);
+                SpellMetrics.failure(SpellMetrics.CastFailure.NO_TOME);
+            }
             return TypedActionResult.pass(staff);
         }
 
+        // before any XP is spent: storms of use packets stop here
+        if (!world.isClient && !CastLimiter.tryAcquire((ServerPlayerEntity) player, getSocketedTier(staff))) {
+            player.sendMessage(Text.literal("Casting too fast."), true);
+            SpellMetrics.failure(SpellMetrics.CastFailure.RATE_LIMITED);
+            undoClientCast((ServerPlayerEntity) player);
+            return TypedActionResult.fail(staff);
+        }
+
         // --- RESERVE LOGIC ---
         int baseCost = getXpCost(staff);
         int reserveLevel = getEnchLevel(world, staff, ModEnchantments.RESERVE);
@@ -173,12 +265,16 @@ public class StaffItem extends Item {
         }
 
         if (!spendXp(player, xpCost)) {
-            if (!world.isClient) player.sendMessage(Text.literal("Not enough XP."), true);
+            if (!world.isClient) {
+                player.sendMessage(Text.literal("Not enough XP."), true);
+                SpellMetrics.failure(SpellMetrics.CastFailure.NOT_ENOUGH_XP);
+            }
             return TypedActionResult.success(staff, world.isClient);
         }
+        if (!world.isClient && !player.isCreative()) SpellMetrics.xpSpent(xpCost);
 
-        net.ragnar.ragnarsmagicmod.item.spell.Spell spell = net.ragnar.ragnarsmagicmod.item.spell.Spells.get(id);
-        if (spell != null && spell.cast(world, player, staff)) {
+        Spell spell = net.ragnar.ragnarsmagicmod.item.spell.Spells.get(id);
+        if (spell != null && cast(id, spell, world, player, staff, xpCost)) {
             player.incrementStat(Stats.USED.getOrCreateStat(this));
             staff.damage(1, player, EquipmentSlot.MAINHAND);
 
@@ -1,73 +1,70 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.damage.DamageSource;
-import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
+import net.minecraft.registry.tag.DamageTypeTags;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
-
-import java.util.*;
+import net.ragnar.ragnarsmagicmod.runtime.BuffKind;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.PlayerBuffs;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 public class AegisSpell implements Spell {
 
     private static final int DURATION_TICKS = 50; // 2.5 seconds (20 ticks per second)
-    private static final Map<UUID, Long> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("aegis", DURATION_TICKS)
+            .fxPriority(FxPriority.AMBIENT);
+
+    static {
+        // the shield itself lives on the player; only the aura is per world and has to follow them
+        PlayerBuffs.onRelocated(BuffKind.AEGIS, (player, world, buff) ->
+                SpellRuntime.spawn(world, TYPE, new Aura(OwnerHandles.of(player), buff)));
+    }
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
 
-        if (!TICK_REGISTERED) {
-            ServerTickEvents.END_WORLD_TICK.register(AegisSpell::tick);
-            TICK_REGISTERED = true;
-        }
-
         // play sound
         world.playSound(null, player.getBlockPos(),
                 SoundEvents.ITEM_TOTEM_USE, SoundCategory.PLAYERS,
                 1.2f, 1.0f);
 
-        // activate shield
-        ACTIVE.put(player.getUuid(), world.getTime() + DURATION_TICKS);
+        // activate shield (recasting just refreshes the timer, the running aura keeps going)
+        boolean fresh = !PlayerBuffs.has(player, BuffKind.AEGIS);
+        PlayerBuffs.Buff buff = PlayerBuffs.apply(player, BuffKind.AEGIS, DURATION_TICKS);
+        if (fresh) {
+            SpellRuntime.spawn((ServerWorld) world, TYPE, new Aura(OwnerHandles.of(player), buff));
+        }
 
         // initial burst particles
         spawnAegisParticles((ServerWorld) world, player);
 
-        player.addStatusEffect(new StatusEffectInstance(
-                net.minecraft.entity.effect.StatusEffects.RESISTANCE, 30, 10, false, false, true)); // level 5 -> 80%
-
         return true;
     }
 
-    private static void tick(ServerWorld world) {
-        long time = world.getTime();
-        Iterator<Map.Entry<UUID, Long>> it = ACTIVE.entrySet().iterator();
-
-        while (it.hasNext()) {
-            Map.Entry<UUID, Long> e = it.next();
-            PlayerEntity p = world.getPlayerByUuid(e.getKey());
-            if (p == null) {
-                it.remove();
-                continue;
-            }
-
-            // end if expired
-            if (time >= e.getValue()) {
-                it.remove();
-                continue;
-            }
+    private static boolean tickAura(ServerWorld world, Aura a) {
+        PlayerEntity p = a.owner.get();
 
-            // swirl particles around player
-            spawnAegisAura(world, p);
+        // end if the player left this world or the shield expired
+        if (p == null || !a.buff.isActive()) {
+            return false;
         }
+
+        // swirl particles around player
+        spawnAegisAura(world, p);
+        return true;
     }
 
     private static void spawnAegisParticles(ServerWorld world, PlayerEntity p) {
@@ -114,18 +111,30 @@ public class AegisSpell implements Spell {
         }
     }
 
-    /**
-     * Call this from a mixin or event if you want real invulnerability logic —
-     * but for now, the spell just cancels damage manually.
-     */
     public static boolean isShielded(PlayerEntity player) {
-        return ACTIVE.containsKey(player.getUuid());
+        return PlayerBuffs.has(player, BuffKind.AEGIS);
     }
 
     /**
-     * Simple helper for checking invulnerability in damage event hooks.
+     * Damage hook, called from {@code LivingEntityMixin}. Everything except damage that bypasses
+     * invulnerability (void, /kill) is cancelled while the shield is up.
      */
     public static boolean cancelDamage(PlayerEntity player, DamageSource source) {
-        return isShielded(player);
+        return !source.isIn(DamageTypeTags.BYPASSES_INVULNERABILITY) && isShielded(player);
+    }
+
+    private static class Aura extends SpellEffect {
+        final OwnerHandle owner;
+        final PlayerBuffs.Buff buff;
+
+        Aura(OwnerHandle owner, PlayerBuffs.Buff buff) {
+            this.owner = owner;
+            this.buff = buff;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickAura(world, this);
+        }
     }
 }
@@ -1,6 +1,5 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.projectile.ArrowEntity;
 import net.minecraft.entity.projectile.PersistentProjectileEntity;
@@ -8,12 +7,16 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -25,19 +28,11 @@ public class ArrowVolleySpell implements Spell {
     private static final double DAMAGE = 2.0;
 
     // Tracking active charges
-    private static final Map<RegistryKey<World>, List<ChargingArrow>> CHARGING = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(ArrowVolleySpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("arrow_volley", CHARGE_TICKS + 1);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         // FIX 1: Added .value() because SoundEvents returns a RegistryEntry in 1.21
         world.playSound(null, player.getBlockPos(),
@@ -45,75 +40,78 @@ public class ArrowVolleySpell implements Spell {
 
         // Add to charging list
         ServerWorld sw = (ServerWorld) world;
-        CHARGING.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new ChargingArrow(player.getUuid(), sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new ChargingArrow(OwnerHandles.of(player), sw.getTime()));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<ChargingArrow> list = CHARGING.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
+    private static boolean tickCharge(ServerWorld world, ChargingArrow c) {
         long now = world.getTime();
-        Iterator<ChargingArrow> it = list.iterator();
 
-        while (it.hasNext()) {
-            ChargingArrow c = it.next();
-            PlayerEntity p = world.getPlayerByUuid(c.owner);
+        PlayerEntity p = c.owner.get();
 
-            if (p == null || !p.isAlive()) {
-                it.remove();
-                continue;
-            }
+        if (p == null || !p.isAlive()) return false;
 
-            long elapsed = now - c.startTime;
+        long elapsed = now - c.startTime;
 
-            if (elapsed < CHARGE_TICKS) {
-                // === CHARGING PHASE ===
-                // Spawn particles around the player's hand/body
-                if (elapsed % 2 == 0) {
-                    Vec3d pos = p.getPos().add(0, 1.2, 0)
-                            .add(p.getRotationVector().normalize().multiply(0.5));
+        if (elapsed < CHARGE_TICKS) {
+            // === CHARGING PHASE ===
+            // Spawn particles around the player's hand/body
+            if (elapsed % 2 == 0) {
+                Vec3d pos = p.getPos().add(0, 1.2, 0)
+                        .add(p.getRotationVector().normalize().multiply(0.5));
 
-                    world.spawnParticles(ParticleTypes.CRIT,
-                            pos.x, pos.y, pos.z,
-                            2, 0.1, 0.1, 0.1, 0.05);
+                world.spawnParticles(ParticleTypes.CRIT,
+                        pos.x, pos.y, pos.z,
+                        2, 0.1, 0.1, 0.1, 0.05);
 
-                    world.spawnParticles(ParticleTypes.ELECTRIC_SPARK,
-                            pos.x, pos.y, pos.z,
-                            1, 0.1, 0.1, 0.1, 0.05);
-                }
-            } else {
-                // === FIRE PHASE ===
-                // Launch the arrow
-                ItemStack arrowStack = new ItemStack(Items.ARROW);
+                world.spawnParticles(ParticleTypes.ELECTRIC_SPARK,
+                        pos.x, pos.y, pos.z,
+                        1, 0.1, 0.1, 0.1, 0.05);
+            }
+        } else {
+            // === FIRE PHASE ===
+            // Launch the arrow
+            ItemStack arrowStack = new ItemStack(Items.ARROW);
 
-                // FIX 2: Constructor expects (World, LivingEntity, ItemStack, ItemStack)
-                // Removed .getDefaultStack() which does not exist on ItemStack
-                ArrowEntity arrow = new ArrowEntity(world, p, arrowStack, null);
+            // FIX 2: Constructor expects (World, LivingEntity, ItemStack, ItemStack)
+            // Removed .getDefaultStack() which does not exist on ItemStack
+            ArrowEntity arrow = new ArrowEntity(world, p, arrowStack, null);
 
-                arrow.setVelocity(p, p.getPitch(), p.getYaw(), 0.0F, VELOCITY, DIVERGENCE);
+            arrow.setVelocity(p, p.getPitch(), p.getYaw(), 0.0F, VELOCITY, DIVERGENCE);
 
-                // Buff the arrow
-                arrow.setDamage(DAMAGE);
+            // Buff the arrow
+            arrow.setDamage(DAMAGE);
 
-                arrow.pickupType = PersistentProjectileEntity.PickupPermission.ALLOWED;
+            arrow.pickupType = PersistentProjectileEntity.PickupPermission.ALLOWED;
 
-                world.spawnEntity(arrow);
+            world.spawnEntity(arrow);
 
-                // Boom sound
-                world.playSound(null, p.getBlockPos(),
-                        SoundEvents.ENTITY_ARROW_SHOOT, SoundCategory.PLAYERS, 1.0f, 2.0f); // High pitch = fast
+            // Boom sound
+            world.playSound(null, p.getBlockPos(),
+                    SoundEvents.ENTITY_ARROW_SHOOT, SoundCategory.PLAYERS, 1.0f, 2.0f); // High pitch = fast
 
-                // Recoil
-                p.addVelocity(p.getRotationVector().multiply(-0.4));
-                p.velocityModified = true;
+            // Recoil
+            p.addVelocity(p.getRotationVector().multiply(-0.4));
+            p.velocityModified = true;
 
-                it.remove();
-            }
+            return false;
         }
+        return true;
     }
 
-    private record ChargingArrow(UUID owner, long startTime) {}
+    private static final class ChargingArrow extends SpellEffect {
+        final OwnerHandle owner;
+        final long startTime;
+
+        ChargingArrow(OwnerHandle owner, long startTime) {
+            this.owner = owner;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickCharge(world, this);
+        }
+    }
 }
\ No newline at end of file
@@ -1,13 +1,11 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -18,6 +16,14 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Steering;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -32,19 +38,12 @@ public class BoomingSpell implements Spell {
     private static final float MAX_DAMAGE = 24.0f;
     private static final double BOOM_RADIUS = 5.0;
 
-    private static final Map<RegistryKey<World>, List<BoomOrb>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTickerRegistered() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(BoomingSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("booming_orb", LIFE_TICKS);
+    private static final double[] STEER = new double[3]; // scratch for steering, server thread only
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTickerRegistered();
 
         // Heavy Charge Sound
         world.playSound(null, player.getBlockPos(), SoundEvents.ENTITY_WARDEN_SONIC_CHARGE,
@@ -55,93 +54,82 @@ public class BoomingSpell implements Spell {
         Vec3d start = eye.add(fwd.multiply(1.5));
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new BoomOrb(player.getUuid(), start, fwd.multiply(SPEED), fwd, sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new BoomOrb(OwnerHandles.of(player), start, fwd.multiply(SPEED), fwd, sw.getTime()));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<BoomOrb> orbs = ACTIVE.get(world.getRegistryKey());
-        if (orbs == null || orbs.isEmpty()) return;
-
+    private static boolean tickOrb(ServerWorld world, BoomOrb o) {
         long now = world.getTime();
         Random rand = world.getRandom();
 
-        Iterator<BoomOrb> it = orbs.iterator();
-        while (it.hasNext()) {
-            BoomOrb o = it.next();
+        if (now - o.spawnTick > LIFE_TICKS) return false;
 
-            if (now - o.spawnTick > LIFE_TICKS) { it.remove(); continue; }
+        PlayerEntity owner = o.owner.get();
+        if (owner == null) return false;
 
-            PlayerEntity owner = world.getPlayerByUuid(o.owner);
-            if (owner == null) { it.remove(); continue; }
+        // Guidance Logic
+        HitResult aim = owner.raycast(CAST_RANGE, 0.0f, false);
+        Vec3d aimPos = (aim.getType() == HitResult.Type.BLOCK)
+                ? ((BlockHitResult)aim).getPos()
+                : owner.getCameraPosVec(0.0f).add(owner.getRotationVector().normalize().multiply(CAST_RANGE));
 
-            // Guidance Logic
-            HitResult aim = owner.raycast(CAST_RANGE, 0.0f, false);
-            Vec3d aimPos = (aim.getType() == HitResult.Type.BLOCK)
-                    ? ((BlockHitResult)aim).getPos()
-                    : owner.getCameraPosVec(0.0f).add(owner.getRotationVector().normalize().multiply(CAST_RANGE));
+        double[] v = STEER;
+        Steering.seek(o.vel.x, o.vel.y, o.vel.z, aimPos.x - o.pos.x, aimPos.y - o.pos.y, aimPos.z - o.pos.z, SPEED, TURN, v);
 
-            Vec3d desiredVel = aimPos.subtract(o.pos).normalize().multiply(SPEED);
-            Vec3d newVel = o.vel.multiply(1.0 - TURN).add(desiredVel.multiply(TURN));
+        // Prevent backward movement
+        Vec3d f = o.initialForward;
+        Steering.resetIfBackward(v, f.x, f.y, f.z, SPEED * 0.1);
+        o.vel = new Vec3d(v[0], v[1], v[2]);
 
-            // Prevent backward movement
-            if (newVel.dotProduct(o.initialForward) < 0) {
-                newVel = o.initialForward.multiply(SPEED * 0.1);
-            }
-            o.vel = newVel;
+        // Movement & Collision
+        Vec3d oldPos = o.pos;
+        Vec3d newPos = o.pos.add(o.vel);
 
-            // Movement & Collision
-            Vec3d oldPos = o.pos;
-            Vec3d newPos = o.pos.add(o.vel);
+        HitResult blockHit = world.raycast(new RaycastContext(
+                oldPos, newPos, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, owner));
 
-            HitResult blockHit = world.raycast(new RaycastContext(
-                    oldPos, newPos, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, owner));
+        if (blockHit.getType() == HitResult.Type.BLOCK) {
+            explode(world, blockHit.getPos(), owner);
+            return false;
+        }
 
-            if (blockHit.getType() == HitResult.Type.BLOCK) {
-                explode(world, blockHit.getPos(), owner);
-                it.remove();
-                continue;
-            }
+        List<Entity> targets = world.getOtherEntities(owner, new Box(oldPos, newPos).expand(HIT_RADIUS),
+                e -> e instanceof LivingEntity && !e.isSpectator());
+        if (!targets.isEmpty()) {
+            explode(world, targets.get(0).getPos(), owner);
+            return false;
+        }
 
-            List<Entity> targets = world.getOtherEntities(owner, new Box(oldPos, newPos).expand(HIT_RADIUS),
-                    e -> e instanceof LivingEntity && !e.isSpectator());
-            if (!targets.isEmpty()) {
-                explode(world, targets.get(0).getPos(), owner);
-                it.remove();
-                continue;
-            }
+        o.pos = newPos;
 
-            o.pos = newPos;
+        // --- SHINY/RARE VISUALS ---
 
-            // --- SHINY/RARE VISUALS ---
+        // 1. END_ROD: This is the "Shiny White" particle.
+        // Spawning them with a tiny spread creates a condensed, glowing white ball.
+        world.spawnParticles(ParticleTypes.END_ROD,
+                o.pos.x, o.pos.y, o.pos.z,
+                4, 0.05, 0.05, 0.05, 0.01);
 
-            // 1. END_ROD: This is the "Shiny White" particle.
-            // Spawning them with a tiny spread creates a condensed, glowing white ball.
-            world.spawnParticles(ParticleTypes.END_ROD,
-                    o.pos.x, o.pos.y, o.pos.z,
-                    4, 0.05, 0.05, 0.05, 0.01);
+        // 2. ENCHANTED_HIT: These are the little "magic stars" seen on crits.
+        // Adds the "rare" vibe.
+        world.spawnParticles(ParticleTypes.ENCHANTED_HIT,
+                o.pos.x, o.pos.y, o.pos.z,
+                2, 0.15, 0.15, 0.15, 0.0);
 
-            // 2. ENCHANTED_HIT: These are the little "magic stars" seen on crits.
-            // Adds the "rare" vibe.
-            world.spawnParticles(ParticleTypes.ENCHANTED_HIT,
+        // 3. ELECTRIC_SPARK: Occasional Zap to show power.
+        if (rand.nextFloat() < 0.3f) {
+            world.spawnParticles(ParticleTypes.ELECTRIC_SPARK,
                     o.pos.x, o.pos.y, o.pos.z,
-                    2, 0.15, 0.15, 0.15, 0.0);
-
-            // 3. ELECTRIC_SPARK: Occasional Zap to show power.
-            if (rand.nextFloat() < 0.3f) {
-                world.spawnParticles(ParticleTypes.ELECTRIC_SPARK,
-                        o.pos.x, o.pos.y, o.pos.z,
-                        1, 0.1, 0.1, 0.1, 0.0);
-            }
+                    1, 0.1, 0.1, 0.1, 0.0);
+        }
 
-            // Sound: Looping hum
-            if ((now - o.spawnTick) % 4 == 0) {
-                world.playSound(null, (int)o.pos.x, (int)o.pos.y, (int)o.pos.z,
-                        SoundEvents.BLOCK_BEACON_AMBIENT, SoundCategory.PLAYERS, 2.0f, 2.0f);
-            }
+        // Sound: Looping hum
+        if ((now - o.spawnTick) % 4 == 0) {
+            world.playSound(null, (int)o.pos.x, (int)o.pos.y, (int)o.pos.z,
+                    SoundEvents.BLOCK_BEACON_AMBIENT, SoundCategory.PLAYERS, 2.0f, 2.0f);
         }
+        return true;
     }
 
     private static void explode(ServerWorld world, Vec3d pos, PlayerEntity owner) {
@@ -152,9 +140,11 @@ public class BoomingSpell implements Spell {
                 SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.PLAYERS, 1.0f, 0.5f);
 
         // Visuals: Sonic Boom + White Explosion
+        FxPriority outer = ParticleBudget.setPriority(FxPriority.IMPACT);
         world.spawnParticles(ParticleTypes.SONIC_BOOM, pos.x, pos.y, pos.z, 1, 0, 0, 0, 0);
         world.spawnParticles(ParticleTypes.EXPLOSION_EMITTER, pos.x, pos.y, pos.z, 1, 0, 0, 0, 0);
         world.spawnParticles(ParticleTypes.FLASH, pos.x, pos.y, pos.z, 3, 0, 0, 0, 0);
+        ParticleBudget.setPriority(outer);
 
         // Logic: Damage Falloff (No block breaking)
         List<Entity> victims = world.getOtherEntities(owner,
@@ -184,15 +174,25 @@ public class BoomingSpell implements Spell {
         }
     }
 
-    private static class BoomOrb {
-        final UUID owner;
+    private static class BoomOrb extends SpellEffect {
+        final OwnerHandle owner;
         Vec3d pos;
         Vec3d vel;
         final Vec3d initialForward;
         final long spawnTick;
-        BoomOrb(UUID owner, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
+        BoomOrb(OwnerHandle owner, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
             this.owner = owner; this.pos = pos; this.vel = vel;
             this.initialForward = initialForward; this.spawnTick = spawnTick;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickOrb(world, this);
+        }
+
+        @Override
+        protected Vec3d position(ServerWorld world) {
+            return pos;
+        }
     }
 }
\ No newline at end of file
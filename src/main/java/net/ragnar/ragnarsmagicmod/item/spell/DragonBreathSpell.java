@@ -1,6 +1,5 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.AreaEffectCloudEntity;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -9,15 +8,21 @@ import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
-import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Cone;
+import net.ragnar.ragnarsmagicmod.fx.FxBatch;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -42,19 +47,11 @@ public class DragonBreathSpell implements Spell {
     // safety: minimal distance from player (meters/blocks)
     private static final double MIN_START_OFFSET = 3.0;
 
-    private static final Map<RegistryKey<World>, List<Breath>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(DragonBreathSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("dragon_breath", BREATH_TIME);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         // Big dragon vibe
         world.playSound(null, player.getBlockPos(),
@@ -63,102 +60,98 @@ public class DragonBreathSpell implements Spell {
                 SoundEvents.BLOCK_BREWING_STAND_BREW, SoundCategory.PLAYERS, 1.0f, 0.6f);
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new Breath(player.getUuid(), sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new Breath(OwnerHandles.of(player), sw.getTime()));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<Breath> list = ACTIVE.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
+    private static boolean tickBreath(ServerWorld world, Breath b) {
         long now = world.getTime();
-        Iterator<Breath> it = list.iterator();
-
-        while (it.hasNext()) {
-            Breath b = it.next();
-            PlayerEntity owner = world.getPlayerByUuid(b.owner);
-            if (owner == null || now - b.startTick > BREATH_TIME) {
-                it.remove();
-                continue;
+
+        PlayerEntity owner = b.owner.get();
+        if (owner == null || now - b.startTick > BREATH_TIME) return false;
+
+        // Recompute origin/dir every tick so it follows aim,
+        // and force the origin to be 3 blocks in front of the eyes.
+        Vec3d eye = owner.getCameraPosVec(0.0f);
+        Vec3d dir = owner.getRotationVector().normalize();
+        Vec3d start = eye.add(dir.multiply(MIN_START_OFFSET));
+
+        // figure out which sample index is the first >= MIN_START_OFFSET
+        double step = MAX_RANGE / (SAMPLES_ALONG - 1);
+        int startIdx = Cone.firstSampleFrom(MIN_START_OFFSET, MAX_RANGE, SAMPLES_ALONG);
+
+        FxBatch fx = FxBatch.begin(world, start);
+        int puffs = FxQuality.count(PARTICLE_PUFFS_PER_SAMPLE);
+        for (int i = startIdx; i < SAMPLES_ALONG; i++) {
+            double t = ((double) i) / (SAMPLES_ALONG - 1);
+            double distFromStart = (i - startIdx) * step; // distance FROM our safe-start
+            Vec3d p = start.add(dir.multiply(distFromStart));
+
+            double radius = Cone.radiusAt(t, START_RADIUS, END_RADIUS);
+
+            // Particles
+            for (int k = 0; k < puffs; k++) {
+                double ox = (world.random.nextDouble() * 2 - 1) * NOISE * radius;
+                double oy = (world.random.nextDouble() * 2 - 1) * NOISE * 0.6 * radius;
+                double oz = (world.random.nextDouble() * 2 - 1) * NOISE * radius;
+                fx.particle(ParticleTypes.DRAGON_BREATH, p.x + ox, p.y + oy, p.z + oz, 1, 0, 0, 0, 0.0);
             }
 
-            // Recompute origin/dir every tick so it follows aim,
-            // and force the origin to be 3 blocks in front of the eyes.
-            Vec3d eye = owner.getCameraPosVec(0.0f);
-            Vec3d dir = owner.getRotationVector().normalize();
-            Vec3d start = eye.add(dir.multiply(MIN_START_OFFSET));
-
-            // figure out which sample index is the first >= MIN_START_OFFSET
-            double step = MAX_RANGE / (SAMPLES_ALONG - 1);
-            int startIdx = (int) Math.ceil(MIN_START_OFFSET / step);
-            if (startIdx < 0) startIdx = 0;
-            if (startIdx >= SAMPLES_ALONG) startIdx = SAMPLES_ALONG - 1;
-
-            for (int i = startIdx; i < SAMPLES_ALONG; i++) {
-                double t = ((double) i) / (SAMPLES_ALONG - 1);
-                double distFromStart = (i - startIdx) * step; // distance FROM our safe-start
-                Vec3d p = start.add(dir.multiply(distFromStart));
-
-                double radius = MathHelper.lerp(t, START_RADIUS, END_RADIUS);
-
-                // Particles
-                for (int k = 0; k < PARTICLE_PUFFS_PER_SAMPLE; k++) {
-                    double ox = (world.random.nextDouble() * 2 - 1) * NOISE * radius;
-                    double oy = (world.random.nextDouble() * 2 - 1) * NOISE * 0.6 * radius;
-                    double oz = (world.random.nextDouble() * 2 - 1) * NOISE * radius;
-                    world.spawnParticles(ParticleTypes.DRAGON_BREATH, p.x + ox, p.y + oy, p.z + oz, 1, 0, 0, 0, 0.0);
-                }
-
-                // Damage entities in this slice (excludes owner via getOtherEntities)
-                Box aabb = new Box(p.x - radius, p.y - radius * 0.7, p.z - radius,
-                        p.x + radius, p.y + radius * 0.7, p.z + radius);
-                List<Entity> hits = world.getOtherEntities(owner, aabb,
-                        e -> e instanceof LivingEntity && e.isAlive() && !e.isTeammate(owner));
-
-                for (Entity e : hits) {
-                    LivingEntity le = (LivingEntity) e;
-                    Vec3d pushDir = le.getPos().subtract(p).normalize();
-                    if (!Double.isFinite(pushDir.lengthSquared()) || pushDir.lengthSquared() < 1.0e-6) pushDir = dir;
-                    le.addVelocity(pushDir.x * KNOCKBACK, 0.01, pushDir.z * KNOCKBACK);
-                    le.velocityDirty = true;
-
-                    le.damage(world.getDamageSources().playerAttack(owner), (float) DPT);
-                }
-
-                // Clouds: spawn from these safe points (≥ 3 blocks out)
-                if ((now - b.startTick) % CLOUD_EVERY == 0 && i % 3 == 0) {
-                    AreaEffectCloudEntity cloud = new AreaEffectCloudEntity(world, p.x, p.y, p.z);
-                    cloud.setOwner(owner);
-                    cloud.setParticleType(ParticleTypes.DRAGON_BREATH);
-                    float base = CLOUD_BASE_RADIUS + (float) (radius * 0.15);
-                    cloud.setRadius(base);
-                    cloud.setRadiusOnUse(-0.02f);
-                    cloud.setRadiusGrowth(-0.01f);
-                    cloud.setWaitTime(0);
-                    cloud.setDuration(CLOUD_DURATION);
-                    // Effects: Instant Damage II + Wither so undead aren't healed
-                    cloud.addEffect(new StatusEffectInstance(StatusEffects.INSTANT_DAMAGE, 1, 1));
-                    cloud.addEffect(new StatusEffectInstance(StatusEffects.WITHER, 40, 0));
-                    world.spawnEntity(cloud);
-                }
+            // Damage entities in this slice (excludes owner via getOtherEntities)
+            Box aabb = new Box(p.x - radius, p.y - radius * 0.7, p.z - radius,
+                    p.x + radius, p.y + radius * 0.7, p.z + radius);
+            List<Entity> hits = world.getOtherEntities(owner, aabb,
+                    e -> e instanceof LivingEntity && e.isAlive() && !e.isTeammate(owner));
+
+            for (Entity e : hits) {
+                LivingEntity le = (LivingEntity) e;
+                Vec3d pushDir = le.getPos().subtract(p).normalize();
+                if (!Double.isFinite(pushDir.lengthSquared()) || pushDir.lengthSquared() < 1.0e-6) pushDir = dir;
+                le.addVelocity(pushDir.x * KNOCKBACK, 0.01, pushDir.z * KNOCKBACK);
+                le.velocityDirty = true;
+
+                le.damage(world.getDamageSources().playerAttack(owner), (float) DPT);
             }
 
-            // looped breath sound at safe origin
-            if (world.random.nextInt(4) == 0) {
-                world.playSound(null, BlockPos.ofFloored(start),
-                        SoundEvents.BLOCK_END_PORTAL_SPAWN, SoundCategory.PLAYERS, 0.6f, 1.8f);
+            // Clouds: spawn from these safe points (≥ 3 blocks out)
+            if ((now - b.startTick) % CLOUD_EVERY == 0 && i % 3 == 0) {
+                AreaEffectCloudEntity cloud = new AreaEffectCloudEntity(world, p.x, p.y, p.z);
+                cloud.setOwner(owner);
+                cloud.setParticleType(ParticleTypes.DRAGON_BREATH);
+                float base = CLOUD_BASE_RADIUS + (float) (radius * 0.15);
+                cloud.setRadius(base);
+                cloud.setRadiusOnUse(-0.02f);
+                cloud.setRadiusGrowth(-0.01f);
+                cloud.setWaitTime(0);
+                cloud.setDuration(CLOUD_DURATION);
+                // Effects: Instant Damage II + Wither so undead aren't healed
+                cloud.addEffect(new StatusEffectInstance(StatusEffects.INSTANT_DAMAGE, 1, 1));
+                cloud.addEffect(new StatusEffectInstance(StatusEffects.WITHER, 40, 0));
+                world.spawnEntity(cloud);
             }
         }
+        fx.send();
+
+        // looped breath sound at safe origin
+        if (world.random.nextInt(4) == 0) {
+            world.playSound(null, BlockPos.ofFloored(start),
+                    SoundEvents.BLOCK_END_PORTAL_SPAWN, SoundCategory.PLAYERS, 0.6f, 1.8f);
+        }
+        return true;
     }
 
-    private static class Breath {
-        final UUID owner;
+    private static class Breath extends SpellEffect {
+        final OwnerHandle owner;
         final long startTick;
-        Breath(UUID owner, long startTick) {
+        Breath(OwnerHandle owner, long startTick) {
             this.owner = owner;
             this.startTick = startTick;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickBreath(world, this);
+        }
     }
 }
@@ -1,12 +1,10 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.DustParticleEffect;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -16,6 +14,15 @@ import net.minecraft.util.math.*;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.RaycastContext;      // <-- required import
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 import org.joml.Vector3f;
 
 import java.util.*;
@@ -39,19 +46,11 @@ public class EnergyOrbSpell implements Spell {
     private static final DustParticleEffect CORE = new DustParticleEffect(new Vector3f(0.1f, 1.0f, 0.3f), 1.5f);
     private static final DustParticleEffect SHELL = new DustParticleEffect(new Vector3f(0.2f, 0.95f, 0.4f), 1.2f);
 
-    private static final Map<RegistryKey<World>, List<Orb>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTickerRegistered() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(EnergyOrbSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("energy_orb", LIFE_TICKS);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTickerRegistered();
 
         // Launch SFX
         world.playSound(null, player.getBlockPos(), SoundEvents.ENTITY_ENDER_PEARL_THROW,
@@ -63,112 +62,109 @@ public class EnergyOrbSpell implements Spell {
         Vec3d start = eye.add(fwd.multiply(2.0));
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new Orb(player.getUuid(), start, fwd.multiply(SPEED), fwd, sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new Orb(OwnerHandles.of(player), start, fwd.multiply(SPEED), fwd, sw.getTime()));
 
         return true;
     }
 
     // ---- Tick driver ----
-    private static void tickWorld(ServerWorld world) {
-        List<Orb> orbs = ACTIVE.get(world.getRegistryKey());
-        if (orbs == null || orbs.isEmpty()) return;
-
+    private static boolean tickOrb(ServerWorld world, Orb o) {
         long now = world.getTime();
         Random rand = world.getRandom();
 
-        Iterator<Orb> it = orbs.iterator();
-        while (it.hasNext()) {
-            Orb o = it.next();
-
-            // lifetime
-            if (now - o.spawnTick > LIFE_TICKS) { it.remove(); continue; }
-
-            // owner check
-            PlayerEntity owner = world.getPlayerByUuid(o.owner);
-            if (owner == null) { it.remove(); continue; }
+        // lifetime
+        if (now - o.spawnTick > LIFE_TICKS) return false;
 
-            // Desired aim point from cursor
-            HitResult aim = owner.raycast(CAST_RANGE, 0.0f, false);
-            Vec3d aimPos = (aim.getType() == HitResult.Type.BLOCK)
-                    ? Vec3d.ofCenter(((BlockHitResult)aim).getBlockPos())
-                    : owner.getCameraPosVec(0.0f).add(owner.getRotationVector().normalize().multiply(16.0));
+        // owner check
+        PlayerEntity owner = o.owner.get();
+        if (owner == null) return false;
 
-            // Steering (forward-only):
-            // 1) Desired velocity toward aim
-            Vec3d desiredVel = aimPos.subtract(o.pos).normalize().multiply(SPEED);
+        // Desired aim point from cursor
+        HitResult aim = owner.raycast(CAST_RANGE, 0.0f, false);
+        Vec3d aimPos = (aim.getType() == HitResult.Type.BLOCK)
+                ? Vec3d.ofCenter(((BlockHitResult)aim).getBlockPos())
+                : owner.getCameraPosVec(0.0f).add(owner.getRotationVector().normalize().multiply(16.0));
 
-            // 2) Lerp current velocity toward desired
-            Vec3d newVel = o.vel.multiply(1.0 - TURN).add(desiredVel.multiply(TURN));
+        // Steering (forward-only):
+        // 1) Desired velocity toward aim
+        Vec3d desiredVel = aimPos.subtract(o.pos).normalize().multiply(SPEED);
 
-            // 3) Enforce forward-only: keep non-negative component along initialForward
-            double comp = newVel.dotProduct(o.initialForward);
-            if (comp <= 0) {
-                // remove backward component, keep a tiny forward push so it never stalls
-                Vec3d lateral = newVel.subtract(o.initialForward.multiply(comp));
-                newVel = lateral.add(o.initialForward.multiply(0.05));
-            }
-            o.vel = newVel;
-
-            // Move + block hit ray
-            Vec3d oldPos = o.pos;
-            Vec3d newPos = o.pos.add(o.vel);
-            HitResult blockHit = world.raycast(new RaycastContext(
-                    oldPos, newPos,
-                    RaycastContext.ShapeType.COLLIDER,
-                    RaycastContext.FluidHandling.NONE,
-                    owner
-            ));
-            if (blockHit.getType() == HitResult.Type.BLOCK) {
-                impact(world, blockHit.getPos(), owner, rand);
-                it.remove();
-                continue;
-            }
+        // 2) Lerp current velocity toward desired
+        Vec3d newVel = o.vel.multiply(1.0 - TURN).add(desiredVel.multiply(TURN));
 
-            // Entity collision along path
-            Box path = new Box(oldPos, newPos).expand(HIT_RADIUS);
-            List<Entity> targets = world.getOtherEntities(owner, path,
-                    e -> e instanceof LivingEntity && e.isAttackable());
-            if (!targets.isEmpty()) {
-                impact(world, targets.get(0).getPos(), owner, rand);
-                it.remove();
-                continue;
-            }
+        // 3) Enforce forward-only: keep non-negative component along initialForward
+        double comp = newVel.dotProduct(o.initialForward);
+        if (comp <= 0) {
+            // remove backward component, keep a tiny forward push so it never stalls
+            Vec3d lateral = newVel.subtract(o.initialForward.multiply(comp));
+            newVel = lateral.add(o.initialForward.multiply(0.05));
+        }
+        o.vel = newVel;
+
+        // Move + block hit ray
+        Vec3d oldPos = o.pos;
+        Vec3d newPos = o.pos.add(o.vel);
+        HitResult blockHit = world.raycast(new RaycastContext(
+                oldPos, newPos,
+                RaycastContext.ShapeType.COLLIDER,
+                RaycastContext.FluidHandling.NONE,
+                owner
+        ));
+        if (blockHit.getType() == HitResult.Type.BLOCK) {
+            impact(world, blockHit.getPos(), owner, rand);
+            return false;
+        }
 
-            // Commit movement
-            o.pos = newPos;
+        // Entity collision along path
+        Box path = new Box(oldPos, newPos).expand(HIT_RADIUS);
+        List<Entity> targets = world.getOtherEntities(owner, path,
+                e -> e instanceof LivingEntity && e.isAttackable());
+        if (!targets.isEmpty()) {
+            impact(world, targets.get(0).getPos(), owner, rand);
+            return false;
+        }
 
-            // Render a BIG ball: a core + spherical shell each tick
-            // Shell points on random directions with fixed radius
-            for (int i = 0; i < SHELL_POINTS; i++) {
-                Vec3d n = randomUnit(rand);
-                Vec3d p = o.pos.add(n.multiply(ORB_RADIUS));
-                world.spawnParticles(SHELL, p.x, p.y, p.z, 4, 0, 0, 0, 0);
-            }
-            // Core points inside the ball
-            //for (int i = 0; i < CORE_POINTS; i++) {
-                //Vec3d p = o.pos.add(randomInSphere(rand, ORB_RADIUS * 0.5));
-                //world.spawnParticles(CORE, p.x, p.y, p.z, 1, 0, 0, 0, 0);
-            //}
-
-            // Soft hum every few ticks
-            if ((now - o.spawnTick) % 6 == 0) {
-                world.playSound(null, BlockPos.ofFloored(o.pos), SoundEvents.ENTITY_EVOKER_PREPARE_WOLOLO,
-                        SoundCategory.PLAYERS, 0.20f, 0.85f);
-            }
+        // Commit movement
+        o.pos = newPos;
+
+        // Render a BIG ball: a core + spherical shell each tick
+        // Shell points on random directions with fixed radius
+        FxViewers viewers = FxViewers.near(world, o.pos, ORB_RADIUS);
+        int shell = FxQuality.count(SHELL_POINTS);
+        for (int i = 0; i < shell; i++) {
+            Vec3d n = randomUnit(rand);
+            Vec3d p = o.pos.add(n.multiply(ORB_RADIUS));
+            viewers.particles(SHELL, p.x, p.y, p.z, 4, 0, 0, 0, 0);
         }
+        // Core points inside the ball
+        //for (int i = 0; i < CORE_POINTS; i++) {
+            //Vec3d p = o.pos.add(randomInSphere(rand, ORB_RADIUS * 0.5));
+            //world.spawnParticles(CORE, p.x, p.y, p.z, 1, 0, 0, 0, 0);
+        //}
+
+        // Soft hum every few ticks
+        if ((now - o.spawnTick) % 6 == 0) {
+            viewers.sound(BlockPos.ofFloored(o.pos), SoundEvents.ENTITY_EVOKER_PREPARE_WOLOLO,
+                    SoundCategory.PLAYERS, 0.20f, 0.85f);
+        }
+        viewers.release();
+        return true;
     }
 
     // ---- Impact ----
     private static void impact(ServerWorld world, Vec3d where, PlayerEntity owner, Random rand) {
         // Burst
+        FxViewers viewers = FxViewers.near(world, where, 0.0);
+        FxPriority outer = ParticleBudget.setPriority(FxPriority.IMPACT);
         for (int i = 0; i < 50; i++) {
             Vec3d v = randomUnit(rand).multiply(rand.nextDouble() * 0.5);
-            world.spawnParticles(CORE, where.x, where.y, where.z, 1, v.x, v.y, v.z, 0.0);
+            viewers.particles(CORE, where.x, where.y, where.z, 1, v.x, v.y, v.z, 0.0);
         }
+        ParticleBudget.setPriority(outer);
         // Impact SFX
-        world.playSound(null, BlockPos.ofFloored(where), SoundEvents.ENTITY_ELDER_GUARDIAN_CURSE,
+        viewers.sound(BlockPos.ofFloored(where), SoundEvents.ENTITY_ELDER_GUARDIAN_CURSE,
                 SoundCategory.PLAYERS, 0.6f, 1.2f);
+        viewers.release();
 
         // Damage + knockback (no owner)
         List<Entity> hit = world.getOtherEntities(owner,
@@ -207,16 +203,26 @@ public class EnergyOrbSpell implements Spell {
         }
     }
 
-    private static class Orb {
-        final UUID owner;
+    private static class Orb extends SpellEffect {
+        final OwnerHandle owner;
         Vec3d pos;
         Vec3d vel;
         final Vec3d initialForward;  // used to prevent backward motion
         final long spawnTick;
-        Orb(UUID owner, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
+        Orb(OwnerHandle owner, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
             this.owner = owner; this.pos = pos; this.vel = vel;
             this.initialForward = initialForward.normalize();
             this.spawnTick = spawnTick;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickOrb(world, this);
+        }
+
+        @Override
+        protected Vec3d position(ServerWorld world) {
+            return pos;
+        }
     }
 }
@@ -14,6 +14,7 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Ballistics;
 
 public final class FallingAnvilsSpell implements Spell {
     private static final double RANGE = 48.0;   // aim distance
@@ -89,7 +90,7 @@ public final class FallingAnvilsSpell implements Spell {
                         : (world.getBottomY() + 1);
 
                 double dropDist = Math.max(0.0, spawnY - groundY);
-                int ticksToImpact = net.ragnar.ragnarsmagicmod.util.SpellEffects.estimateFallTicks(dropDist);
+                int ticksToImpact = Ballistics.fallTicks(dropDist);
 
                 if (world instanceof ServerWorld sw) {
                     net.ragnar.ragnarsmagicmod.util.SpellEffects.scheduleImpact(
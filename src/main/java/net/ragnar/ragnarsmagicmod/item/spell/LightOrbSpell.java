@@ -1,19 +1,26 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.LightBlock;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.DustParticleEffect;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
+import net.ragnar.ragnarsmagicmod.runtime.CapPolicy;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 import org.joml.Vector3f;
 
 import java.util.*;
@@ -50,19 +57,13 @@ public class LightOrbSpell implements Spell {
     private static final double PULSE_RADIUS  = 0.28; // pulse ring radius
 
     // --- State tracking per world ---
-    private static final Map<RegistryKey<World>, List<Orb>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(LightOrbSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("light_orb", LIFETIME_TICKS)
+            .fxPriority(FxPriority.AMBIENT)
+            .cap(3, 0, CapPolicy.EVICT_OLDEST);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         // gentle spawn chime
         world.playSound(null, player.getBlockPos(),
@@ -73,92 +74,90 @@ public class LightOrbSpell implements Spell {
         Vec3d start = player.getPos().add(0, ORBIT_HEIGHT, 0);
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new Orb(player.getUuid(), start, sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new Orb(OwnerHandles.of(player), start, sw.getTime()));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<Orb> list = ACTIVE.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
+    private static boolean tickOrb(ServerWorld world, Orb orb) {
         long now = world.getTime();
-        Iterator<Orb> it = list.iterator();
-
-        while (it.hasNext()) {
-            Orb orb = it.next();
-            PlayerEntity p = world.getPlayerByUuid(orb.owner);
-            if (p == null) {
-                clearLight(world, orb.lightPos);
-                it.remove();
-                continue;
-            }
 
-            // end of life -> soft fade + cleanup
-            if (now - orb.spawnTick > LIFETIME_TICKS) {
-                for (int i = 0; i < 10; i++) {
-                    world.spawnParticles(LIGHT_YELLOW,
-                            orb.pos.x, orb.pos.y, orb.pos.z, 1, 0.1, 0.1, 0.1, 0.0);
-                }
-                clearLight(world, orb.lightPos);
-                it.remove();
-                continue;
-            }
+        PlayerEntity p = orb.owner.get();
+        if (p == null) {
+            clearLight(world, orb.lightPos);
+            return false;
+        }
 
-            // pick a new wander target every few seconds
-            if (now - orb.lastTargetChange > REPOSITION_INTERVAL) {
-                orb.target = randomTargetAround(p, world.getRandom());
-                orb.lastTargetChange = now;
+        // end of life -> soft fade + cleanup
+        if (now - orb.spawnTick > LIFETIME_TICKS) {
+            FxViewers viewers = FxViewers.near(world, orb.pos, 0.0);
+            for (int i = 0; i < 10; i++) {
+                viewers.particles(LIGHT_YELLOW,
+                        orb.pos.x, orb.pos.y, orb.pos.z, 1, 0.1, 0.1, 0.1, 0.0);
             }
+            viewers.release();
+            clearLight(world, orb.lightPos);
+            return false;
+        }
 
-            // smooth float toward target
-            Vec3d delta = orb.target.subtract(orb.pos);
-            orb.pos = orb.pos.add(delta.multiply(MOVE_SPEED));
+        // pick a new wander target every few seconds
+        if (now - orb.lastTargetChange > REPOSITION_INTERVAL) {
+            orb.target = randomTargetAround(p, world.getRandom());
+            orb.lastTargetChange = now;
+        }
 
-            // move/refresh the real light block with the orb
-            BlockPos newLight = BlockPos.ofFloored(orb.pos);
-            if (orb.lightPos == null || !orb.lightPos.equals(newLight)) {
-                clearLight(world, orb.lightPos);
-                placeLight(world, newLight);
-                orb.lightPos = newLight;
-            }
+        // smooth float toward target
+        Vec3d delta = orb.target.subtract(orb.pos);
+        orb.pos = orb.pos.add(delta.multiply(MOVE_SPEED));
 
-            // --- Visible but clean orb: halo + faint core, no trailing line ---
+        // move/refresh the real light block with the orb
+        BlockPos newLight = BlockPos.ofFloored(orb.pos);
+        if (orb.lightPos == null || !orb.lightPos.equals(newLight)) {
+            clearLight(world, orb.lightPos);
+            placeLight(world, newLight);
+            orb.lightPos = newLight;
+        }
 
-            // halo around orb
-            for (int i = 0; i < ORB_SHELL_POINTS; i++) {
-                double theta = (2 * Math.PI * i) / ORB_SHELL_POINTS;
-                double xOff = Math.cos(theta) * ORB_RADIUS;
-                double zOff = Math.sin(theta) * ORB_RADIUS;
-                double yOff = (world.getRandom().nextDouble() - 0.5) * 0.06;
-                world.spawnParticles(LIGHT_YELLOW,
-                        orb.pos.x + xOff, orb.pos.y + yOff, orb.pos.z + zOff,
-                        1, 0, 0, 0, 0);
-            }
+        // --- Visible but clean orb: halo + faint core, no trailing line ---
 
-            // faint core sparkles
-            for (int i = 0; i < ORB_CORE_POINTS; i++) {
-                double s = 0.04;
-                world.spawnParticles(LIGHT_YELLOW,
-                        orb.pos.x + (world.getRandom().nextDouble() - 0.5) * s,
-                        orb.pos.y + (world.getRandom().nextDouble() - 0.5) * s,
-                        orb.pos.z + (world.getRandom().nextDouble() - 0.5) * s,
-                        1, 0, 0, 0, 0);
-            }
+        FxViewers viewers = FxViewers.near(world, orb.pos, Math.max(ORB_RADIUS, PULSE_RADIUS));
+
+        // halo around orb
+        int shell = FxQuality.count(ORB_SHELL_POINTS);
+        for (int i = 0; i < shell; i++) {
+            double theta = (2 * Math.PI * i) / shell;
+            double xOff = Math.cos(theta) * ORB_RADIUS;
+            double zOff = Math.sin(theta) * ORB_RADIUS;
+            double yOff = (world.getRandom().nextDouble() - 0.5) * 0.06;
+            viewers.particles(LIGHT_YELLOW,
+                    orb.pos.x + xOff, orb.pos.y + yOff, orb.pos.z + zOff,
+                    1, 0, 0, 0, 0);
+        }
 
-            // subtle pulse ring sometimes (adds motion readability; still no trail)
-            if ((now % PULSE_INTERVAL) == 0) {
-                for (int i = 0; i < PULSE_POINTS; i++) {
-                    double ang = (2 * Math.PI * i) / PULSE_POINTS;
-                    double xOff = Math.cos(ang) * PULSE_RADIUS;
-                    double zOff = Math.sin(ang) * PULSE_RADIUS;
-                    world.spawnParticles(LIGHT_YELLOW,
-                            orb.pos.x + xOff, orb.pos.y, orb.pos.z + zOff,
-                            1, 0, 0, 0, 0);
-                }
+        // faint core sparkles
+        for (int i = 0, n = FxQuality.count(ORB_CORE_POINTS); i < n; i++) {
+            double s = 0.04;
+            viewers.particles(LIGHT_YELLOW,
+                    orb.pos.x + (world.getRandom().nextDouble() - 0.5) * s,
+                    orb.pos.y + (world.getRandom().nextDouble() - 0.5) * s,
+                    orb.pos.z + (world.getRandom().nextDouble() - 0.5) * s,
+                    1, 0, 0, 0, 0);
+        }
+
+        // subtle pulse ring sometimes (adds motion readability; still no trail)
+        if ((now % FxQuality.every(PULSE_INTERVAL)) == 0) {
+            int pulse = FxQuality.count(PULSE_POINTS);
+            for (int i = 0; i < pulse; i++) {
+                double ang = (2 * Math.PI * i) / pulse;
+                double xOff = Math.cos(ang) * PULSE_RADIUS;
+                double zOff = Math.sin(ang) * PULSE_RADIUS;
+                viewers.particles(LIGHT_YELLOW,
+                        orb.pos.x + xOff, orb.pos.y, orb.pos.z + zOff,
+                        1, 0, 0, 0, 0);
             }
         }
+        viewers.release();
+        return true;
     }
 
     // pick a random point around the player to wander toward
@@ -184,20 +183,35 @@ public class LightOrbSpell implements Spell {
         }
     }
 
-    private static class Orb {
-        final UUID owner;
+    private static class Orb extends SpellEffect {
+        final OwnerHandle owner;
         Vec3d pos;
         Vec3d target;
         BlockPos lightPos;
         final long spawnTick;
         long lastTargetChange;
 
-        Orb(UUID owner, Vec3d pos, long spawnTick) {
+        Orb(OwnerHandle owner, Vec3d pos, long spawnTick) {
             this.owner = owner;
             this.pos = pos;
             this.spawnTick = spawnTick;
             this.lastTargetChange = spawnTick;
             this.target = pos;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickOrb(world, this);
+        }
+
+        @Override
+        protected void onTerminated(ServerWorld world) {
+            clearLight(world, lightPos);
+        }
+
+        @Override
+        protected Vec3d position(ServerWorld world) {
+            return pos;
+        }
     }
 }
@@ -1,12 +1,10 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LightningEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.DustParticleEffect;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.hit.BlockHitResult;
@@ -18,6 +16,11 @@ import net.minecraft.util.math.random.Random;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.runtime.CapPolicy;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 import org.joml.Vector3f;
 
 import java.util.*;
@@ -40,20 +43,14 @@ public class LightningCascadeSpell implements Spell {
     private static final int STRIKES_PER_TICK_MIN = 1; // between 1–2 bolts per tick
     private static final int STRIKES_PER_TICK_MAX = 2;
 
-    private static final Map<RegistryKey<World>, List<Cascade>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    /** Registers the per-world tick hook once (kept inside this class). */
-    private static void ensureTickerRegistered() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(LightningCascadeSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("lightning_cascade", TOTAL_DURATION)
+            .cap(1, 6, CapPolicy.REJECT);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTickerRegistered();
+        // one storm per caster at a time
+        if (!SpellRuntime.hasRoom((ServerWorld) world, TYPE, player)) return false;
 
         // Your exact horn logic
         var horn = SoundEvents.GOAT_HORN_SOUNDS.get(5).value();
@@ -73,69 +70,61 @@ public class LightningCascadeSpell implements Spell {
 
         // Track a new cascade for this world
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new Cascade(center, sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new Cascade(center, sw.getTime()));
 
         return true;
     }
 
     /** Tick handler: drives warning phase then strike phase per active cascade. */
-    private static void tickWorld(ServerWorld world) {
-        List<Cascade> cascades = ACTIVE.get(world.getRegistryKey());
-        if (cascades == null || cascades.isEmpty()) return;
-
+    private static boolean tickCascade(ServerWorld world, Cascade c) {
         Random rand = world.getRandom();
         long now = world.getTime();
 
-        // remove finished cascades safely
-        Iterator<Cascade> it = cascades.iterator();
-        while (it.hasNext()) {
-            Cascade c = it.next();
-            int age = (int) (now - c.startTick);
-
-            if (age < WARN_DURATION) {
-                // ----- Warning phase: goat screams + rising particles -----
-                // Screams: every SCREAM_EVERY_TICKS
-                if (age % SCREAM_EVERY_TICKS == 0) {
-                    BlockPos p = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
-                    world.playSound(null, p, SoundEvents.ENTITY_GOAT_SCREAMING_AMBIENT,
-                            SoundCategory.HOSTILE, 1.5f, 0.9f + rand.nextFloat() * 0.2f);
-                }
+        int age = (int) (now - c.startTick);
 
-                // Rising yellow particle columns each tick
-                for (int i = 0; i < PARTICLE_COLUMNS_PER_TICK; i++) {
-                    BlockPos base = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
-                    double x = base.getX() + 0.5 + (rand.nextDouble() - 0.5) * 0.8;
-                    double z = base.getZ() + 0.5 + (rand.nextDouble() - 0.5) * 0.8;
-
-                    // 6-step vertical rise
-                    for (int h = 0; h < 6; h++) {
-                        double y = base.getY() + 0.1 + h * 0.2;
-                        world.spawnParticles(
-                                new DustParticleEffect(new Vector3f(1.0f, 0.95f, 0.1f), 1.0f),
-                                x, y, z,
-                                1, 0.0, 0.02, 0.0, 0.0
-                        );
-                    }
-                }
+        if (age < WARN_DURATION) {
+            // ----- Warning phase: goat screams + rising particles -----
+            // Screams: every SCREAM_EVERY_TICKS
+            if (age % SCREAM_EVERY_TICKS == 0) {
+                BlockPos p = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
+                world.playSound(null, p, SoundEvents.ENTITY_GOAT_SCREAMING_AMBIENT,
+                        SoundCategory.HOSTILE, 1.5f, 0.9f + rand.nextFloat() * 0.2f);
+            }
 
-            } else if (age < TOTAL_DURATION) {
-                // ----- Strike phase: continuous lightning for ~2s -----
-                int strikes = MathHelper.nextInt(rand, STRIKES_PER_TICK_MIN, STRIKES_PER_TICK_MAX);
-                for (int s = 0; s < strikes; s++) {
-                    BlockPos p = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
-                    LightningEntity bolt = EntityType.LIGHTNING_BOLT.create(world);
-                    if (bolt != null) {
-                        bolt.refreshPositionAfterTeleport(p.getX() + 0.5, p.getY(), p.getZ() + 0.5);
-                        world.spawnEntity(bolt);
-                    }
+            // Rising yellow particle columns each tick
+            for (int i = 0, n = FxQuality.count(PARTICLE_COLUMNS_PER_TICK); i < n; i++) {
+                BlockPos base = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
+                double x = base.getX() + 0.5 + (rand.nextDouble() - 0.5) * 0.8;
+                double z = base.getZ() + 0.5 + (rand.nextDouble() - 0.5) * 0.8;
+
+                // 6-step vertical rise
+                for (int h = 0; h < 6; h++) {
+                    double y = base.getY() + 0.1 + h * 0.2;
+                    world.spawnParticles(
+                            new DustParticleEffect(new Vector3f(1.0f, 0.95f, 0.1f), 1.0f),
+                            x, y, z,
+                            1, 0.0, 0.02, 0.0, 0.0
+                    );
                 }
+            }
 
-            } else {
-                // Done
-                it.remove();
+        } else if (age < TOTAL_DURATION) {
+            // ----- Strike phase: continuous lightning for ~2s -----
+            int strikes = MathHelper.nextInt(rand, STRIKES_PER_TICK_MIN, STRIKES_PER_TICK_MAX);
+            for (int s = 0; s < strikes; s++) {
+                BlockPos p = topSolidPos(world, randomInCircle(c.center, RADIUS, rand));
+                LightningEntity bolt = EntityType.LIGHTNING_BOLT.create(world);
+                if (bolt != null) {
+                    bolt.refreshPositionAfterTeleport(p.getX() + 0.5, p.getY(), p.getZ() + 0.5);
+                    world.spawnEntity(bolt);
+                }
             }
+
+        } else {
+            // Done
+            return false;
         }
+        return true;
     }
 
     // -------- helpers --------
@@ -155,5 +144,18 @@ public class LightningCascadeSpell implements Spell {
     }
 
     /** Per-instance cascade state. */
-    private record Cascade(BlockPos center, long startTick) {}
+    private static final class Cascade extends SpellEffect {
+        final BlockPos center;
+        final long startTick;
+
+        Cascade(BlockPos center, long startTick) {
+            this.center = center;
+            this.startTick = startTick;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickCascade(world, this);
+        }
+    }
 }
@@ -13,7 +13,12 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SlicedWork;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -41,6 +46,27 @@ public class MiningSpell implements Spell {
         return false;
     }
 
+    private static final int RADIUS = 1;
+    private static final int SIDE = RADIUS * 2 + 1;
+
+    private static void mine(ServerWorld world, PlayerEntity player, BlockPos target) {
+        BlockState state = world.getBlockState(target);
+        Block block = state.getBlock();
+
+        if (isUndergroundBlock(block)) {
+            if (!state.isAir() && state.getHardness(world, target) >= 0) {
+                // spawn block particles for satisfaction
+                world.spawnParticles(
+                        ParticleTypes.CRIT,
+                        target.getX() + 0.5, target.getY() + 0.5, target.getZ() + 0.5,
+                        6, 0.3, 0.3, 0.3, 0.0
+                );
+                // drop items + remove block
+                world.breakBlock(target, true, player);
+            }
+        }
+    }
+
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
@@ -55,31 +81,22 @@ public class MiningSpell implements Spell {
         BlockPos center = bhr.getBlockPos();
         Direction face = bhr.getSide();
 
-        // We’ll mine a 3×3×3 cube around that block
-        int radius = 1;
-
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    BlockPos target = center.add(dx, dy, dz);
-                    BlockState state = world.getBlockState(target);
-                    Block block = state.getBlock();
-
-                    if (isUndergroundBlock(block)) {
-                        if (!state.isAir() && state.getHardness(world, target) >= 0) {
-                            // spawn block particles for satisfaction
-                            ((ServerWorld) world).spawnParticles(
-                                    ParticleTypes.CRIT,
-                                    target.getX() + 0.5, target.getY() + 0.5, target.getZ() + 0.5,
-                                    6, 0.3, 0.3, 0.3, 0.0
-                            );
-                            // drop items + remove block
-                            world.breakBlock(target, true, player);
-                        }
-                    }
-                }
+        // We’ll mine a 3×3×3 cube around that block, a block per step: breaking with drops is the
+        // expensive part, so a slow tick finishes the cube over the next ones
+        OwnerHandle owner = OwnerHandles.of(player);
+        SpellRuntime.runSliced((ServerWorld) world, new SlicedWork() {
+            int next = 0;
+
+            @Override
+            public boolean step(ServerWorld sw) {
+                // the rest of the cube is dropped if the caster left, died or went to another world
+                ServerPlayerEntity caster = owner.get();
+                if (caster == null || caster.getWorld() != sw) return false;
+                int i = next++;
+                mine(sw, caster, center.add(i / (SIDE * SIDE) - RADIUS, i / SIDE % SIDE - RADIUS, i % SIDE - RADIUS));
+                return next < SIDE * SIDE * SIDE;
             }
-        }
+        });
 
         // Play “mining burst” sound and feedback
         world.playSound(null, player.getBlockPos(),
@@ -1,7 +1,6 @@
 // File: src/main/java/net/ragnar/ragnarsmagicmod/item/spell/RandomnessSpell.java
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.effect.StatusEffect;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
@@ -12,13 +11,17 @@ import net.minecraft.entity.projectile.SpectralArrowEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -42,103 +45,98 @@ public class RandomnessSpell implements Spell {
             StatusEffects.NAUSEA
     );
 
-    private static final Map<RegistryKey<World>, List<ChargingArrow>> CHARGING = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(RandomnessSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("random_arrow", CHARGE_TICKS + 1);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         world.playSound(null, player.getBlockPos(),
                 SoundEvents.ITEM_CROSSBOW_LOADING_MIDDLE.value(), SoundCategory.PLAYERS, 1.0f, 1.2f);
 
         ServerWorld sw = (ServerWorld) world;
-        CHARGING.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new ChargingArrow(player.getUuid(), sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new ChargingArrow(OwnerHandles.of(player), sw.getTime()));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<ChargingArrow> list = CHARGING.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
+    private static boolean tickCharge(ServerWorld world, ChargingArrow c) {
         long now = world.getTime();
-        Iterator<ChargingArrow> it = list.iterator();
 
-        while (it.hasNext()) {
-            ChargingArrow c = it.next();
-            PlayerEntity p = world.getPlayerByUuid(c.owner);
+        PlayerEntity p = c.owner.get();
 
-            if (p == null || !p.isAlive()) {
-                it.remove();
-                continue;
-            }
+        if (p == null || !p.isAlive()) return false;
 
-            long elapsed = now - c.startTime;
+        long elapsed = now - c.startTime;
 
-            if (elapsed < CHARGE_TICKS) {
-                // === CHARGING PARTICLES ===
-                if (elapsed % 2 == 0) {
-                    Vec3d pos = p.getPos().add(0, 1.2, 0)
-                            .add(p.getRotationVector().normalize().multiply(0.5));
+        if (elapsed < CHARGE_TICKS) {
+            // === CHARGING PARTICLES ===
+            if (elapsed % 2 == 0) {
+                Vec3d pos = p.getPos().add(0, 1.2, 0)
+                        .add(p.getRotationVector().normalize().multiply(0.5));
 
-                    world.spawnParticles(ParticleTypes.WITCH,
-                            pos.x, pos.y, pos.z,
-                            2, 0.1, 0.1, 0.1, 0.05);
+                world.spawnParticles(ParticleTypes.WITCH,
+                        pos.x, pos.y, pos.z,
+                        2, 0.1, 0.1, 0.1, 0.05);
 
-                    world.spawnParticles(ParticleTypes.ENCHANTED_HIT,
-                            pos.x, pos.y, pos.z,
-                            1, 0.1, 0.1, 0.1, 0.05);
-                }
-            } else {
-                // === FIRE PHASE ===
-                PersistentProjectileEntity projectile;
+                world.spawnParticles(ParticleTypes.ENCHANTED_HIT,
+                        pos.x, pos.y, pos.z,
+                        1, 0.1, 0.1, 0.1, 0.05);
+            }
+        } else {
+            // === FIRE PHASE ===
+            PersistentProjectileEntity projectile;
 
-                // 20% Chance for Spectral Arrow
-                if (world.random.nextFloat() < 0.2f) {
-                    ItemStack spectralStack = new ItemStack(Items.SPECTRAL_ARROW);
+            // 20% Chance for Spectral Arrow
+            if (world.random.nextFloat() < 0.2f) {
+                ItemStack spectralStack = new ItemStack(Items.SPECTRAL_ARROW);
 
-                    // FIX: Using the (world, owner, stack, shotFrom) constructor you provided
-                    projectile = new SpectralArrowEntity(world, p, spectralStack, null);
-                } else {
-                    // Tipped Arrow with Random Effect
-                    ItemStack arrowStack = new ItemStack(Items.ARROW);
+                // FIX: Using the (world, owner, stack, shotFrom) constructor you provided
+                projectile = new SpectralArrowEntity(world, p, spectralStack, null);
+            } else {
+                // Tipped Arrow with Random Effect
+                ItemStack arrowStack = new ItemStack(Items.ARROW);
 
-                    ArrowEntity arrow = new ArrowEntity(world, p, arrowStack, null);
+                ArrowEntity arrow = new ArrowEntity(world, p, arrowStack, null);
 
-                    // Add Random Effect
-                    RegistryEntry<StatusEffect> effect = RANDOM_EFFECTS.get(world.random.nextInt(RANDOM_EFFECTS.size()));
-                    arrow.addEffect(new StatusEffectInstance(effect, 100, 1));
+                // Add Random Effect
+                RegistryEntry<StatusEffect> effect = RANDOM_EFFECTS.get(world.random.nextInt(RANDOM_EFFECTS.size()));
+                arrow.addEffect(new StatusEffectInstance(effect, 100, 1));
 
-                    projectile = arrow;
-                }
+                projectile = arrow;
+            }
 
-                // Physics & Damage
-                projectile.setVelocity(p, p.getPitch(), p.getYaw(), 0.0F, VELOCITY, DIVERGENCE);
-                projectile.setDamage(DAMAGE);
-                projectile.pickupType = PersistentProjectileEntity.PickupPermission.ALLOWED;
+            // Physics & Damage
+            projectile.setVelocity(p, p.getPitch(), p.getYaw(), 0.0F, VELOCITY, DIVERGENCE);
+            projectile.setDamage(DAMAGE);
+            projectile.pickupType = PersistentProjectileEntity.PickupPermission.ALLOWED;
 
-                world.spawnEntity(projectile);
+            world.spawnEntity(projectile);
 
-                world.playSound(null, p.getBlockPos(),
-                        SoundEvents.ENTITY_ARROW_SHOOT, SoundCategory.PLAYERS, 1.0f, 1.8f);
+            world.playSound(null, p.getBlockPos(),
+                    SoundEvents.ENTITY_ARROW_SHOOT, SoundCategory.PLAYERS, 1.0f, 1.8f);
 
-                // Recoil
-                p.addVelocity(p.getRotationVector().multiply(-0.4));
-                p.velocityModified = true;
+            // Recoil
+            p.addVelocity(p.getRotationVector().multiply(-0.4));
+            p.velocityModified = true;
 
-                it.remove();
-            }
+            return false;
         }
+        return true;
     }
 
-    private record ChargingArrow(UUID owner, long startTime) {}
+    private static final class ChargingArrow extends SpellEffect {
+        final OwnerHandle owner;
+        final long startTime;
+
+        ChargingArrow(OwnerHandle owner, long startTime) {
+            this.owner = owner;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickCharge(world, this);
+        }
+    }
 }
\ No newline at end of file
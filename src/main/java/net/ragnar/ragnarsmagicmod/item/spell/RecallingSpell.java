@@ -1,16 +1,20 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellMemory;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,27 +22,36 @@ import java.util.UUID;
 
 public class RecallingSpell implements Spell {
 
-    /** Data for a single saved recall point. */
-    private static class RecallPoint {
+    /** Data for a single saved recall point; also drives its marker particles while it is set. */
+    private static class RecallPoint extends SpellEffect {
+        final UUID owner;
         final net.minecraft.registry.RegistryKey<World> worldKey;
         final BlockPos pos;
 
-        RecallPoint(net.minecraft.registry.RegistryKey<World> worldKey, BlockPos pos) {
+        RecallPoint(UUID owner, net.minecraft.registry.RegistryKey<World> worldKey, BlockPos pos) {
+            this.owner = owner;
             this.worldKey = worldKey;
             this.pos = pos;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickMarker(world, this);
+        }
     }
 
+    private static final EffectType TYPE = SpellRuntime.registerType("recall_marker")
+            .fxPriority(FxPriority.AMBIENT)
+            .openEnded();
+
     // One recall point per player
     private static final Map<UUID, RecallPoint> RECALL_POINTS = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
 
     public RecallingSpell() {
-        // Register server tick once when the spell class is first created
-        if (!TICK_REGISTERED) {
-            TICK_REGISTERED = true;
-            ServerTickEvents.END_SERVER_TICK.register(RecallingSpell::onServerTick);
-        }
+        // Points only live as long as their marker effect, which is dropped when the server stops
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> RECALL_POINTS.clear());
+        // map node + UUID key + point (its marker effect is counted under recall_marker)
+        SpellMemory.register("recall points", RECALL_POINTS::size, 112);
     }
 
     // Spell interface: return true if something happened
@@ -52,7 +65,9 @@ public class RecallingSpell implements Spell {
         if (existing == null) {
             // FIRST PRESS: set a recall point at player's feet
             BlockPos base = BlockPos.ofFloored(player.getX(), player.getY(), player.getZ());
-            RECALL_POINTS.put(id, new RecallPoint(world.getRegistryKey(), base));
+            RecallPoint point = new RecallPoint(id, world.getRegistryKey(), base);
+            RECALL_POINTS.put(id, point);
+            SpellRuntime.spawn((ServerWorld) world, TYPE, point);
 
             world.playSound(null, base, SoundEvents.BLOCK_ENCHANTMENT_TABLE_USE, SoundCategory.PLAYERS, 1.0f, 1.0f);
             return true;
@@ -81,59 +96,54 @@ public class RecallingSpell implements Spell {
         }
     }
 
-    /** Tick handler for marker particles. */
-    private static void onServerTick(MinecraftServer server) {
-        if (RECALL_POINTS.isEmpty()) return;
-
-        for (RecallPoint point : RECALL_POINTS.values()) {
-            ServerWorld world = server.getWorld(point.worldKey);
-            if (world == null) continue;
-
-            Vec3d center = new Vec3d(point.pos.getX() + 0.5, point.pos.getY() + 0.2, point.pos.getZ() + 0.5);
-
-            // Small, subtle particle pillar that "stays" there
-            // Cool ember-like marker effect
-            for (int i = 0; i < 4; i++) {
-                double dx = (world.random.nextDouble() - 0.5) * 0.2;
-                double dz = (world.random.nextDouble() - 0.5) * 0.2;
-                double dy = world.random.nextDouble() * 0.3;
-
-                // Small magical fire flickers
+    /** Tick handler for marker particles; the marker ends once its point is recalled or replaced. */
+    private static boolean tickMarker(ServerWorld world, RecallPoint point) {
+        if (RECALL_POINTS.get(point.owner) != point) return false;
+
+        Vec3d center = new Vec3d(point.pos.getX() + 0.5, point.pos.getY() + 0.2, point.pos.getZ() + 0.5);
+
+        // Small, subtle particle pillar that "stays" there
+        // Cool ember-like marker effect
+        for (int i = 0; i < 4; i++) {
+            double dx = (world.random.nextDouble() - 0.5) * 0.2;
+            double dz = (world.random.nextDouble() - 0.5) * 0.2;
+            double dy = world.random.nextDouble() * 0.3;
+
+            // Small magical fire flickers
+            world.spawnParticles(
+                    net.minecraft.particle.ParticleTypes.FLAME,
+                    center.x + dx,
+                    center.y + dy,
+                    center.z + dz,
+                    1,
+                    0.0, 0.01, 0.0,
+                    0.0001
+            );
+
+            // Soft smoke rising
+            world.spawnParticles(
+                    net.minecraft.particle.ParticleTypes.SMOKE,
+                    center.x + dx,
+                    center.y + dy + 0.1,
+                    center.z + dz,
+                    1,
+                    0.0, 0.02, 0.0,
+                    0.0
+            );
+
+            // Rare spark for magical highlight
+            if (world.random.nextFloat() < 0.10f) {
                 world.spawnParticles(
-                        net.minecraft.particle.ParticleTypes.FLAME,
-                        center.x + dx,
-                        center.y + dy,
-                        center.z + dz,
+                        net.minecraft.particle.ParticleTypes.CRIT,
+                        center.x,
+                        center.y + 0.2,
+                        center.z,
                         1,
-                        0.0, 0.01, 0.0,
-                        0.0001
-                );
-
-                // Soft smoke rising
-                world.spawnParticles(
-                        net.minecraft.particle.ParticleTypes.SMOKE,
-                        center.x + dx,
-                        center.y + dy + 0.1,
-                        center.z + dz,
-                        1,
-                        0.0, 0.02, 0.0,
+                        0.0, 0.03, 0.0,
                         0.0
                 );
-
-                // Rare spark for magical highlight
-                if (world.random.nextFloat() < 0.10f) {
-                    world.spawnParticles(
-                            net.minecraft.particle.ParticleTypes.CRIT,
-                            center.x,
-                            center.y + 0.2,
-                            center.z,
-                            1,
-                            0.0, 0.03, 0.0,
-                            0.0
-                    );
-                }
             }
-
         }
+        return true;
     }
 }
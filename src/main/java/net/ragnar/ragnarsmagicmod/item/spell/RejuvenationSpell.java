@@ -1,18 +1,25 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
+import net.ragnar.ragnarsmagicmod.runtime.BuffKind;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.PlayerBuffs;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -22,19 +29,18 @@ public class RejuvenationSpell implements Spell {
     private static final int HEART_TICKS = 100;    // 5 seconds of heart particles
     private static final double EMERALD_RADIUS = 1.3;
 
-    private static final Map<RegistryKey<World>, List<ActiveRegen>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("rejuvenation", HEART_TICKS)
+            .fxPriority(FxPriority.AMBIENT);
 
-    private static void ensureTick() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(RejuvenationSpell::tickWorld);
-        TICK_REGISTERED = true;
+    static {
+        // hearts keep floating around the player after a portal
+        PlayerBuffs.onRelocated(BuffKind.REJUVENATION, (player, world, buff) ->
+                SpellRuntime.spawn(world, TYPE, new ActiveRegen(OwnerHandles.of(player), buff)));
     }
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTick();
 
         // Sound + emerald burst
         world.playSound(null, player.getBlockPos(),
@@ -45,13 +51,15 @@ public class RejuvenationSpell implements Spell {
 
         // emerald sparkle particles
         Vec3d center = player.getPos().add(0, 1.0, 0);
+        FxViewers viewers = FxViewers.near(sw, center, EMERALD_RADIUS + 0.3);
         for (int i = 0; i < 40; i++) {
             double angle = (Math.PI * 2 * i) / 40;
             double x = center.x + Math.cos(angle) * EMERALD_RADIUS;
             double y = center.y + (sw.getRandom().nextDouble() - 0.5) * 0.6;
             double z = center.z + Math.sin(angle) * EMERALD_RADIUS;
-            sw.spawnParticles(ParticleTypes.HAPPY_VILLAGER, x, y, z, 1, 0, 0, 0, 0);
+            viewers.particles(ParticleTypes.HAPPY_VILLAGER, x, y, z, 1, 0, 0, 0, 0);
         }
+        viewers.release();
 
         // instant heal (4 hearts)
         player.heal(8.0f);
@@ -60,45 +68,43 @@ public class RejuvenationSpell implements Spell {
         player.addStatusEffect(new StatusEffectInstance(StatusEffects.REGENERATION, REGEN_DURATION, 1, false, false, true));
         player.addStatusEffect(new StatusEffectInstance(StatusEffects.ABSORPTION, REGEN_DURATION, 1, false, false, true));
 
-        // Track heart particles for 5 seconds
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new ActiveRegen(player.getUuid(), sw.getTime()));
+        // Track heart particles for 5 seconds (a recast just extends the running ones)
+        boolean fresh = !PlayerBuffs.has(player, BuffKind.REJUVENATION);
+        PlayerBuffs.Buff buff = PlayerBuffs.apply(player, BuffKind.REJUVENATION, HEART_TICKS);
+        if (fresh) {
+            SpellRuntime.spawn(sw, TYPE, new ActiveRegen(OwnerHandles.of(player), buff));
+        }
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<ActiveRegen> list = ACTIVE.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
-        long now = world.getTime();
-        Iterator<ActiveRegen> it = list.iterator();
-        while (it.hasNext()) {
-            ActiveRegen r = it.next();
-            PlayerEntity p = world.getPlayerByUuid(r.player);
-            if (p == null) { it.remove(); continue; }
-
-            if (now - r.startTick > HEART_TICKS) {
-                it.remove();
-                continue;
-            }
-
-            // small floating hearts
-            if (world.getRandom().nextInt(5) == 0) { // sparse
-                double x = p.getX() + (world.getRandom().nextDouble() - 0.5) * 0.6;
-                double y = p.getY() + 1.0 + world.getRandom().nextDouble() * 0.8;
-                double z = p.getZ() + (world.getRandom().nextDouble() - 0.5) * 0.6;
-                world.spawnParticles(ParticleTypes.HEART, x, y, z, 1, 0, 0, 0, 0);
-            }
+    private static boolean tickRegen(ServerWorld world, ActiveRegen r) {
+        PlayerEntity p = r.player.get();
+        if (p == null) return false;
+
+        if (!r.buff.isActive()) return false;
+
+        // small floating hearts
+        if (world.getRandom().nextInt(5) == 0) { // sparse
+            double x = p.getX() + (world.getRandom().nextDouble() - 0.5) * 0.6;
+            double y = p.getY() + 1.0 + world.getRandom().nextDouble() * 0.8;
+            double z = p.getZ() + (world.getRandom().nextDouble() - 0.5) * 0.6;
+            world.spawnParticles(ParticleTypes.HEART, x, y, z, 1, 0, 0, 0, 0);
         }
+        return true;
     }
 
-    private static class ActiveRegen {
-        final UUID player;
-        final long startTick;
-        ActiveRegen(UUID player, long startTick) {
+    private static class ActiveRegen extends SpellEffect {
+        final OwnerHandle player;
+        final PlayerBuffs.Buff buff;
+        ActiveRegen(OwnerHandle player, PlayerBuffs.Buff buff) {
             this.player = player;
-            this.startTick = startTick;
+            this.buff = buff;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickRegen(world, this);
         }
     }
 }
@@ -1,11 +1,9 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -17,32 +15,20 @@ import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
 import net.ragnar.ragnarsmagicmod.entity.ModEntities;
 import net.ragnar.ragnarsmagicmod.entity.SteveEntity;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 public class SummonSteveSpell implements Spell {
 
     private static final double RANGE = 24.0;
     private static final int DELAY_TICKS = 120; // 2 seconds
 
-    // Tracking pending summons per world
-    private static final Map<RegistryKey<World>, List<PendingSummon>> PENDING = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(SummonSteveSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("steve_summon", DELAY_TICKS);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         // Raycast to find ground
         HitResult hit = world.raycast(new RaycastContext(
@@ -68,31 +54,23 @@ public class SummonSteveSpell implements Spell {
                 SoundEvents.BLOCK_PORTAL_TRIGGER, SoundCategory.PLAYERS, 0.8f, 0.6f);
 
         ServerWorld sw = (ServerWorld) world;
-        PENDING.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new PendingSummon(targetPos, sw.getTime() + DELAY_TICKS));
+        SpellRuntime.spawn(sw, TYPE, new PendingSummon(targetPos, sw.getTime() + DELAY_TICKS));
 
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<PendingSummon> list = PENDING.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
+    private static boolean tickSummon(ServerWorld world, PendingSummon summon) {
         long now = world.getTime();
-        Iterator<PendingSummon> it = list.iterator();
-
-        while (it.hasNext()) {
-            PendingSummon summon = it.next();
 
-            // 1. Spawn cool particle cloud while waiting
-            spawnSummonParticles(world, summon.pos);
+        // 1. Spawn cool particle cloud while waiting
+        spawnSummonParticles(world, summon.pos);
 
-            // 2. Check if time to spawn
-            if (now >= summon.spawnTime) {
-                spawnSteve(world, summon.pos);
-                it.remove();
-            }
+        // 2. Check if time to spawn
+        if (now >= summon.spawnTime) {
+            spawnSteve(world, summon.pos);
+            return false;
         }
+        return true;
     }
 
     private static void spawnSummonParticles(ServerWorld world, Vec3d pos) {
@@ -127,5 +105,18 @@ public class SummonSteveSpell implements Spell {
         }
     }
 
-    private record PendingSummon(Vec3d pos, long spawnTime) {}
+    private static final class PendingSummon extends SpellEffect {
+        final Vec3d pos;
+        final long spawnTime;
+
+        PendingSummon(Vec3d pos, long spawnTime) {
+            this.pos = pos;
+            this.spawnTime = spawnTime;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickSummon(world, this);
+        }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.AbstractFireBlock;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
@@ -8,7 +7,6 @@ import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -17,6 +15,18 @@ import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Segments;
+import net.ragnar.ragnarsmagicmod.fx.FxBatch;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitter;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitters;
+import net.ragnar.ragnarsmagicmod.fx.FxLayer;
+import net.ragnar.ragnarsmagicmod.fx.FxShape;
+import net.ragnar.ragnarsmagicmod.runtime.CapPolicy;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -36,20 +46,14 @@ public class SunSpell implements Spell {
     // visuals
     private static final int CORE_PARTICLES_PER_TICK = 5;   // core particles
     private static final int SHELL_POINTS_BASE = 300;       // roiling surface density
+    private static final int LIFETIME_TICKS = (int) Math.ceil((END_RADIUS - START_RADIUS) / GROWTH_PER_TICK);
 
-    private static final Map<RegistryKey<World>, List<SunBall>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTicker() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(SunSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("sun_ball", LIFETIME_TICKS)
+            .cap(2, 16, CapPolicy.EVICT_OLDEST);
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTicker();
 
         // summon sounds
         world.playSound(null, player.getBlockPos(),
@@ -62,132 +66,97 @@ public class SunSpell implements Spell {
         Vec3d start = eye.add(forward.multiply(3.0));
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new SunBall(player.getUuid(), start, forward, START_RADIUS, sw.getTime()));
+        SunBall ball = new SunBall(OwnerHandles.of(player), start, forward, START_RADIUS, sw.getTime());
+
+        // the visuals are pure geometry, clients animate them from this one descriptor
+        ball.emitterId = FxEmitters.start(sw, new FxEmitter(start, LIFETIME_TICKS)
+                .drift(forward.multiply(SPEED))
+                // dense bright core: LAVA + SMALL_FLAME inside sphere (no trail)
+                .layer(FxLayer.of(FxShape.VOLUME, ParticleTypes.LAVA)
+                        .accent(ParticleTypes.SMALL_FLAME, 2)
+                        .radius((float) (START_RADIUS * 0.6), (float) (END_RADIUS * 0.6), LIFETIME_TICKS)
+                        .points(CORE_PARTICLES_PER_TICK))
+                // roiling surface: FLAME + occasional ASH shimmer, density scales with size
+                .layer(FxLayer.of(FxShape.SHELL, ParticleTypes.FLAME)
+                        .accent(ParticleTypes.ASH, 7)
+                        .radius((float) START_RADIUS, (float) END_RADIUS, LIFETIME_TICKS)
+                        .points((int) (SHELL_POINTS_BASE * 0.6), SHELL_POINTS_BASE)
+                        .spin(0.06f)));
+        SpellRuntime.spawn(sw, TYPE, ball);
         return true;
     }
 
-    private static void tickWorld(ServerWorld world) {
-        List<SunBall> list = ACTIVE.get(world.getRegistryKey());
-        if (list == null || list.isEmpty()) return;
-
-        long now = world.getTime();
-        Iterator<SunBall> it = list.iterator();
-        while (it.hasNext()) {
-            SunBall s = it.next();
-
-            // end of life
-            if (s.radius >= END_RADIUS) {
-                // final flare (no trail: just at current position)
-                for (int i = 0; i < 60; i++) {
-                    double vx = (world.random.nextDouble() - 0.5) * 0.5;
-                    double vy = (world.random.nextDouble() - 0.2) * 0.5;
-                    double vz = (world.random.nextDouble() - 0.5) * 0.5;
-                    world.spawnParticles(ParticleTypes.LAVA, s.pos.x, s.pos.y, s.pos.z, 1, vx, vy, vz, 0.0);
-                }
-                world.playSound(null, BlockPos.ofFloored(s.pos),
-                        SoundEvents.BLOCK_FIRE_EXTINGUISH, SoundCategory.PLAYERS, 1.1f, 1.8f);
-                it.remove();
-                continue;
-            }
-
-            // previous position (for swept/capsule hit)
-            Vec3d oldPos = s.pos;
-
-            // move forward (no collision: passes through walls)
-            s.pos = s.pos.add(s.forward.multiply(SPEED));
-
-            // grow
-            double prevRadius = s.radius;
-            s.radius += GROWTH_PER_TICK;
-
-            // optional: ignite *air only* where the shell touches (never replace/break blocks)
-            if (CAN_IGNITE) tryIgniteAirOnShell(world, s.pos, s.radius);
-
-            // ---- CAPTURE ALL ENTITIES CROSSED THIS TICK (capsule test) ----
-            // Build an AABB that fully contains the swept sphere from oldPos->newPos expanded by max radius
-            double maxR = Math.max(prevRadius, s.radius);
-            Box sweepAabb = new Box(oldPos, s.pos).expand(maxR, maxR, maxR);
-
-            // owner (for friendly fire/credit)
-            PlayerEntity owner = world.getPlayerByUuid(s.owner);
-
-            List<Entity> candidates = world.getOtherEntities(
-                    owner, sweepAabb,
-                    e -> e instanceof LivingEntity && e.isAlive()
-            );
-
-            for (Entity e : candidates) {
-                // quick precise test: distance from entity center to segment <= (sphere radius + entity radius)
-                Vec3d c = e.getBoundingBox().getCenter(); // center point
-                double entityRadius = Math.max(e.getWidth(), e.getHeight()) * 0.5;
-
-                // Interpolate effective radius along movement by projection t
-                double t = clamp01(projectParamOnSegment(oldPos, s.pos, c));
-                double radiusAtT = prevRadius + (s.radius - prevRadius) * t;
-
-                double distSq = distanceSqPointToSegment(c, oldPos, s.pos);
-                double limit = radiusAtT + entityRadius;
-
-                if (distSq <= limit * limit) {
-                    LivingEntity le = (LivingEntity) e;
-                    // light them up a bit for flair
-                    le.setOnFireFor(6);
-                    // kill — prefer playerAttack for proper attribution if owner exists
-                    if (owner != null) {
-                        le.damage(world.getDamageSources().playerAttack(owner), 1_000_000.0f);
-                    } else {
-                        le.damage(world.getDamageSources().magic(), 1_000_000.0f);
-                    }
-                }
-            }
-
-            // particles at *current* position only (no trail)
-            spawnCoreParticles(world, s.pos, s.radius);
-            spawnShellParticles(world, s.pos, s.radius, now);
-
-            // occasional simmer sound
-            if (world.random.nextInt(12) == 0) {
-                world.playSound(
-                        null, BlockPos.ofFloored(s.pos),
-                        SoundEvents.BLOCK_LAVA_POP, SoundCategory.PLAYERS, 0.6f, 0.8f + world.random.nextFloat() * 0.4f
-                );
+    private static boolean tickSunBall(ServerWorld world, SunBall s) {
+        // end of life
+        if (s.radius >= END_RADIUS) {
+            // final flare (no trail: just at current position)
+            FxBatch flare = FxBatch.begin(world, s.pos);
+            for (int i = 0; i < 60; i++) {
+                double vx = (world.random.nextDouble() - 0.5) * 0.5;
+                double vy = (world.random.nextDouble() - 0.2) * 0.5;
+                double vz = (world.random.nextDouble() - 0.5) * 0.5;
+                flare.particle(ParticleTypes.LAVA, s.pos.x, s.pos.y, s.pos.z, 1, vx, vy, vz, 0.0);
             }
+            flare.send();
+            world.playSound(null, BlockPos.ofFloored(s.pos),
+                    SoundEvents.BLOCK_FIRE_EXTINGUISH, SoundCategory.PLAYERS, 1.1f, 1.8f);
+            return false;
         }
-    }
 
-    // dense bright core: LAVA + SMALL_FLAME inside sphere (no trail)
-    private static void spawnCoreParticles(ServerWorld world, Vec3d c, double r) {
-        for (int i = 0; i < CORE_PARTICLES_PER_TICK; i++) {
-            double rx = (world.random.nextDouble() * 2 - 1) * r * 0.6;
-            double ry = (world.random.nextDouble() * 2 - 1) * r * 0.6;
-            double rz = (world.random.nextDouble() * 2 - 1) * r * 0.6;
-            world.spawnParticles(ParticleTypes.LAVA, c.x + rx, c.y + ry, c.z + rz, 1, 0, 0, 0, 0.0);
-            if (world.random.nextBoolean()) {
-                world.spawnParticles(ParticleTypes.SMALL_FLAME, c.x + rx, c.y + ry, c.z + rz, 1, 0, 0, 0, 0.0);
+        // previous position (for swept/capsule hit)
+        Vec3d oldPos = s.pos;
+
+        // move forward (no collision: passes through walls)
+        s.pos = s.pos.add(s.forward.multiply(SPEED));
+
+        // grow
+        double prevRadius = s.radius;
+        s.radius += GROWTH_PER_TICK;
+
+        // optional: ignite *air only* where the shell touches (never replace/break blocks)
+        if (CAN_IGNITE) tryIgniteAirOnShell(world, s.pos, s.radius);
+
+        // ---- CAPTURE ALL ENTITIES CROSSED THIS TICK (capsule test) ----
+        // Build an AABB that fully contains the swept sphere from oldPos->newPos expanded by max radius
+        double maxR = Math.max(prevRadius, s.radius);
+        Box sweepAabb = new Box(oldPos, s.pos).expand(maxR, maxR, maxR);
+
+        // owner (for friendly fire/credit)
+        PlayerEntity owner = s.owner.get();
+
+        List<Entity> candidates = world.getOtherEntities(
+                owner, sweepAabb,
+                e -> e instanceof LivingEntity && e.isAlive()
+        );
+
+        for (Entity e : candidates) {
+            // quick precise test: distance from entity center to segment <= (sphere radius + entity radius)
+            Vec3d c = e.getBoundingBox().getCenter(); // center point
+            double entityRadius = Math.max(e.getWidth(), e.getHeight()) * 0.5;
+
+            // effective radius is interpolated along the movement at the entity's projection
+            if (Segments.sweptSphereHits(oldPos.x, oldPos.y, oldPos.z, prevRadius,
+                    s.pos.x, s.pos.y, s.pos.z, s.radius, c.x, c.y, c.z, entityRadius)) {
+                LivingEntity le = (LivingEntity) e;
+                // light them up a bit for flair
+                le.setOnFireFor(6);
+                // kill — prefer playerAttack for proper attribution if owner exists
+                if (owner != null) {
+                    le.damage(world.getDamageSources().playerAttack(owner), 1_000_000.0f);
+                } else {
+                    le.damage(world.getDamageSources().magic(), 1_000_000.0f);
+                }
             }
         }
-    }
 
-    // roiling surface: FLAME + occasional ASH shimmer (no reverse_portal, no dragon_breath)
-    private static void spawnShellParticles(ServerWorld world, Vec3d c, double r, long now) {
-        int points = (int) (SHELL_POINTS_BASE * (0.6 + 0.4 * (r / END_RADIUS))); // scale with size
-        double phi = Math.PI * (3.0 - Math.sqrt(5.0));
-        for (int i = 0; i < points; i++) {
-            double y = 1.0 - (i + 0.5) * (2.0 / points);
-            double radius = Math.sqrt(1.0 - y * y);
-            double theta = phi * i + (now * 0.06); // slow spin
-            double x = Math.cos(theta) * radius;
-            double z = Math.sin(theta) * radius;
-
-            Vec3d p = c.add(x * r, y * r, z * r);
-
-            if ((i + now) % 7 == 0) {
-                world.spawnParticles(ParticleTypes.ASH, p.x, p.y, p.z, 1, 0, 0, 0, 0.0);
-            } else {
-                world.spawnParticles(ParticleTypes.FLAME, p.x, p.y, p.z, 1, 0, 0, 0, 0.0);
-            }
+        // occasional simmer sound
+        if (world.random.nextInt(12) == 0) {
+            world.playSound(
+                    null, BlockPos.ofFloored(s.pos),
+                    SoundEvents.BLOCK_LAVA_POP, SoundCategory.PLAYERS, 0.6f, 0.8f + world.random.nextFloat() * 0.4f
+            );
         }
+        return true;
     }
 
     // tries to place fire in air cells on the shell; never replaces solid blocks
@@ -224,41 +193,36 @@ public class SunSpell implements Spell {
         }
     }
 
-    // --- math helpers ---
-
-    private static double clamp01(double t) {
-        return t < 0 ? 0 : (t > 1 ? 1 : t);
-    }
-
-    /** Parameter t (0..1) of closest point on segment AB to point P */
-    private static double projectParamOnSegment(Vec3d a, Vec3d b, Vec3d p) {
-        Vec3d ab = b.subtract(a);
-        double abLenSq = ab.lengthSquared();
-        if (abLenSq <= 1.0e-12) return 0.0;
-        double t = p.subtract(a).dotProduct(ab) / abLenSq;
-        return t;
-    }
-
-    /** Squared distance from point P to segment AB */
-    private static double distanceSqPointToSegment(Vec3d p, Vec3d a, Vec3d b) {
-        double t = clamp01(projectParamOnSegment(a, b, p));
-        Vec3d q = a.lerp(b, t);
-        return p.squaredDistanceTo(q);
-    }
-
-    private static class SunBall {
-        final UUID owner;
+    private static class SunBall extends SpellEffect {
+        final OwnerHandle owner;
         Vec3d pos;
         final Vec3d forward;
         double radius;
         final long spawnTick;
+        int emitterId;
 
-        SunBall(UUID owner, Vec3d pos, Vec3d forward, double radius, long spawnTick) {
+        SunBall(OwnerHandle owner, Vec3d pos, Vec3d forward, double radius, long spawnTick) {
             this.owner = owner;
             this.pos = pos;
             this.forward = forward;
             this.radius = radius;
             this.spawnTick = spawnTick;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickSunBall(world, this);
+        }
+
+        // evicted by a newer ball: the clients' animation has to go with it
+        @Override
+        protected void onTerminated(ServerWorld world) {
+            FxEmitters.stop(world, emitterId);
+        }
+
+        @Override
+        protected Vec3d position(ServerWorld world) {
+            return pos;
+        }
     }
 }
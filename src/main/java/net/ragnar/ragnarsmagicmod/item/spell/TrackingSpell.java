@@ -1,12 +1,10 @@
 package net.ragnar.ragnarsmagicmod.item.spell;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
@@ -16,6 +14,17 @@ import net.minecraft.util.math.*;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Cone;
+import net.ragnar.ragnarsmagicmod.geom.Steering;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
 import java.util.*;
 
@@ -37,19 +46,12 @@ public class TrackingSpell implements Spell {
     private static final int BURST_EVERY  = 6;         // small flare cadence
     private static final double ORB_RADIUS = 0.18;
 
-    private static final Map<RegistryKey<World>, List<Bolt>> ACTIVE = new HashMap<>();
-    private static boolean TICK_REGISTERED = false;
-
-    private static void ensureTickerRegistered() {
-        if (TICK_REGISTERED) return;
-        ServerTickEvents.END_WORLD_TICK.register(TrackingSpell::tickWorld);
-        TICK_REGISTERED = true;
-    }
+    private static final EffectType TYPE = SpellRuntime.registerType("tracking_bolt", LIFE_TICKS);
+    private static final double[] STEER = new double[3]; // scratch for steering, server thread only
 
     @Override
     public boolean cast(World world, PlayerEntity player, ItemStack staff) {
         if (world.isClient) return false;
-        ensureTickerRegistered();
 
         // launch SFX
         world.playSound(null, player.getBlockPos(),
@@ -65,116 +67,109 @@ public class TrackingSpell implements Spell {
         Vec3d start = eye.add(dir.multiply(START_AHEAD));
 
         ServerWorld sw = (ServerWorld) world;
-        ACTIVE.computeIfAbsent(sw.getRegistryKey(), k -> new ArrayList<>())
-                .add(new Bolt(player.getUuid(), target == null ? null : target.getUuid(),
-                        start, dir.multiply(SPEED), dir, sw.getTime()));
+        SpellRuntime.spawn(sw, TYPE, new Bolt(OwnerHandles.of(player), target == null ? null : target.getUuid(),
+                start, dir.multiply(SPEED), dir, sw.getTime()));
 
         return true;
     }
 
     // ---- main tick driver ----
-    private static void tickWorld(ServerWorld world) {
-        List<Bolt> bolts = ACTIVE.get(world.getRegistryKey());
-        if (bolts == null || bolts.isEmpty()) return;
-
+    private static boolean tickBolt(ServerWorld world, Bolt b) {
         long now = world.getTime();
         Random rand = world.getRandom();
 
-        Iterator<Bolt> it = bolts.iterator();
-        while (it.hasNext()) {
-            Bolt b = it.next();
-            PlayerEntity owner = world.getPlayerByUuid(b.owner);
-            if (owner == null) { it.remove(); continue; }
-            if (now - b.spawnTick > LIFE_TICKS) { it.remove(); continue; }
-
-            // resolve target (if we have a UUID, try to fetch; else try to acquire if player is looking)
-            LivingEntity target = null;
-            if (b.targetUuid != null) {
-                Entity e = world.getEntity(b.targetUuid);
-                if (e instanceof LivingEntity le && le.isAlive()) target = le;
-            } else {
-                // lazy acquire in early life to feel responsive
-                if (now - b.spawnTick < 10) {
-                    target = findLookTarget(world, owner);
-                    if (target != null) b.targetUuid = target.getUuid();
-                }
+        PlayerEntity owner = b.owner.get();
+        if (owner == null) return false;
+        if (now - b.spawnTick > LIFE_TICKS) return false;
+
+        // resolve target (if we have a UUID, try to fetch; else try to acquire if player is looking)
+        LivingEntity target = null;
+        if (b.targetUuid != null) {
+            Entity e = world.getEntity(b.targetUuid);
+            if (e instanceof LivingEntity le && le.isAlive()) target = le;
+        } else {
+            // lazy acquire in early life to feel responsive
+            if (now - b.spawnTick < 10) {
+                target = findLookTarget(world, owner);
+                if (target != null) b.targetUuid = target.getUuid();
             }
+        }
 
-            // steering: desire towards target (or keep current direction)
-            Vec3d desiredVel = (target != null)
-                    ? target.getPos().add(0, target.getHeight() * 0.4, 0).subtract(b.pos).normalize().multiply(SPEED)
-                    : b.vel.normalize().multiply(SPEED);
-
-            // blend toward desired, but enforce forward-only relative to initialForward
-            Vec3d newVel = b.vel.multiply(1.0 - TURN).add(desiredVel.multiply(TURN));
-            double comp = newVel.dotProduct(b.initialForward);
-            if (comp <= 0) {
-                Vec3d lateral = newVel.subtract(b.initialForward.multiply(comp));
-                newVel = lateral.add(b.initialForward.multiply(0.08)); // tiny nudge forward
-            }
-            b.vel = newVel;
-
-            // try block hit along path
-            Vec3d oldPos = b.pos;
-            Vec3d newPos = b.pos.add(b.vel);
-            HitResult blockHit = world.raycast(new RaycastContext(
-                    oldPos, newPos, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, owner));
-            if (blockHit.getType() == HitResult.Type.BLOCK) {
-                impact(world, ((BlockHitResult) blockHit).getPos(), owner);
-                it.remove();
-                continue;
-            }
+        // steering: desire towards target (or keep current direction)
+        double[] v = STEER;
+        if (target != null) {
+            Steering.seek(b.vel.x, b.vel.y, b.vel.z, target.getX() - b.pos.x,
+                    target.getY() + target.getHeight() * 0.4 - b.pos.y, target.getZ() - b.pos.z, SPEED, TURN, v);
+        } else {
+            Steering.seek(b.vel.x, b.vel.y, b.vel.z, b.vel.x, b.vel.y, b.vel.z, SPEED, TURN, v);
+        }
+        // forward-only relative to initialForward, with a tiny nudge forward
+        Vec3d f = b.initialForward;
+        Steering.keepForward(v, f.x, f.y, f.z, 0.08);
+        b.vel = new Vec3d(v[0], v[1], v[2]);
+
+        // try block hit along path
+        Vec3d oldPos = b.pos;
+        Vec3d newPos = b.pos.add(b.vel);
+        HitResult blockHit = world.raycast(new RaycastContext(
+                oldPos, newPos, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, owner));
+        if (blockHit.getType() == HitResult.Type.BLOCK) {
+            impact(world, ((BlockHitResult) blockHit).getPos(), owner);
+            return false;
+        }
 
-            // entity check along swept box
-            Box path = new Box(oldPos, newPos).expand(HIT_RADIUS);
-            List<Entity> hits = world.getOtherEntities(owner, path,
-                    e -> e instanceof LivingEntity && e.isAttackable() && !e.isTeammate(owner));
-            if (!hits.isEmpty()) {
-                Entity e = hits.get(0);
-                impact(world, e.getPos(), owner);
-                if (e instanceof LivingEntity le) {
-                    le.damage(world.getDamageSources().playerAttack(owner), DAMAGE);
-                    Vec3d push = e.getPos().subtract(b.pos).normalize().multiply(KNOCKBACK);
-                    le.addVelocity(push.x, 0.2, push.z);
-                    le.velocityDirty = true;
-                }
-                it.remove();
-                continue;
+        // entity check along swept box
+        Box path = new Box(oldPos, newPos).expand(HIT_RADIUS);
+        List<Entity> hits = world.getOtherEntities(owner, path,
+                e -> e instanceof LivingEntity && e.isAttackable() && !e.isTeammate(owner));
+        if (!hits.isEmpty()) {
+            Entity e = hits.get(0);
+            impact(world, e.getPos(), owner);
+            if (e instanceof LivingEntity le) {
+                le.damage(world.getDamageSources().playerAttack(owner), DAMAGE);
+                Vec3d push = e.getPos().subtract(b.pos).normalize().multiply(KNOCKBACK);
+                le.addVelocity(push.x, 0.2, push.z);
+                le.velocityDirty = true;
             }
+            return false;
+        }
 
-            // move
-            b.pos = newPos;
-
-            // visuals — purple orb with flare, not a plain trail
-            // tight shell
-            for (int i = 0; i < SHELL_POINTS; i++) {
-                double th = (Math.PI * 2 * i) / SHELL_POINTS;
-                double xOff = Math.cos(th) * ORB_RADIUS;
-                double zOff = Math.sin(th) * ORB_RADIUS;
-                double yOff = (rand.nextDouble() - 0.5) * 0.04;
-                world.spawnParticles(ParticleTypes.REVERSE_PORTAL, b.pos.x + xOff, b.pos.y + yOff, b.pos.z + zOff, 1, 0, 0, 0, 0);
-            }
-            // core sparks
-            for (int i = 0; i < CORE_POINTS; i++) {
-                double s = 0.03;
-                world.spawnParticles(ParticleTypes.DRAGON_BREATH,
-                        b.pos.x + (rand.nextDouble() - 0.5) * s,
-                        b.pos.y + (rand.nextDouble() - 0.5) * s,
-                        b.pos.z + (rand.nextDouble() - 0.5) * s,
-                        1, 0, 0, 0, 0);
-            }
-            // periodic flare ring (gives motion feel, still not a boring trail)
-            if (((now - b.spawnTick) % BURST_EVERY) == 0) {
-                int n = 10;
-                double r = ORB_RADIUS + 0.08;
-                for (int i = 0; i < n; i++) {
-                    double a = (Math.PI * 2 * i) / n;
-                    world.spawnParticles(ParticleTypes.ENCHANT, b.pos.x + Math.cos(a) * r, b.pos.y, b.pos.z + Math.sin(a) * r, 1, 0, 0, 0, 0);
-                }
-                world.playSound(null, BlockPos.ofFloored(b.pos),
-                        SoundEvents.BLOCK_AMETHYST_BLOCK_STEP, SoundCategory.PLAYERS, 0.4f, 1.8f);
+        // move
+        b.pos = newPos;
+
+        // visuals — purple orb with flare, not a plain trail
+        FxViewers viewers = FxViewers.near(world, b.pos, ORB_RADIUS + 0.1);
+        // tight shell
+        int shell = FxQuality.count(SHELL_POINTS);
+        for (int i = 0; i < shell; i++) {
+            double th = (Math.PI * 2 * i) / shell;
+            double xOff = Math.cos(th) * ORB_RADIUS;
+            double zOff = Math.sin(th) * ORB_RADIUS;
+            double yOff = (rand.nextDouble() - 0.5) * 0.04;
+            viewers.particles(ParticleTypes.REVERSE_PORTAL, b.pos.x + xOff, b.pos.y + yOff, b.pos.z + zOff, 1, 0, 0, 0, 0);
+        }
+        // core sparks
+        for (int i = 0, n = FxQuality.count(CORE_POINTS); i < n; i++) {
+            double s = 0.03;
+            viewers.particles(ParticleTypes.DRAGON_BREATH,
+                    b.pos.x + (rand.nextDouble() - 0.5) * s,
+                    b.pos.y + (rand.nextDouble() - 0.5) * s,
+                    b.pos.z + (rand.nextDouble() - 0.5) * s,
+                    1, 0, 0, 0, 0);
+        }
+        // periodic flare ring (gives motion feel, still not a boring trail)
+        if (((now - b.spawnTick) % FxQuality.every(BURST_EVERY)) == 0) {
+            int n = 10;
+            double r = ORB_RADIUS + 0.08;
+            for (int i = 0; i < n; i++) {
+                double a = (Math.PI * 2 * i) / n;
+                viewers.particles(ParticleTypes.ENCHANT, b.pos.x + Math.cos(a) * r, b.pos.y, b.pos.z + Math.sin(a) * r, 1, 0, 0, 0, 0);
             }
+            viewers.sound(BlockPos.ofFloored(b.pos),
+                    SoundEvents.BLOCK_AMETHYST_BLOCK_STEP, SoundCategory.PLAYERS, 0.4f, 1.8f);
         }
+        viewers.release();
+        return true;
     }
 
     // pick a target the player is looking at (front-cone)
@@ -190,17 +185,13 @@ public class TrackingSpell implements Spell {
 
         LivingEntity best = null;
         double bestDot = 0.75; // ~41° cone
-        double bestDist = Double.MAX_VALUE;
 
         for (Entity e : nearby) {
-            Vec3d to = e.getPos().add(0, e.getHeight() * 0.4, 0).subtract(eye);
-            double dist = to.length();
-            if (dist > maxDist || dist < 0.1) continue;
-            Vec3d dir = to.normalize();
-            double dot = dir.dotProduct(look);
+            double dot = Cone.cosTo(eye.x, eye.y, eye.z, look.x, look.y, look.z,
+                    e.getX(), e.getY() + e.getHeight() * 0.4, e.getZ(), 0.1, maxDist);
+            // NaN (out of range) never compares greater
             if (dot > bestDot) {
                 bestDot = dot;
-                bestDist = dist;
                 best = (LivingEntity) e;
             }
         }
@@ -210,25 +201,29 @@ public class TrackingSpell implements Spell {
 
     private static void impact(ServerWorld world, Vec3d where, PlayerEntity owner) {
         // purple puff + chime
+        FxViewers viewers = FxViewers.near(world, where, 0.0);
+        FxPriority outer = ParticleBudget.setPriority(FxPriority.IMPACT);
         for (int i = 0; i < 20; i++) {
             double vx = (world.getRandom().nextDouble() - 0.5) * 0.3;
             double vy = (world.getRandom().nextDouble() - 0.2) * 0.3;
             double vz = (world.getRandom().nextDouble() - 0.5) * 0.3;
-            world.spawnParticles(ParticleTypes.DRAGON_BREATH, where.x, where.y, where.z, 1, vx, vy, vz, 0.0);
+            viewers.particles(ParticleTypes.DRAGON_BREATH, where.x, where.y, where.z, 1, vx, vy, vz, 0.0);
         }
-        world.playSound(null, BlockPos.ofFloored(where),
+        ParticleBudget.setPriority(outer);
+        viewers.sound(BlockPos.ofFloored(where),
                 SoundEvents.BLOCK_AMETHYST_BLOCK_CHIME, SoundCategory.PLAYERS, 0.9f, 1.2f);
+        viewers.release();
     }
 
-    private static class Bolt {
-        final UUID owner;
+    private static class Bolt extends SpellEffect {
+        final OwnerHandle owner;
         UUID targetUuid;       // can be null
         Vec3d pos;
         Vec3d vel;
         final Vec3d initialForward;
         final long spawnTick;
 
-        Bolt(UUID owner, UUID targetUuid, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
+        Bolt(OwnerHandle owner, UUID targetUuid, Vec3d pos, Vec3d vel, Vec3d initialForward, long spawnTick) {
             this.owner = owner;
             this.targetUuid = targetUuid;
             this.pos = pos;
@@ -236,5 +231,15 @@ public class TrackingSpell implements Spell {
             this.initialForward = initialForward.normalize();
             this.spawnTick = spawnTick;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickBolt(world, this);
+        }
+
+        @Override
+        protected Vec3d position(ServerWorld world) {
+            return pos;
+        }
     }
 }
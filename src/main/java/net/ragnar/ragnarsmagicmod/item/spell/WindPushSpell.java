@@ -13,6 +13,7 @@ import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.geom.Cone;
 
 public final class WindPushSpell implements Spell {
 
@@ -53,13 +54,9 @@ public final class WindPushSpell implements Spell {
         // affect entities in front of the player
         Box box = player.getBoundingBox().expand(RANGE, 3.0, RANGE);
         for (Entity e : world.getOtherEntities(player, box, entity -> !entity.isSpectator() && entity.isAlive())) {
-            Vec3d to = e.getPos().add(0, e.getStandingEyeHeight() * 0.3, 0).subtract(origin);
-            double dist = to.length();
-            if (dist > RANGE || dist < 0.001) continue;
-
-            Vec3d ndir = to.normalize();
-            double dot = ndir.dotProduct(dir);
-            if (dot < cosLimit) continue; // outside cone
+            double dist = Cone.distanceInside(origin.x, origin.y, origin.z, dir.x, dir.y, dir.z,
+                    e.getX(), e.getY() + e.getStandingEyeHeight() * 0.3, e.getZ(), cosLimit, 0.001, RANGE);
+            if (dist < 0) continue; // outside cone
 
             double falloff = 1.0 - MathHelper.clamp(dist / RANGE, 0.0, 1.0); // 1 near, 0 far
             double push = BASE_PUSH + EXTRA_PUSH * falloff;                  // stronger up close
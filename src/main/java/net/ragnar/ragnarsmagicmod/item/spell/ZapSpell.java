@@ -15,6 +15,7 @@ import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.*;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
 
 import java.util.List;
 
@@ -55,25 +56,28 @@ public final class ZapSpell implements Spell {
         }
 
         if (world instanceof ServerWorld sw) {
-            spawnJaggedYellowBeam(sw, start, hitPos, SEGMENTS, JITTER, DENSITY_PER_EDGE);
+            // beam, impact and sounds all go to the players who can see the beam
+            FxViewers viewers = FxViewers.near(sw, start.lerp(hitPos, 0.5), start.distanceTo(hitPos) * 0.5 + JITTER * 1.15);
+            spawnJaggedYellowBeam(sw, viewers, start, hitPos, SEGMENTS, JITTER, DENSITY_PER_EDGE);
 
             DustParticleEffect yellowFlash = new DustParticleEffect(YELLOW, 1.4f);
             DustColorTransitionParticleEffect yellowBurst =
                     new DustColorTransitionParticleEffect(YELLOW, YELLOW_WHITE, 1.2f);
 
-            sw.spawnParticles(yellowFlash, hitPos.x, hitPos.y, hitPos.z,
+            viewers.particles(yellowFlash, hitPos.x, hitPos.y, hitPos.z,
                     30, 0.30, 0.30, 0.30, 0.05);
-            sw.spawnParticles(yellowBurst, hitPos.x, hitPos.y, hitPos.z,
+            viewers.particles(yellowBurst, hitPos.x, hitPos.y, hitPos.z,
                     24, 0.35, 0.35, 0.35, 0.04);
-            sw.spawnParticles(ParticleTypes.ELECTRIC_SPARK, hitPos.x, hitPos.y, hitPos.z,
+            viewers.particles(ParticleTypes.ELECTRIC_SPARK, hitPos.x, hitPos.y, hitPos.z,
                     10, 0.20, 0.20, 0.20, 0.1);
-        }
 
-        player.playSound(net.ragnar.ragnarsmagicmod.sound.ModSoundEvents.ZAP_CAST, 1.0f, 1.0f);
-        world.playSound(null, player.getBlockPos(), net.ragnar.ragnarsmagicmod.sound.ModSoundEvents.ZAP_CAST,
-                SoundCategory.PLAYERS, 1.0f, 1.0f);
-        world.playSound(null, BlockPos.ofFloored(hitPos),
-                SoundEvents.BLOCK_REDSTONE_TORCH_BURNOUT, SoundCategory.PLAYERS, 0.75f, 1.8f);
+            player.playSound(net.ragnar.ragnarsmagicmod.sound.ModSoundEvents.ZAP_CAST, 1.0f, 1.0f);
+            viewers.sound(player.getBlockPos(), net.ragnar.ragnarsmagicmod.sound.ModSoundEvents.ZAP_CAST,
+                    SoundCategory.PLAYERS, 1.0f, 1.0f);
+            viewers.sound(BlockPos.ofFloored(hitPos),
+                    SoundEvents.BLOCK_REDSTONE_TORCH_BURNOUT, SoundCategory.PLAYERS, 0.75f, 1.8f);
+            viewers.release();
+        }
 
         if (hitEntity instanceof LivingEntity le) {
             le.damage(world.getDamageSources().playerAttack(player), DAMAGE);
@@ -112,7 +116,7 @@ public final class ZapSpell implements Spell {
         return best;
     }
 
-    private void spawnJaggedYellowBeam(ServerWorld sw, Vec3d from, Vec3d to, int segments, double jitter, int densityPerEdge) {
+    private void spawnJaggedYellowBeam(ServerWorld sw, FxViewers viewers, Vec3d from, Vec3d to, int segments, double jitter, int densityPerEdge) {
         var rand = sw.random;
         Vec3d dir = to.subtract(from);
         double len = dir.length();
@@ -143,16 +147,16 @@ public final class ZapSpell implements Spell {
                 Vec3d p = prev.lerp(node, ts);
 
                 // shorter-lived beam: higher spread (0.8) = 60% faster fade
-                sw.spawnParticles(yellowCore, p.x, p.y, p.z,
+                viewers.particles(yellowCore, p.x, p.y, p.z,
                         densityPerEdge, 0.02, 0.02, 0.02, 0.8);
 
                 if ((s & 1) == 0) {
-                    sw.spawnParticles(yellowGlow, p.x, p.y, p.z,
+                    viewers.particles(yellowGlow, p.x, p.y, p.z,
                             Math.max(1, densityPerEdge / 2), 0.02, 0.02, 0.02, 0.8);
                 }
             }
 
-            sw.spawnParticles(ParticleTypes.ELECTRIC_SPARK, node.x, node.y, node.z,
+            viewers.particles(ParticleTypes.ELECTRIC_SPARK, node.x, node.y, node.z,
                     3, 0.02, 0.02, 0.02, 0.05);
 
             prev = node;
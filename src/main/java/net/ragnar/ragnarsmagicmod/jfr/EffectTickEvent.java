@@ -0,0 +1,34 @@
+package net.ragnar.ragnarsmagicmod.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** All live effects of one type ticking in one world, for one world tick. */
+@Name("ragnarsmagicmod.EffectTick")
+@Label("Spell Effect Tick")
+@Category({"Ragnars Magic Mod", "Spells"})
+@Description("Every live effect of one type ticked in one world")
+@Enabled(false)
+@StackTrace(false)
+public class EffectTickEvent extends Event {
+    @Label("Effect Type")
+    public String effectType;
+
+    @Label("World")
+    public String world;
+
+    @Label("Instances")
+    public int instances;
+
+    @Label("Entities Queried")
+    @Description("Entities returned by world entity lookups while ticking")
+    public int entitiesQueried;
+
+    @Label("Particles Emitted")
+    public int particlesEmitted;
+}
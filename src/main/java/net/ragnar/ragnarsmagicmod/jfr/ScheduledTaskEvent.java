@@ -0,0 +1,25 @@
+package net.ragnar.ragnarsmagicmod.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A {@code SpellScheduler} task firing. */
+@Name("ragnarsmagicmod.ScheduledTask")
+@Label("Spell Scheduled Task")
+@Category({"Ragnars Magic Mod", "Spells"})
+@Enabled(false)
+@StackTrace(false)
+public class ScheduledTaskEvent extends Event {
+    @Label("Task")
+    public Class<?> task;
+
+    @Label("World")
+    public String world;
+
+    @Label("Delay")
+    public int delayTicks;
+}
@@ -0,0 +1,34 @@
+package net.ragnar.ragnarsmagicmod.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One staff cast, from the XP check passing to {@code Spell.cast} returning. */
+@Name("ragnarsmagicmod.SpellCast")
+@Label("Spell Cast")
+@Category({"Ragnars Magic Mod", "Spells"})
+@Description("A spell cast from a staff")
+@Enabled(false)
+@StackTrace(false)
+public class SpellCastEvent extends Event {
+    @Label("Spell")
+    public String spell;
+
+    @Label("Tier")
+    public String tier;
+
+    @Label("Caster")
+    public String caster;
+
+    @Label("XP Cost")
+    public int xpCost;
+
+    @Label("Succeeded")
+    @Description("False if the spell refused to cast (no target, wrong place, ...)")
+    public boolean succeeded;
+}
@@ -0,0 +1,17 @@
+package net.ragnar.ragnarsmagicmod.jfr;
+
+/**
+ * Running totals of work spell code asks the world for, bumped by {@code WorldMixin} and
+ * {@code ServerWorldMixin} and by the fx senders. Read them before and after a piece of work and
+ * take the difference; they wrap around and are never reset. Server thread only.
+ */
+public final class SpellCounters {
+    private SpellCounters() {}
+
+    /** Entities returned by {@code getOtherEntities}/{@code getEntitiesByType}/{@code getEntitiesByClass}. */
+    public static int entitiesQueried;
+    /** Particle spawns (one per call, whatever its count) through {@code spawnParticles}, {@code FxBatch} or {@code FxViewers}. */
+    public static int particlesEmitted;
+    /** Sounds played through {@code ServerWorld.playSound} or {@code FxViewers}. */
+    public static int soundsPlayed;
+}
@@ -0,0 +1,89 @@
+package net.ragnar.ragnarsmagicmod.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link SpellMetrics} at {@code http://<metrics.http.bind>:<metrics.http.port>/metrics}
+ * and/or rewrites {@code metrics.file} every {@code metrics.file.intervalSeconds}. Both run on one
+ * daemon thread of their own, never on the server thread.
+ */
+final class MetricsExporter {
+    private MetricsExporter() {}
+
+    private static HttpServer http;
+    private static ScheduledExecutorService executor;
+
+    static void start(MinecraftServer server) {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, RagnarsMagicMod.MOD_ID + "-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (ModConfig.metricsHttpPort > 0) {
+            try {
+                http = HttpServer.create(new InetSocketAddress(ModConfig.metricsHttpBind, ModConfig.metricsHttpPort), 0);
+                http.createContext("/metrics", MetricsExporter::serve);
+                http.setExecutor(executor);
+                http.start();
+                RagnarsMagicMod.LOGGER.info("Serving metrics on {}:{}/metrics", ModConfig.metricsHttpBind, ModConfig.metricsHttpPort);
+            } catch (IOException e) {
+                RagnarsMagicMod.LOGGER.warn("Could not open metrics port {}", ModConfig.metricsHttpPort, e);
+                http = null;
+            }
+        }
+
+        if (!ModConfig.metricsFile.isBlank()) {
+            Path path = FabricLoader.getInstance().getGameDir().resolve(ModConfig.metricsFile);
+            long interval = Math.max(1, ModConfig.metricsFileIntervalSeconds);
+            executor.scheduleAtFixedRate(() -> write(path), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    static void stop() {
+        if (http != null) {
+            http.stop(0);
+            http = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException {
+        byte[] body = SpellMetrics.render().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // write next to the target and move over it, so a reader never sees half a file
+    private static void write(Path path) {
+        try {
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(tmp, SpellMetrics.render());
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            RagnarsMagicMod.LOGGER.warn("Could not write metrics to {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package net.ragnar.ragnarsmagicmod.metrics;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import net.ragnar.ragnarsmagicmod.runtime.CapPolicy;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.FxQuality;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters and gauges for spell activity, rendered in Prometheus text format by
+ * {@link MetricsExporter}. Counters are {@link LongAdder}s: striped cells, so the server thread never
+ * waits on a scrape. Gauges read runtime state that only the server thread may touch, so they are
+ * snapshotted there once a second and published as an immutable list.
+ * <p>
+ * Everything is a no-op unless {@code metrics.enabled} is set in the mod config.
+ */
+public final class SpellMetrics {
+    private SpellMetrics() {}
+
+    public enum CastFailure {
+        NOT_ENOUGH_XP("not_enough_xp"),
+        NO_TOME("no_tome"),
+        RATE_LIMITED("rate_limited"),
+        REFUSED("refused"); // the spell itself declined (no target, wrong place, ...)
+
+        final String label;
+
+        CastFailure(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Gauge(String world, String effect, int live) {}
+
+    private static final int SNAPSHOT_EVERY = 20;
+    private static final String PREFIX = RagnarsMagicMod.MOD_ID + "_";
+
+    private static final LongAdder[][] CASTS = new LongAdder[SpellId.values().length][TomeTier.values().length];
+    private static final LongAdder[] FAILURES = new LongAdder[CastFailure.values().length];
+    private static final LongAdder XP_SPENT = new LongAdder();
+    private static final LongAdder PARTICLES = new LongAdder();
+    private static final LongAdder SOUNDS = new LongAdder();
+    private static final LongAdder[] DROPPED = new LongAdder[FxPriority.values().length];
+    private static final LongAdder[] CAPPED = new LongAdder[CapPolicy.values().length];
+    private static volatile List<Gauge> gauges = List.of();
+    private static int ticksSinceSnapshot = 0;
+
+    static {
+        for (LongAdder[] row : CASTS) {
+            for (int i = 0; i < row.length; i++) row[i] = new LongAdder();
+        }
+        for (int i = 0; i < FAILURES.length; i++) FAILURES[i] = new LongAdder();
+        for (int i = 0; i < DROPPED.length; i++) DROPPED[i] = new LongAdder();
+        for (int i = 0; i < CAPPED.length; i++) CAPPED[i] = new LongAdder();
+    }
+
+    public static boolean isEnabled() {
+        return ModConfig.metricsEnabled;
+    }
+
+    /** Registers the gauge snapshot and the exporter's lifecycle, if metrics are enabled. */
+    public static void init() {
+        if (!isEnabled()) return;
+
+        ServerTickEvents.END_SERVER_TICK.register(SpellMetrics::tick);
+        ServerLifecycleEvents.SERVER_STARTED.register(MetricsExporter::start);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            MetricsExporter.stop();
+            gauges = List.of();
+        });
+    }
+
+    public static void cast(SpellId spell, TomeTier tier) {
+        if (!isEnabled() || tier == null) return;
+        CASTS[spell.ordinal()][tier.ordinal()].increment();
+    }
+
+    public static void failure(CastFailure reason) {
+        if (!isEnabled()) return;
+        FAILURES[reason.ordinal()].increment();
+    }
+
+    public static void xpSpent(int xp) {
+        if (!isEnabled()) return;
+        XP_SPENT.add(xp);
+    }
+
+    /** Particles and sounds spell code asked for, measured around runtime ticks and casts. */
+    public static void emitted(int particles, int sounds) {
+        if (!isEnabled()) return;
+        if (particles > 0) PARTICLES.add(particles);
+        if (sounds > 0) SOUNDS.add(sounds);
+    }
+
+    /** Particles {@link ParticleBudget} refused, by the priority they were emitted at. */
+    public static void particlesDropped(FxPriority priority, int particles) {
+        if (!isEnabled()) return;
+        DROPPED[priority.ordinal()].add(particles);
+    }
+
+    /** An effect spawn that hit its type's cap, by what was done about it. */
+    public static void capped(CapPolicy action) {
+        if (!isEnabled()) return;
+        CAPPED[action.ordinal()].increment();
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (++ticksSinceSnapshot < SNAPSHOT_EVERY) return;
+        ticksSinceSnapshot = 0;
+
+        List<Gauge> snapshot = new ArrayList<>();
+        for (ServerWorld world : server.getWorlds()) {
+            String worldName = world.getRegistryKey().getValue().toString();
+            for (EffectType type : SpellRuntime.getTypes()) {
+                int live = SpellRuntime.count(world, type);
+                if (live > 0) snapshot.add(new Gauge(worldName, type.getName(), live));
+            }
+        }
+        gauges = List.copyOf(snapshot);
+    }
+
+    /** Current values in Prometheus text exposition format. Safe from any thread. */
+    static String render() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        header(sb, "casts_total", "counter", "Spells cast from a staff.");
+        for (SpellId spell : SpellId.values()) {
+            for (TomeTier tier : TomeTier.values()) {
+                long n = CASTS[spell.ordinal()][tier.ordinal()].sum();
+                if (n == 0) continue;
+                sb.append(PREFIX).append("casts_total{spell=\"").append(spell.name().toLowerCase())
+                        .append("\",tier=\"").append(tier.name().toLowerCase()).append("\"} ").append(n).append('\n');
+            }
+        }
+
+        header(sb, "cast_failures_total", "counter", "Staff uses that did not cast a spell.");
+        for (CastFailure reason : CastFailure.values()) {
+            sb.append(PREFIX).append("cast_failures_total{reason=\"").append(reason.label).append("\"} ")
+                    .append(FAILURES[reason.ordinal()].sum()).append('\n');
+        }
+
+        header(sb, "xp_spent_total", "counter", "Experience points spent on casts.");
+        sb.append(PREFIX).append("xp_spent_total ").append(XP_SPENT.sum()).append('\n');
+
+        header(sb, "particles_emitted_total", "counter", "Particle spawns requested by spell code.");
+        sb.append(PREFIX).append("particles_emitted_total ").append(PARTICLES.sum()).append('\n');
+
+        header(sb, "particles_dropped_total", "counter", "Particles dropped by the per-tick particle budget.");
+        for (FxPriority priority : FxPriority.values()) {
+            sb.append(PREFIX).append("particles_dropped_total{priority=\"").append(priority.name().toLowerCase())
+                    .append("\"} ").append(DROPPED[priority.ordinal()].sum()).append('\n');
+        }
+
+        header(sb, "effects_capped_total", "counter", "Effect spawns over their type's cap, by action taken.");
+        for (CapPolicy action : CapPolicy.values()) {
+            sb.append(PREFIX).append("effects_capped_total{action=\"").append(action.name().toLowerCase())
+                    .append("\"} ").append(CAPPED[action.ordinal()].sum()).append('\n');
+        }
+
+        header(sb, "sounds_emitted_total", "counter", "Sounds played by spell code.");
+        sb.append(PREFIX).append("sounds_emitted_total ").append(SOUNDS.sum()).append('\n');
+
+        header(sb, "fx_quality", "gauge", "Current effect particle density scale, 0 to 1.");
+        sb.append(PREFIX).append("fx_quality ").append(FxQuality.scale()).append('\n');
+
+        header(sb, "active_effects", "gauge", "Live spell effects by effect type and world.");
+        for (Gauge g : gauges) {
+            sb.append(PREFIX).append("active_effects{world=\"").append(g.world())
+                    .append("\",effect=\"").append(g.effect()).append("\"} ").append(g.live()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+}
@@ -0,0 +1,22 @@
+package net.ragnar.ragnarsmagicmod.mixin;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import net.minecraft.network.handler.EncoderHandler;
+import net.minecraft.network.packet.Packet;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(EncoderHandler.class)
+public abstract class EncoderHandlerMixin {
+	// netty thread; out holds exactly this packet's id and body, before framing and compression
+	@Inject(at = @At("RETURN"), method = "encode(Lio/netty/channel/ChannelHandlerContext;Lnet/minecraft/network/packet/Packet;Lio/netty/buffer/ByteBuf;)V")
+	private void ragnarsmagicmod$measure(ChannelHandlerContext ctx, Packet<?> packet, ByteBuf out, CallbackInfo ci) {
+		if (NetAccounting.isRunning()) {
+			NetAccounting.encoded(packet, out.readableBytes());
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package net.ragnar.ragnarsmagicmod.mixin;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.ragnar.ragnarsmagicmod.item.spell.AegisSpell;
+import net.ragnar.ragnarsmagicmod.runtime.BuffKind;
+import net.ragnar.ragnarsmagicmod.runtime.PlayerBuffs;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityMixin {
+	// Only server players can carry buffs, which also keeps the client thread away from PlayerBuffs in singleplayer.
+
+	@Inject(at = @At("HEAD"), method = "damage", cancellable = true)
+	private void ragnarsmagicmod$aegis(DamageSource source, float amount, CallbackInfoReturnable<Boolean> cir) {
+		if ((Object) this instanceof ServerPlayerEntity player && AegisSpell.cancelDamage(player, source)) {
+			cir.setReturnValue(false);
+		}
+	}
+
+	@Inject(at = @At("HEAD"), method = "handleFallDamage", cancellable = true)
+	private void ragnarsmagicmod$fallImmune(float fallDistance, float damageMultiplier, DamageSource damageSource,
+											CallbackInfoReturnable<Boolean> cir) {
+		if ((Object) this instanceof ServerPlayerEntity player && PlayerBuffs.has(player, BuffKind.FALL_IMMUNE)) {
+			cir.setReturnValue(false);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package net.ragnar.ragnarsmagicmod.mixin;
+
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.network.ServerCommonNetworkHandler;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import net.ragnar.ragnarsmagicmod.network.PacketBundler;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerCommonNetworkHandler.class)
+public abstract class ServerCommonNetworkHandlerMixin {
+	// spawnParticles, playSound and ServerPlayNetworking.send all end up here, so spell code needs no changes.
+
+	@Inject(at = @At("HEAD"), method = "sendPacket", cancellable = true)
+	private void ragnarsmagicmod$bundle(Packet<?> packet, CallbackInfo ci) {
+		if (NetAccounting.isRunning()) {
+			NetAccounting.tag((ServerCommonNetworkHandler) (Object) this, packet);
+		}
+		if (PacketBundler.capture((ServerCommonNetworkHandler) (Object) this, packet)) {
+			ci.cancel();
+		}
+	}
+}
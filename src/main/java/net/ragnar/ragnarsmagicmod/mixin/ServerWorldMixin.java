@@ -0,0 +1,41 @@
+package net.ragnar.ragnarsmagicmod.mixin;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(ServerWorld.class)
+public abstract class ServerWorldMixin {
+	// spell work over its particle budget sends nothing
+	@Inject(at = @At("HEAD"), method = "spawnParticles(Lnet/minecraft/particle/ParticleEffect;DDDIDDDD)I", cancellable = true)
+	private void ragnarsmagicmod$countParticles(ParticleEffect particle, double x, double y, double z, int count,
+			double deltaX, double deltaY, double deltaZ, double speed, CallbackInfoReturnable<Integer> cir) {
+		if (!ParticleBudget.tryEmit((ServerWorld) (Object) this, count)) {
+			cir.setReturnValue(0);
+			return;
+		}
+		SpellCounters.particlesEmitted++;
+	}
+
+	// every World.playSound overload without an entity ends up here
+	@Inject(at = @At("HEAD"), method = "playSound(Lnet/minecraft/entity/player/PlayerEntity;DDDLnet/minecraft/registry/entry/RegistryEntry;Lnet/minecraft/sound/SoundCategory;FFJ)V")
+	private void ragnarsmagicmod$countSounds(CallbackInfo ci) {
+		SpellCounters.soundsPlayed++;
+	}
+
+	// remembers which spell an entity was spawned for, so the tracker's packets about it can be attributed later
+	@Inject(at = @At("HEAD"), method = "spawnEntity(Lnet/minecraft/entity/Entity;)Z")
+	private void ragnarsmagicmod$tagEntity(Entity entity, CallbackInfoReturnable<Boolean> cir) {
+		if (NetAccounting.isRunning()) {
+			NetAccounting.entitySpawned(entity);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package net.ragnar.ragnarsmagicmod.mixin;
+
+import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(World.class)
+public abstract class WorldMixin {
+	// getEntitiesByClass goes through getEntitiesByType, and the two-argument getOtherEntities through the three-argument one.
+	// ServerWorld doesn't override either, so this targets World and leaves out the client world: in singleplayer it
+	// queries from the render thread and would skew the server's per-spell counts.
+
+	@Inject(at = @At("RETURN"), method = "getOtherEntities(Lnet/minecraft/entity/Entity;Lnet/minecraft/util/math/Box;Ljava/util/function/Predicate;)Ljava/util/List;")
+	private void ragnarsmagicmod$countOther(CallbackInfoReturnable<List<?>> cir) {
+		if (((World) (Object) this).isClient()) return;
+		SpellCounters.entitiesQueried += cir.getReturnValue().size();
+	}
+
+	@Inject(at = @At("RETURN"), method = "getEntitiesByType(Lnet/minecraft/util/TypeFilter;Lnet/minecraft/util/math/Box;Ljava/util/function/Predicate;)Ljava/util/List;")
+	private void ragnarsmagicmod$countByType(CallbackInfoReturnable<List<?>> cir) {
+		if (((World) (Object) this).isClient()) return;
+		SpellCounters.entitiesQueried += cir.getReturnValue().size();
+	}
+}
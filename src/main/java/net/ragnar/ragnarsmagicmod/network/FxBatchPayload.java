@@ -0,0 +1,118 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.util.Identifier;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every particle one effect emitted in one tick, as a single S2C message.
+ * <p>
+ * Particles sharing the same effect and spread/speed/count are grouped, so the particle type and its
+ * parameters go over the wire once per group. Positions are stored relative to the batch origin as
+ * three shorts in {@code 1/QUANT} block steps (6 bytes per particle, against ~48 for a vanilla
+ * particle packet). Counts are varints. Count-0 particles, where vanilla reads the spread as a
+ * direction, carry their own velocity per point as three more shorts in {@code 1/VEL_QUANT} steps.
+ */
+public record FxBatchPayload(double x, double y, double z, List<Group> groups) implements CustomPayload {
+    public static final Id<FxBatchPayload> ID = new Id<>(Identifier.of(RagnarsMagicMod.MOD_ID, "fx_batch"));
+    public static final PacketCodec<RegistryByteBuf, FxBatchPayload> CODEC = CustomPayload.codecOf(FxBatchPayload::write, FxBatchPayload::read);
+
+    /** Position steps per block. A short then reaches +-256 blocks from the origin at ~8mm resolution. */
+    public static final double QUANT = 128.0;
+
+    /** Velocity steps per block/tick, up to +-16 blocks/tick. */
+    public static final double VEL_QUANT = 2048.0;
+
+    private static final int HAS_SPREAD = 1;
+    private static final int HAS_SPEED = 2;
+    private static final int HAS_VELOCITIES = 4;
+
+    /**
+     * Same meaning as the arguments of {@code ServerWorld.spawnParticles}; positions are x,y,z triples.
+     * {@code velocities} is null, or parallel to positions for count-0 groups (spread and speed unused).
+     */
+    public record Group(ParticleEffect effect, int count, float dx, float dy, float dz, float speed,
+                        short[] positions, short[] velocities) {
+        public int size() {
+            return positions.length / 3;
+        }
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+
+    private void write(RegistryByteBuf buf) {
+        buf.writeDouble(x);
+        buf.writeDouble(y);
+        buf.writeDouble(z);
+        buf.writeVarInt(groups.size());
+        for (Group g : groups) {
+            ParticleTypes.PACKET_CODEC.encode(buf, g.effect);
+            buf.writeVarInt(g.count);
+
+            boolean spread = g.dx != 0 || g.dy != 0 || g.dz != 0;
+            boolean speed = g.speed != 0;
+            boolean velocities = g.velocities != null;
+            buf.writeByte((spread ? HAS_SPREAD : 0) | (speed ? HAS_SPEED : 0) | (velocities ? HAS_VELOCITIES : 0));
+            if (spread) {
+                buf.writeFloat(g.dx);
+                buf.writeFloat(g.dy);
+                buf.writeFloat(g.dz);
+            }
+            if (speed) buf.writeFloat(g.speed);
+
+            buf.writeVarInt(g.size());
+            for (short s : g.positions) buf.writeShort(s);
+            if (velocities) {
+                for (short s : g.velocities) buf.writeShort(s);
+            }
+        }
+    }
+
+    private static FxBatchPayload read(RegistryByteBuf buf) {
+        double x = buf.readDouble();
+        double y = buf.readDouble();
+        double z = buf.readDouble();
+        int groupCount = buf.readVarInt();
+        if (groupCount < 0 || groupCount > buf.readableBytes()) throw new DecoderException("Bad fx group count " + groupCount);
+
+        List<Group> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            ParticleEffect effect = ParticleTypes.PACKET_CODEC.decode(buf);
+            int count = buf.readVarInt();
+
+            int flags = buf.readByte();
+            float dx = 0, dy = 0, dz = 0, speed = 0;
+            if ((flags & HAS_SPREAD) != 0) {
+                dx = buf.readFloat();
+                dy = buf.readFloat();
+                dz = buf.readFloat();
+            }
+            if ((flags & HAS_SPEED) != 0) speed = buf.readFloat();
+
+            boolean hasVelocities = (flags & HAS_VELOCITIES) != 0;
+            int size = buf.readVarInt();
+            if (size < 0 || size > buf.readableBytes() / (hasVelocities ? 12 : 6)) throw new DecoderException("Bad fx group size " + size);
+            short[] positions = new short[size * 3];
+            for (int j = 0; j < positions.length; j++) positions[j] = buf.readShort();
+            short[] velocities = null;
+            if (hasVelocities) {
+                velocities = new short[size * 3];
+                for (int j = 0; j < velocities.length; j++) velocities[j] = buf.readShort();
+            }
+
+            groups.add(new Group(effect, count, dx, dy, dz, speed, positions, velocities));
+        }
+        return new FxBatchPayload(x, y, z, groups);
+    }
+}
@@ -0,0 +1,24 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+
+/** Position correction for a running emitter. */
+public record FxMovePayload(int id, double x, double y, double z) implements CustomPayload {
+    public static final Id<FxMovePayload> ID = new Id<>(Identifier.of(RagnarsMagicMod.MOD_ID, "fx_move"));
+    public static final PacketCodec<RegistryByteBuf, FxMovePayload> CODEC = PacketCodec.tuple(
+            PacketCodecs.VAR_INT, FxMovePayload::id,
+            PacketCodecs.DOUBLE, FxMovePayload::x,
+            PacketCodecs.DOUBLE, FxMovePayload::y,
+            PacketCodecs.DOUBLE, FxMovePayload::z,
+            FxMovePayload::new);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
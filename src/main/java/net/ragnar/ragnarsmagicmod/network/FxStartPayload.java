@@ -0,0 +1,27 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitter;
+
+/**
+ * Starts a client-animated emitter, {@code age} ticks into its run (0 unless the player came into
+ * range late). The client runs it until its duration ends or it gets a stop.
+ */
+public record FxStartPayload(int id, int age, FxEmitter emitter) implements CustomPayload {
+    public static final Id<FxStartPayload> ID = new Id<>(Identifier.of(RagnarsMagicMod.MOD_ID, "fx_start"));
+    public static final PacketCodec<RegistryByteBuf, FxStartPayload> CODEC = PacketCodec.tuple(
+            PacketCodecs.VAR_INT, FxStartPayload::id,
+            PacketCodecs.VAR_INT, FxStartPayload::age,
+            FxEmitter.PACKET_CODEC, FxStartPayload::emitter,
+            FxStartPayload::new);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
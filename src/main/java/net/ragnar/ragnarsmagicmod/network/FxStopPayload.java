@@ -0,0 +1,21 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+
+/** Ends a running emitter before its duration is up. */
+public record FxStopPayload(int id) implements CustomPayload {
+    public static final Id<FxStopPayload> ID = new Id<>(Identifier.of(RagnarsMagicMod.MOD_ID, "fx_stop"));
+    public static final PacketCodec<RegistryByteBuf, FxStopPayload> CODEC = PacketCodec.tuple(
+            PacketCodecs.VAR_INT, FxStopPayload::id,
+            FxStopPayload::new);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
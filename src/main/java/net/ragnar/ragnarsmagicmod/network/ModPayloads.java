@@ -0,0 +1,12 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+
+public class ModPayloads {
+    public static void registerModPayloads() {
+        PayloadTypeRegistry.playS2C().register(FxBatchPayload.ID, FxBatchPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(FxStartPayload.ID, FxStartPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(FxMovePayload.ID, FxMovePayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(FxStopPayload.ID, FxStopPayload.CODEC);
+    }
+}
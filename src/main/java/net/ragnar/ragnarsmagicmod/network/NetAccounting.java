@@ -0,0 +1,129 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.EntityAttributesS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntityS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntitySpawnS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntityTrackerUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntityVelocityUpdateS2CPacket;
+import net.minecraft.server.network.ServerCommonNetworkHandler;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.ragnar.ragnarsmagicmod.runtime.SpellContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbound bytes per spell, driven by {@code /rmm net}. While a window is open:
+ * <ul>
+ *     <li>every packet sent while {@link SpellContext} names a spell is tagged with it, which covers
+ *     particles, sounds, our fx payloads and status-effect or velocity updates sent on the spot;</li>
+ *     <li>entities spawned under a spell remember it, so their spawn, tracker and movement packets
+ *     (sent later by the entity tracker) are tagged too;</li>
+ *     <li>the encoder reports each tagged packet's size as it is written, once per recipient.</li>
+ * </ul>
+ * Sizes are before compression and framing. Tags sit in a weak identity map, so packets nobody
+ * encodes are simply collected. Closed windows cost one volatile read per packet.
+ */
+public final class NetAccounting {
+    private NetAccounting() {}
+
+    public record Row(String spell, long bytes, long packets, int casts) {}
+
+    private static volatile boolean running = false;
+    private static long startNanos, stopNanos;
+
+    // written on the server thread, read on netty threads
+    private static final Map<Packet<?>, String> TAGS = new MapMaker().weakKeys().makeMap();
+    private static final Map<String, LongAdder> BYTES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> PACKETS = new ConcurrentHashMap<>();
+    // server thread only
+    private static final Int2ObjectOpenHashMap<String> ENTITY_ORIGIN = new Int2ObjectOpenHashMap<>();
+    private static final Map<String, Integer> CASTS = new HashMap<>();
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    public static void start() {
+        TAGS.clear();
+        BYTES.clear();
+        PACKETS.clear();
+        ENTITY_ORIGIN.clear();
+        CASTS.clear();
+        startNanos = System.nanoTime();
+        running = true;
+    }
+
+    public static void stop() {
+        if (!running) return;
+        running = false;
+        stopNanos = System.nanoTime();
+        TAGS.clear();
+        ENTITY_ORIGIN.clear();
+    }
+
+    public static long windowNanos() {
+        if (startNanos == 0) return 0;
+        return (running ? System.nanoTime() : stopNanos) - startNanos;
+    }
+
+    public static void cast(String spell) {
+        CASTS.merge(spell, 1, Integer::sum);
+    }
+
+    public static void entitySpawned(Entity entity) {
+        String spell = SpellContext.current();
+        if (spell != null) ENTITY_ORIGIN.put(entity.getId(), spell);
+    }
+
+    /** Called for every packet handed to a player's connection while the window is open. */
+    public static void tag(ServerCommonNetworkHandler handler, Packet<?> packet) {
+        String spell = SpellContext.current();
+        if (spell == null) {
+            int id = entityId(handler, packet);
+            if (id < 0 || (spell = ENTITY_ORIGIN.get(id)) == null) return;
+        }
+        TAGS.put(packet, spell);
+    }
+
+    /** Called from the encoder, on a netty thread, with the packet's encoded size. */
+    public static void encoded(Packet<?> packet, int bytes) {
+        String spell = TAGS.get(packet);
+        if (spell == null) return;
+        BYTES.computeIfAbsent(spell, k -> new LongAdder()).add(bytes);
+        PACKETS.computeIfAbsent(spell, k -> new LongAdder()).increment();
+    }
+
+    /** Most bytes first. */
+    public static List<Row> report() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> e : BYTES.entrySet()) {
+            String spell = e.getKey();
+            LongAdder packets = PACKETS.get(spell);
+            rows.add(new Row(spell, e.getValue().sum(), packets == null ? 0 : packets.sum(), CASTS.getOrDefault(spell, 0)));
+        }
+        rows.sort(Comparator.comparingLong(Row::bytes).reversed());
+        return rows;
+    }
+
+    private static int entityId(ServerCommonNetworkHandler handler, Packet<?> packet) {
+        if (packet instanceof EntitySpawnS2CPacket p) return p.getEntityId();
+        if (packet instanceof EntityTrackerUpdateS2CPacket p) return p.id();
+        if (packet instanceof EntityVelocityUpdateS2CPacket p) return p.getEntityId();
+        if (packet instanceof EntityAttributesS2CPacket p) return p.getEntityId();
+        if (packet instanceof EntityS2CPacket p && handler instanceof ServerPlayNetworkHandler play) {
+            Entity entity = p.getEntity(play.player.getWorld());
+            return entity == null ? -1 : entity.getId();
+        }
+        return -1;
+    }
+}
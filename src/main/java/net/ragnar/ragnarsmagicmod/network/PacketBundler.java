@@ -0,0 +1,110 @@
+package net.ragnar.ragnarsmagicmod.network;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.common.CustomPayloadS2CPacket;
+import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
+import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundFromEntityS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerCommonNetworkHandler;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.runtime.SpellMemory;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-player outbound queue for effect packets. Between {@link #begin()} and {@link #end()}, particle
+ * and sound packets (vanilla ones and our own fx payloads) are held back instead of being written to
+ * the connection one at a time; at the end of the server tick each player gets everything queued for
+ * them as one {@link BundleS2CPacket}, which the client applies in a single frame and the connection
+ * writes with a single flush.
+ * <p>
+ * Packets are caught in {@code ServerCommonNetworkHandlerMixin}, so spell code keeps calling
+ * {@code spawnParticles}/{@code playSound} as usual. Server thread only.
+ */
+public final class PacketBundler {
+    private PacketBundler() {}
+
+    private static final int MAX_BUNDLE = 4096; // the client rejects bundles with more packets than this
+
+    private static final Map<ServerCommonNetworkHandler, List<Packet<? super ClientPlayPacketListener>>> QUEUED = new HashMap<>();
+    private static int depth = 0;
+    private static boolean initialized = false;
+
+    /** Registers the end-of-tick flush once. Called from {@code SpellRuntime.init()}. */
+    public static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerTickEvents.END_SERVER_TICK.register(PacketBundler::flush);
+        // map node + queue list; the queued packets themselves are gone by the end of the tick
+        SpellMemory.register("bundle queues", QUEUED::size, 80);
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> QUEUED.remove(handler));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            QUEUED.clear();
+            depth = 0;
+        });
+    }
+
+    /** Start holding back effect packets. Calls nest; always pair with {@link #end()} in a finally. */
+    public static void begin() {
+        depth++;
+    }
+
+    public static void end() {
+        if (depth > 0) depth--;
+    }
+
+    /** Queue the packet if a capture is open and it is an effect packet. Returns true if it was queued. */
+    @SuppressWarnings("unchecked")
+    public static boolean capture(ServerCommonNetworkHandler handler, Packet<?> packet) {
+        if (depth == 0 || !ModConfig.netBundleEnabled) return false;
+        if (!(handler instanceof ServerPlayNetworkHandler) || !isEffectPacket(packet)) return false;
+
+        QUEUED.computeIfAbsent(handler, h -> new ArrayList<>()).add((Packet<? super ClientPlayPacketListener>) packet);
+        return true;
+    }
+
+    private static boolean isEffectPacket(Packet<?> packet) {
+        if (packet instanceof ParticleS2CPacket || packet instanceof PlaySoundS2CPacket
+                || packet instanceof PlaySoundFromEntityS2CPacket) {
+            return true;
+        }
+        return packet instanceof CustomPayloadS2CPacket custom
+                && custom.payload().getId().id().getNamespace().equals(RagnarsMagicMod.MOD_ID);
+    }
+
+    private static void flush(MinecraftServer server) {
+        if (QUEUED.isEmpty()) return;
+        // depth is 0 here, so the packets below go straight out instead of being caught again
+        for (Map.Entry<ServerCommonNetworkHandler, List<Packet<? super ClientPlayPacketListener>>> e : QUEUED.entrySet()) {
+            ServerCommonNetworkHandler handler = e.getKey();
+            List<Packet<? super ClientPlayPacketListener>> packets = e.getValue();
+
+            if (packets.size() == 1) {
+                handler.sendPacket(packets.get(0));
+                continue;
+            }
+            if (packets.size() <= MAX_BUNDLE) {
+                // the list is dropped below, so the bundle can keep it until the netty thread encodes it
+                handler.sendPacket(new BundleS2CPacket(packets));
+                continue;
+            }
+            for (int from = 0; from < packets.size(); from += MAX_BUNDLE) {
+                int to = Math.min(packets.size(), from + MAX_BUNDLE);
+                handler.sendPacket(new BundleS2CPacket(new ArrayList<>(packets.subList(from, to))));
+            }
+        }
+        QUEUED.clear();
+    }
+}
@@ -0,0 +1,196 @@
+package net.ragnar.ragnarsmagicmod.replay;
+
+import com.mojang.authlib.GameProfile;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Hand;
+import net.minecraft.util.math.BlockPos;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.item.ModItems;
+import net.ragnar.ragnarsmagicmod.item.custom.StaffItem;
+import net.ragnar.ragnarsmagicmod.item.custom.TomeItem;
+import net.ragnar.ragnarsmagicmod.item.spell.SpellId;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+import net.ragnar.ragnarsmagicmod.network.NetAccounting;
+import net.ragnar.ragnarsmagicmod.runtime.SpellProfiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plays a {@link CastRecorder} file back on this server, driven by {@code /rmm replay play}. Each
+ * recorded caster becomes a fake player holding a netherite staff; at the recorded tick it is moved
+ * to the recorded spot (relative to the block the replay was started from), turned to the recorded
+ * look and made to use the staff, so casts go through exactly the code real players hit.
+ * <p>
+ * While it runs, the spell profiler and network accounting are open and every server tick is timed.
+ * At the end both windows are closed (dump them with {@code /rmm profile dump} and {@code /rmm net dump})
+ * and a {@link Summary} of tick times is reported, ready to compare against another mod version
+ * playing the same file. Fake players receive no packets, so bandwidth counts only real clients
+ * watching the arena. Server thread only.
+ */
+public final class CastReplay {
+    public record Summary(String name, int ticks, int casts, int skipped,
+                          double msptMean, double msptP50, double msptP99, double msptMax) {}
+
+    private static CastReplay active;
+
+    private final String name;
+    private final ServerWorld world;
+    private final BlockPos origin;
+    private final List<ReplayFormat.Cast> casts;
+    private final Consumer<Summary> onFinish;
+    private final List<FakePlayer> players = new ArrayList<>();
+    private final LongArrayList tickNanos = new LongArrayList();
+    private final int lastTick;
+    private int tick = 0;
+    private int next = 0;
+    private int skipped = 0;
+    private long tickStart;
+
+    private CastReplay(String name, ServerWorld world, BlockPos origin, ReplayFormat.Recording recording,
+                       Consumer<Summary> onFinish) {
+        this.name = name;
+        this.world = world;
+        this.origin = origin;
+        this.casts = recording.casts();
+        this.onFinish = onFinish;
+        this.lastTick = casts.isEmpty() ? 0 : casts.get(casts.size() - 1).tick();
+    }
+
+    public static void init() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if (active != null) active.startTick();
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (active != null) active.endTick();
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> active = null);
+    }
+
+    public static boolean isRunning() {
+        return active != null;
+    }
+
+    /**
+     * Load {@code replays/<name>.rmmr} and start playing it around {@code origin}. Returns the
+     * recording's header so the caller can warn about a different world seed.
+     */
+    public static ReplayFormat.Header start(ServerWorld world, BlockPos origin, String name,
+                                            Consumer<Summary> onFinish) throws IOException {
+        Path file = CastRecorder.directory().resolve(name + ReplayFormat.EXTENSION);
+        ReplayFormat.Recording recording;
+        try (InputStream in = Files.newInputStream(file)) {
+            recording = ReplayFormat.read(in);
+        }
+        stop();
+        active = new CastReplay(name, world, origin, recording, onFinish);
+        SpellProfiler.start();
+        NetAccounting.start();
+        return recording.header();
+    }
+
+    /** Stop early; the summary still covers the ticks played so far. */
+    public static void stop() {
+        if (active != null) active.finish();
+    }
+
+    private void startTick() {
+        tickStart = System.nanoTime();
+        while (next < casts.size() && casts.get(next).tick() <= tick) {
+            cast(casts.get(next++));
+        }
+    }
+
+    private void endTick() {
+        tickNanos.add(System.nanoTime() - tickStart);
+        // a few drain ticks after the last cast so its effects are measured too
+        if (++tick > lastTick + 100) finish();
+    }
+
+    private void cast(ReplayFormat.Cast c) {
+        SpellId spell;
+        try {
+            spell = SpellId.valueOf(c.spell());
+        } catch (IllegalArgumentException e) {
+            skipped++; // spell doesn't exist in this version
+            return;
+        }
+        TomeItem tome = findTome(spell, c.tier());
+        if (tome == null) {
+            skipped++;
+            return;
+        }
+
+        FakePlayer player = caster(c.caster());
+        ItemStack staff = player.getStackInHand(Hand.MAIN_HAND);
+        if (!staff.isOf(ModItems.NETHERITE_STAFF)) {
+            staff = new ItemStack(ModItems.NETHERITE_STAFF);
+            player.setStackInHand(Hand.MAIN_HAND, staff);
+        }
+        ((StaffItem) ModItems.NETHERITE_STAFF).socket(staff, tome);
+
+        player.refreshPositionAndAngles(origin.getX() + c.x(), origin.getY() + c.y(), origin.getZ() + c.z(),
+                c.yaw(), c.pitch());
+        player.setHeadYaw(c.yaw());
+        // fake players don't tick: keep them topped up and off cooldown, the recording already paced them
+        if (player.experienceLevel < 100) player.addExperienceLevels(1000);
+        player.getItemCooldownManager().remove(ModItems.NETHERITE_STAFF);
+        ModItems.NETHERITE_STAFF.use(world, player, Hand.MAIN_HAND);
+    }
+
+    private FakePlayer caster(int index) {
+        while (players.size() <= index) {
+            String name = "rmm-replay-" + players.size();
+            players.add(FakePlayer.get(world, new GameProfile(UUID.nameUUIDFromBytes(name.getBytes()), name)));
+        }
+        return players.get(index);
+    }
+
+    // the recorded tier if this version has it, else the nearest one that exists
+    private static TomeItem findTome(SpellId spell, int tier) {
+        TomeTier[] tiers = TomeTier.values();
+        if (tier >= 0 && tier < tiers.length) {
+            TomeItem tome = ModItems.getTomeFor(spell, tiers[tier]);
+            if (tome != null) return tome;
+        }
+        for (int i = tiers.length - 1; i >= 0; i--) {
+            TomeItem tome = ModItems.getTomeFor(spell, tiers[i]);
+            if (tome != null) return tome;
+        }
+        return null;
+    }
+
+    private void finish() {
+        active = null;
+        SpellProfiler.stop();
+        NetAccounting.stop();
+
+        long[] sorted = tickNanos.toLongArray();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : sorted) total += n;
+        int n = sorted.length;
+        Summary summary = new Summary(name, n, next - skipped, skipped,
+                n == 0 ? 0 : total / 1.0e6 / n,
+                n == 0 ? 0 : sorted[(int) Math.min(n - 1, Math.ceil(0.50 * n) - 1)] / 1.0e6,
+                n == 0 ? 0 : sorted[(int) Math.min(n - 1, Math.ceil(0.99 * n) - 1)] / 1.0e6,
+                n == 0 ? 0 : sorted[n - 1] / 1.0e6);
+        RagnarsMagicMod.LOGGER.info("[replay] {}: {} ticks, {} casts ({} skipped), MSPT mean {} / p50 {} / p99 {} / max {}",
+                summary.name(), summary.ticks(), summary.casts(), summary.skipped(),
+                String.format("%.2f", summary.msptMean()), String.format("%.2f", summary.msptP50()),
+                String.format("%.2f", summary.msptP99()), String.format("%.2f", summary.msptMax()));
+        onFinish.accept(summary);
+    }
+}
@@ -0,0 +1,95 @@
+package net.ragnar.ragnarsmagicmod.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk layout of a cast recording ({@code .rmmr}). Big-endian, via Data streams:
+ * <pre>
+ *   header: int magic 'RMMR', short version, long world seed, UTF dimension,
+ *           int originX, originY, originZ, UTF mod version
+ *   casts until EOF:
+ *           varint ticks since the previous cast, varint caster index,
+ *           varint spell index (an index equal to the number of names seen so far is followed by the
+ *           new name as UTF), byte tier ordinal (-1 if unknown),
+ *           float x, y, z relative to the origin, float yaw, pitch
+ * </pre>
+ * Spells are stored by name so a recording made on one mod version replays on another.
+ */
+public final class ReplayFormat {
+    private ReplayFormat() {}
+
+    static final int MAGIC = 0x524D4D52; // "RMMR"
+    static final short VERSION = 1;
+    public static final String EXTENSION = ".rmmr";
+
+    public record Header(long seed, String dimension, int originX, int originY, int originZ, String modVersion) {}
+
+    public record Cast(int tick, int caster, String spell, int tier, float x, float y, float z, float yaw, float pitch) {}
+
+    public record Recording(Header header, List<Cast> casts) {}
+
+    static void writeHeader(DataOutputStream out, Header h) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(h.seed());
+        out.writeUTF(h.dimension());
+        out.writeInt(h.originX());
+        out.writeInt(h.originY());
+        out.writeInt(h.originZ());
+        out.writeUTF(h.modVersion());
+    }
+
+    public static Recording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) throw new IOException("Not a cast recording");
+        short version = in.readShort();
+        if (version != VERSION) throw new IOException("Unsupported recording version " + version);
+        Header header = new Header(in.readLong(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readUTF());
+
+        List<String> names = new ArrayList<>();
+        List<Cast> casts = new ArrayList<>();
+        int tick = 0;
+        while (true) {
+            int delta;
+            try {
+                delta = readVarInt(in);
+            } catch (EOFException e) {
+                break;
+            }
+            tick += delta;
+            int caster = readVarInt(in);
+            int spellIndex = readVarInt(in);
+            if (spellIndex == names.size()) names.add(in.readUTF());
+            else if (spellIndex > names.size()) throw new IOException("Bad spell index " + spellIndex);
+            String spell = names.get(spellIndex);
+            int tier = in.readByte();
+            casts.add(new Cast(tick, caster, spell, tier,
+                    in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+        }
+        return new Recording(header, casts);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt too long");
+    }
+}
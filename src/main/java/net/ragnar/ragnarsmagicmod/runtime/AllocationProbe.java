@@ -0,0 +1,57 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Opt-in allocation check for the effect tick loop ({@code -Dragnarsmagicmod.allocProbe=true}).
+ * Measures bytes allocated by the server thread while each effect type ticks and logs
+ * bytes per effect-tick every {@value #REPORT_EVERY} world ticks. The numbers include whatever vanilla allocates for
+ * the particles/sounds an effect sends, so compare types against each other or before/after a change.
+ */
+final class AllocationProbe {
+    private AllocationProbe() {}
+
+    static final boolean ENABLED = Boolean.getBoolean("ragnarsmagicmod.allocProbe");
+
+    static final int REPORT_EVERY = 1200;
+    private static final com.sun.management.ThreadMXBean THREADS = ENABLED
+            ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()
+            : null;
+
+    private static long[] bytes = new long[0];
+    private static long[] effectTicks = new long[0];
+    private static int ticksSinceReport = 0;
+
+    static long begin() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    static void end(int typeIndex, long start, int effects) {
+        long used = THREADS.getCurrentThreadAllocatedBytes() - start;
+        if (typeIndex >= bytes.length) {
+            bytes = Arrays.copyOf(bytes, typeIndex + 1);
+            effectTicks = Arrays.copyOf(effectTicks, typeIndex + 1);
+        }
+        bytes[typeIndex] += used;
+        effectTicks[typeIndex] += effects;
+    }
+
+    /** Called once per world tick; logs and resets every {@link #REPORT_EVERY} calls. */
+    static void tick() {
+        if (++ticksSinceReport < REPORT_EVERY) return;
+        ticksSinceReport = 0;
+
+        for (int i = 0; i < effectTicks.length; i++) {
+            if (effectTicks[i] == 0) continue;
+            RagnarsMagicMod.LOGGER.info("[alloc] {}: {} B per effect-tick over {} effect-ticks",
+                    SpellRuntime.getTypes().get(i).getName(),
+                    String.format("%.1f", bytes[i] / (double) effectTicks[i]),
+                    effectTicks[i]);
+            bytes[i] = 0;
+            effectTicks[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+/** Kinds of timed buff a player can carry. A player holds at most one buff of each kind. */
+public enum BuffKind {
+    AEGIS,
+    FALL_IMMUNE,
+    CLOUD_FLIGHT,
+    REJUVENATION
+}
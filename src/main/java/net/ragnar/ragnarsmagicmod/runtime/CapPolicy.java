@@ -0,0 +1,14 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+/** What {@link SpellRuntime#spawn} does with a new instance that would go over its type's cap. */
+public enum CapPolicy {
+    /** Stop the oldest instance over the cap (through {@link SpellEffect#onTerminated}) and start the new one. */
+    EVICT_OLDEST,
+    /** Don't start the new one. */
+    REJECT,
+    /**
+     * Offer the new one to the newest instance over the cap through {@link SpellEffect#absorb};
+     * if that declines, evict the oldest as with {@link #EVICT_OLDEST}.
+     */
+    MERGE
+}
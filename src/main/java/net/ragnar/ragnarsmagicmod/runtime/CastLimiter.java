@@ -0,0 +1,87 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+import net.ragnar.ragnarsmagicmod.item.spell.TomeTier;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Token buckets in front of every staff cast: one per player ({@code cast.rate.player}) and one for
+ * the whole server ({@code cast.rate.global}), each refilling at {@code perSecond} up to
+ * {@code burst}. A cast takes {@code cast.cost.<tier>} tokens from its player's bucket and one from
+ * the global one, so a player's total is capped however they spread it over staffs of different
+ * tiers, and item cooldowns and Quickcast don't matter. Refill is counted in server ticks, so a
+ * lagging server doesn't hand out extra casts.
+ * <p>
+ * Refill and burst are no longer set per {@link TomeTier}: the tier only sets the cost, so every
+ * tier shares the player's {@code cast.rate.player} and a master tome casts a quarter as often as a
+ * beginner one at the defaults.
+ * <p>
+ * The buckets live on the server only. The client goes ahead with its side of a cast the limiter
+ * rejects (XP, and the cooldown for spells that cast client-side), and the staff sends the real XP
+ * and a cleared cooldown straight back.
+ * <p>
+ * Fake players (stress tests, replays) are never limited. Server thread only.
+ */
+public final class CastLimiter {
+    private CastLimiter() {}
+
+    private static final class Bucket {
+        double tokens;
+        int lastTick = Integer.MIN_VALUE; // full on first use
+    }
+
+    private static final Map<UUID, Bucket> BY_PLAYER = new HashMap<>();
+    private static Bucket global = new Bucket();
+    private static boolean initialized = false;
+
+    /** Registers cleanup hooks once. Called from {@link SpellRuntime#init()}. */
+    static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> BY_PLAYER.remove(handler.getPlayer().getUuid()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            BY_PLAYER.clear();
+            global = new Bucket();
+        });
+        // map node + UUID key + bucket
+        SpellMemory.register("cast limiter", BY_PLAYER::size, 112);
+    }
+
+    /** Takes the tokens for one cast at {@code tier}; false if the player or the server is casting too fast. */
+    public static boolean tryAcquire(ServerPlayerEntity player, TomeTier tier) {
+        if (!ModConfig.castRateEnabled || tier == null || player instanceof FakePlayer) return true;
+
+        int now = player.getServer().getTicks();
+        Bucket mine = BY_PLAYER.computeIfAbsent(player.getUuid(), k -> new Bucket());
+        ModConfig.CastRate rate = ModConfig.castRatePlayer;
+        ModConfig.CastRate globalRate = ModConfig.castRateGlobal;
+        // a cost over the burst could never be paid, so it empties a full bucket instead
+        double cost = Math.min(ModConfig.castCosts.getOrDefault(tier, 1.0), rate.burst());
+
+        // check both before taking from either
+        if (!refill(mine, rate, now, cost) || !refill(global, globalRate, now, 1.0)) return false;
+        if (rate.perSecond() > 0) mine.tokens -= cost;
+        if (globalRate.perSecond() > 0) global.tokens--;
+        return true;
+    }
+
+    // true if the bucket has the tokens to give; rates of 0 or less never run out
+    private static boolean refill(Bucket b, ModConfig.CastRate rate, int now, double cost) {
+        if (rate.perSecond() <= 0) return true;
+        if (b.lastTick == Integer.MIN_VALUE) {
+            b.tokens = rate.burst();
+        } else if (now > b.lastTick) {
+            b.tokens = Math.min(rate.burst(), b.tokens + (now - b.lastTick) * rate.perSecond() / 20.0);
+        }
+        b.lastTick = now;
+        return b.tokens >= cost;
+    }
+}
@@ -0,0 +1,7 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+/**
+ * Most live instances of one effect type per caster and per world, 0 for no limit. Declared with
+ * {@link EffectType#cap} and overridable per type in the mod config.
+ */
+public record EffectCap(int perPlayer, int perWorld, CapPolicy policy) {}
@@ -0,0 +1,88 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.metrics.SpellMetrics;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Enforces {@link EffectCap}s when an effect spawns. Instances count against their caster (by the
+ * UUID {@link SpellContext} carried at spawn) and against the world; effects with no caster only
+ * count against the world. Evicted instances are marked here and stopped by {@link WorldBucket} on
+ * their next tick, so eviction is safe while the same list is being ticked. Server thread only.
+ */
+final class EffectCaps {
+    private EffectCaps() {}
+
+    /** Whether {@code effect} may start; evicts or merges as the type's policy says. */
+    static boolean admit(ServerWorld world, WorldBucket bucket, EffectType type, SpellEffect effect) {
+        EffectCap cap = type.getCap();
+        if (cap == null) return true;
+        List<SpellEffect> live = bucket.effects(type);
+        if (live == null || live.isEmpty()) return true;
+
+        if (cap.perPlayer() > 0 && effect.caster != null
+                && !admit(world, live, effect, effect.caster, cap.perPlayer(), cap.policy())) {
+            return false;
+        }
+        return cap.perWorld() <= 0 || admit(world, live, effect, null, cap.perWorld(), cap.policy());
+    }
+
+    /** True if a new instance from {@code caster} would be rejected outright. */
+    static boolean wouldReject(WorldBucket bucket, EffectType type, UUID caster) {
+        EffectCap cap = type.getCap();
+        if (cap == null || cap.policy() != CapPolicy.REJECT) return false;
+        List<SpellEffect> live = bucket.effects(type);
+        if (live == null) return false;
+        return (cap.perPlayer() > 0 && caster != null && count(live, caster) >= cap.perPlayer())
+                || (cap.perWorld() > 0 && count(live, null) >= cap.perWorld());
+    }
+
+    // caster null: every instance counts
+    private static boolean admit(ServerWorld world, List<SpellEffect> live, SpellEffect effect, UUID caster,
+                                 int limit, CapPolicy policy) {
+        int n = count(live, caster);
+        if (n < limit) return true;
+
+        if (policy == CapPolicy.REJECT) {
+            SpellMetrics.capped(policy);
+            return false;
+        }
+        // merging is only ever into the caster's own instance: with the world full, someone else's
+        // vortex must not swallow a cast they paid for, so the world check evicts instead
+        if (policy == CapPolicy.MERGE && caster != null) {
+            SpellEffect newest = null;
+            for (SpellEffect e : live) {
+                if (counts(e, caster)) newest = e;
+            }
+            if (newest != null && newest.isSameCaster(effect) && newest.absorb(world, effect)) {
+                // the survivor carries on as if just cast
+                newest.spawnTick = world.getTime();
+                SpellMetrics.capped(policy);
+                return false;
+            }
+        }
+        // oldest first: lists keep spawn order
+        for (SpellEffect e : live) {
+            if (n < limit) break;
+            if (!counts(e, caster)) continue;
+            e.evicted = true;
+            n--;
+        }
+        SpellMetrics.capped(CapPolicy.EVICT_OLDEST);
+        return true;
+    }
+
+    private static int count(List<SpellEffect> live, UUID caster) {
+        int n = 0;
+        for (SpellEffect e : live) {
+            if (counts(e, caster)) n++;
+        }
+        return n;
+    }
+
+    private static boolean counts(SpellEffect e, UUID caster) {
+        return !e.evicted && (caster == null || caster.equals(e.caster));
+    }
+}
@@ -0,0 +1,43 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import java.util.function.Supplier;
+
+/**
+ * Free list of finished effect instances, so short-lived effects that are spawned over and over
+ * (dashes, flights, spikes...) reuse their state objects instead of allocating new ones.
+ * Instances go back automatically when the runtime drops them; the caller re-initialises
+ * every field after {@link #acquire()}. Server thread only.
+ */
+public final class EffectPool<T extends SpellEffect> {
+    private final Supplier<T> factory;
+    private final SpellEffect[] free;
+    private int size = 0;
+
+    /** @param capacity most idle instances kept around; extras are left to the GC */
+    public EffectPool(int capacity, Supplier<T> factory) {
+        this.factory = factory;
+        this.free = new SpellEffect[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        T effect;
+        if (size > 0) {
+            effect = (T) free[--size];
+            free[size] = null;
+        } else {
+            effect = factory.get();
+        }
+        effect.pool = this;
+        return effect;
+    }
+
+    void release(SpellEffect effect) {
+        effect.pool = null;
+        if (size < free.length) free[size++] = effect;
+    }
+
+    public int idle() {
+        return size;
+    }
+}
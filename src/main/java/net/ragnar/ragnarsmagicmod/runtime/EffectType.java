@@ -0,0 +1,77 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+
+/**
+ * Identifies one kind of effect (e.g. all Ice Beams). Created through {@link SpellRuntime#registerType(String)}.
+ */
+public final class EffectType {
+    private final String name;
+    final int index;
+    private final int maxLifetimeTicks;
+    private FxPriority fxPriority = FxPriority.NORMAL;
+    private EffectCap cap;
+    private boolean openEnded;
+
+    EffectType(String name, int index, int maxLifetimeTicks) {
+        this.name = name;
+        this.index = index;
+        this.maxLifetimeTicks = maxLifetimeTicks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Longest an instance should ever stay alive, or 0 if the type didn't declare one. */
+    public int getMaxLifetimeTicks() {
+        return maxLifetimeTicks;
+    }
+
+    public FxPriority getFxPriority() {
+        return fxPriority;
+    }
+
+    /**
+     * Priority of the particles instances emit while they tick, {@code NORMAL} unless set. Chain onto
+     * {@link SpellRuntime#registerType}.
+     */
+    public EffectType fxPriority(FxPriority priority) {
+        this.fxPriority = priority;
+        return this;
+    }
+
+    /** The cap from the mod config if it sets one for this type, else the declared one, or null. */
+    public EffectCap getCap() {
+        EffectCap configured = ModConfig.effectCaps.get(name);
+        return configured != null ? configured : cap;
+    }
+
+    /**
+     * Bound live instances per caster and per world (0 for no bound), handling a spawn over either
+     * bound by {@code policy}. Chain onto {@link SpellRuntime#registerType}.
+     */
+    public EffectType cap(int perPlayer, int perWorld, CapPolicy policy) {
+        this.cap = new EffectCap(perPlayer, perWorld, policy);
+        return this;
+    }
+
+    public boolean isOpenEnded() {
+        return openEnded;
+    }
+
+    /**
+     * Instances may stay alive indefinitely by design (markers, toggles), so the
+     * {@link EffectWatchdog} only stops them for single ticks over budget, never for their
+     * average. Chain onto {@link SpellRuntime#registerType}.
+     */
+    public EffectType openEnded() {
+        this.openEnded = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
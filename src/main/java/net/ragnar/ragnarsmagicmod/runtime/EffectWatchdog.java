@@ -0,0 +1,83 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.RagnarsMagicMod;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+
+/**
+ * Keeps one runaway effect from pinning the server thread. {@link WorldBucket} times every
+ * instance's {@code tick()} while {@code watchdog.enabled} is set and hands the result here. A tick
+ * over {@code watchdog.tickBudgetMs}, or a tick that leaves the instance's moving average (about the
+ * last {@value #AVERAGE_TICKS} ticks) over {@code watchdog.averageBudgetMs}, is a strike; the first
+ * strike of a run is logged, a tick within both budgets ends the run, and after
+ * {@code watchdog.strikes} strikes in a row the instance is stopped through
+ * {@link SpellEffect#onTerminated} and {@link SpellEffect#finish()} like any finished effect.
+ * Going by the average rather than a lifetime total means a cheap effect can live as long as it
+ * likes; types that are {@link EffectType#openEnded() open-ended} skip the average check anyway.
+ * <p>
+ * The timing is two {@code nanoTime} calls per instance per tick. Server thread only.
+ */
+final class EffectWatchdog {
+    private EffectWatchdog() {}
+
+    static final int AVERAGE_TICKS = 20;
+
+    static boolean isEnabled() {
+        return ModConfig.watchdogEnabled;
+    }
+
+    /** Books one tick of {@code effect}; true if it should be stopped now. */
+    static boolean check(ServerWorld world, int typeIndex, SpellEffect effect, long nanos) {
+        effect.cpuNanos += nanos;
+        // exponential moving average, the first tick seeds it
+        effect.avgNanos = effect.avgNanos == 0 ? nanos : effect.avgNanos + (nanos - effect.avgNanos) / AVERAGE_TICKS;
+        boolean overTick = nanos > ModConfig.watchdogTickBudgetMs * 1.0e6;
+        boolean overAverage = !SpellRuntime.getTypes().get(typeIndex).isOpenEnded()
+                && effect.avgNanos > ModConfig.watchdogAverageBudgetMs * 1.0e6;
+        if (!overTick && !overAverage) {
+            effect.strikes = 0;
+            return false;
+        }
+
+        effect.strikes++;
+        if (effect.strikes == 1) {
+            RagnarsMagicMod.LOGGER.warn("[watchdog] {} over budget: {}ms this tick, {}ms on average (budget {}ms / {}ms)",
+                    describe(world, typeIndex, effect), ms(nanos), ms(effect.avgNanos),
+                    ModConfig.watchdogTickBudgetMs, ModConfig.watchdogAverageBudgetMs);
+        }
+        if (effect.strikes < ModConfig.watchdogStrikes) return false;
+
+        RagnarsMagicMod.LOGGER.warn("[watchdog] Stopped {} after {} ticks over budget, {}ms on average, {}ms in total",
+                describe(world, typeIndex, effect), effect.strikes, ms(effect.avgNanos), ms(effect.cpuNanos));
+        return true;
+    }
+
+    // "sun_ball (SUN) cast by Steve at 12.5, 70.0, -3.2 in minecraft:overworld"
+    private static String describe(ServerWorld world, int typeIndex, SpellEffect effect) {
+        StringBuilder sb = new StringBuilder(SpellRuntime.getTypes().get(typeIndex).getName());
+        if (effect.origin != null) sb.append(" (").append(effect.origin).append(')');
+        // the name only if they are still online; the UUID is all the effect keeps
+        ServerPlayerEntity player = effect.caster == null ? null
+                : world.getServer().getPlayerManager().getPlayer(effect.caster);
+        sb.append(" cast by ").append(player != null ? player.getGameProfile().getName()
+                : effect.caster == null ? "nobody" : effect.caster.toString());
+
+        Vec3d pos = effect.position(world);
+        String where = "at ";
+        if (pos == null && player != null && player.getWorld() == world) {
+            // no position of its own, so say where the caster is
+            pos = player.getPos();
+            where = "near ";
+        }
+        if (pos != null) {
+            sb.append(' ').append(where).append(String.format("%.1f, %.1f, %.1f", pos.x, pos.y, pos.z));
+        }
+        return sb.append(" in ").append(world.getRegistryKey().getValue()).toString();
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.2f", nanos / 1.0e6);
+    }
+}
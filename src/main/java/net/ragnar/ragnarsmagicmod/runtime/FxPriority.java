@@ -0,0 +1,21 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+/**
+ * How much a particle emission matters when the world's particle budget runs short (see
+ * {@link ParticleBudget}). Each tier may only use its share of the per-tick budget, so ambient
+ * emissions run out first and the rest is left for what the player needs to see.
+ */
+public enum FxPriority {
+    /** Hits, explosions, landings: may use the whole budget. */
+    IMPACT(1.0),
+    /** The body of an effect, and the default for spell work. */
+    NORMAL(0.8),
+    /** Shimmer around long-lived effects, first to go. */
+    AMBIENT(0.5);
+
+    final double share;
+
+    FxPriority(double share) {
+        this.share = share;
+    }
+}
@@ -0,0 +1,75 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+
+/**
+ * How much of their full particle density effects should draw right now, from 0 to 1. Effects
+ * pass their hard-coded counts through {@link #count} and their "every n ticks" cadences through
+ * {@link #every}; client emitters are scaled when they start.
+ * <p>
+ * With {@code fx.quality.profile=auto} the scale follows the server's mean tick time: full
+ * {@code fx.quality.ceiling} up to {@code fx.quality.msptLow}, down to {@code fx.quality.floor} at
+ * {@code fx.quality.msptHigh}, linear in between. It moves at most {@value #MAX_STEP} per tick,
+ * so effects thin out and fill back in over a few seconds instead of popping. The fixed profiles
+ * pin it. Updated on the server thread; {@link #scale} is safe to read from any thread.
+ */
+public final class FxQuality {
+    private FxQuality() {}
+
+    private static final float MAX_STEP = 0.01f;
+
+    private static volatile float scale = 1.0f;
+    private static boolean initialized = false;
+
+    /** Registers the controller once. Called from {@link SpellRuntime#init()}. */
+    static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerTickEvents.END_SERVER_TICK.register(FxQuality::update);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> scale = 1.0f);
+    }
+
+    public static float scale() {
+        return scale;
+    }
+
+    /** A particle count at the current quality; never scales a positive count down to nothing. */
+    public static int count(int base) {
+        if (base <= 0) return base;
+        return Math.max(1, Math.round(base * scale));
+    }
+
+    /** An "every n ticks" interval at the current quality: longer as quality drops. */
+    public static int every(int baseTicks) {
+        return Math.max(1, Math.round(baseTicks / Math.max(scale, 0.05f)));
+    }
+
+    private static void update(MinecraftServer server) {
+        float target = target(server.getAverageNanosPerTick() / 1.0e6);
+        float s = scale;
+        scale = s + Math.max(-MAX_STEP, Math.min(MAX_STEP, target - s));
+    }
+
+    private static float target(double mspt) {
+        float floor = ModConfig.fxQualityFloor;
+        float ceiling = ModConfig.fxQualityCeiling;
+        float value = switch (ModConfig.fxQualityProfile) {
+            case LOW -> 0.35f;
+            case MEDIUM -> 0.65f;
+            case HIGH -> 1.0f;
+            case AUTO -> {
+                double span = ModConfig.fxQualityMsptHigh - ModConfig.fxQualityMsptLow;
+                double t = span <= 0 ? (mspt >= ModConfig.fxQualityMsptHigh ? 1 : 0)
+                        : (mspt - ModConfig.fxQualityMsptLow) / span;
+                t = Math.max(0, Math.min(1, t));
+                yield (float) (ceiling + (floor - ceiling) * t);
+            }
+        };
+        // bounds apply to the fixed profiles too
+        return Math.max(floor, Math.min(ceiling, value));
+    }
+}
@@ -0,0 +1,105 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rough heap size of spell state, assuming a 64-bit JVM with compressed oops (12-byte headers,
+ * 4-byte references, 8-byte alignment). Counts the object itself plus what it owns outright: arrays,
+ * small value objects (vectors, positions, boxes, UUIDs) and the slots of collections. Entities, worlds
+ * and players an effect points at belong to the game, not to the effect, and aren't counted.
+ * Field layouts are read by reflection once per class; only used when a report is asked for.
+ */
+final class ObjectSizes {
+    private ObjectSizes() {}
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REF = 4;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return layout(type);
+        }
+    };
+
+    private record Layout(long shallow, Field[] references) {}
+
+    static long estimate(Object o) {
+        if (o == null) return 0;
+        Layout layout = LAYOUTS.get(o.getClass());
+        long size = layout.shallow();
+        for (Field f : layout.references()) {
+            Object value;
+            try {
+                value = f.get(o);
+            } catch (IllegalAccessException e) {
+                continue;
+            }
+            size += owned(value);
+        }
+        return size;
+    }
+
+    // one level deep: anything further down is shared or game-owned more often than not
+    private static long owned(Object value) {
+        if (value == null) return 0;
+        Class<?> type = value.getClass();
+        if (type.isArray()) return array(type.getComponentType(), java.lang.reflect.Array.getLength(value));
+        if (value instanceof Vec3d || value instanceof BlockPos || value instanceof Box || value instanceof UUID) {
+            return LAYOUTS.get(type).shallow();
+        }
+        if (value instanceof Collection<?> c) {
+            // the collection object, its backing array, and value objects it holds
+            long size = LAYOUTS.get(type).shallow() + array(Object.class, c.size());
+            for (Object e : c) {
+                if (e instanceof Vec3d || e instanceof BlockPos || e instanceof UUID) size += LAYOUTS.get(e.getClass()).shallow();
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    /** An {@code ArrayList} of {@code size} elements, not counting the elements. */
+    static long list(int size) {
+        return LAYOUTS.get(ArrayList.class).shallow() + array(Object.class, size);
+    }
+
+    private static long array(Class<?> component, int length) {
+        return align(ARRAY_HEADER + (long) length * width(component));
+    }
+
+    private static Layout layout(Class<?> type) {
+        long size = HEADER;
+        List<Field> references = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (Modifier.isStatic(f.getModifiers())) continue;
+                size += width(f.getType());
+                if (!f.getType().isPrimitive() && f.trySetAccessible()) references.add(f);
+            }
+        }
+        return new Layout(align(size), references.toArray(new Field[0]));
+    }
+
+    private static int width(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        if (type == byte.class || type == boolean.class) return 1;
+        return REF;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,34 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.UUID;
+
+/**
+ * Cached reference to the player who cast an effect. Obtained from {@link OwnerHandles#of}; the
+ * reference is cleared when that player disconnects, dies or changes dimension, so a ticking
+ * effect only needs a null check instead of a {@code getPlayerByUuid} scan.
+ */
+public final class OwnerHandle {
+    private final UUID uuid;
+    ServerPlayerEntity player;
+
+    OwnerHandle(ServerPlayerEntity player) {
+        this.uuid = player.getUuid();
+        this.player = player;
+    }
+
+    /** The caster, or null once this handle has been invalidated. */
+    public ServerPlayerEntity get() {
+        return player;
+    }
+
+    public boolean isValid() {
+        return player != null;
+    }
+
+    /** Still available after invalidation, e.g. for "don't hit the caster" checks. */
+    public UUID getUuid() {
+        return uuid;
+    }
+}
@@ -0,0 +1,61 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One {@link OwnerHandle} per online player. Handles are invalidated (and a fresh one handed out on the
+ * next cast) when the player entity they point at stops being the one effects should follow:
+ * disconnect, death, respawn (which swaps the entity object) and dimension change.
+ */
+public final class OwnerHandles {
+    private OwnerHandles() {}
+
+    private static final Map<UUID, OwnerHandle> HANDLES = new HashMap<>();
+    private static boolean initialized = false;
+
+    /** Registers the invalidation hooks once. Called from {@link SpellRuntime#init()}. */
+    static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> invalidate(handler.getPlayer().getUuid()));
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, source) -> {
+            if (entity instanceof ServerPlayerEntity) invalidate(entity.getUuid());
+        });
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> invalidate(oldPlayer.getUuid()));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> invalidate(player.getUuid()));
+        // map node + UUID key + handle
+        SpellMemory.register("owner handles", HANDLES::size, 88);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            for (OwnerHandle h : HANDLES.values()) h.player = null;
+            HANDLES.clear();
+        });
+    }
+
+    /** Handle for a caster; server side only. Reuses the player's current handle while it is still valid. */
+    public static OwnerHandle of(PlayerEntity player) {
+        ServerPlayerEntity sp = (ServerPlayerEntity) player;
+        OwnerHandle h = HANDLES.get(sp.getUuid());
+        if (h == null || h.player != sp) {
+            if (h != null) h.player = null;
+            h = new OwnerHandle(sp);
+            HANDLES.put(sp.getUuid(), h);
+        }
+        return h;
+    }
+
+    private static void invalidate(UUID uuid) {
+        OwnerHandle h = HANDLES.remove(uuid);
+        if (h != null) h.player = null;
+    }
+}
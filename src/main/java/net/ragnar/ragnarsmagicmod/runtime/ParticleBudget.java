@@ -0,0 +1,58 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+import net.ragnar.ragnarsmagicmod.metrics.SpellMetrics;
+
+/**
+ * Hard ceiling on the particles spell work asks for in one world tick, {@code fx.budget.perTick}
+ * (counting each burst's particle count, not calls). Every emission path checks in here:
+ * {@code ServerWorld.spawnParticles} (through a mixin), {@code FxViewers} and {@code FxBatch}.
+ * <p>
+ * Spell work always runs at some {@link FxPriority}: the effect type's own while its instances
+ * tick, {@code NORMAL} for casts and scheduled tasks. Effects raise it around impact bursts with
+ * {@link #setPriority}. An emission is dropped once the tick's total would go over its tier's
+ * share of the budget. Particles from anything else (mobs, blocks, other mods) are never counted.
+ * Server thread only.
+ */
+public final class ParticleBudget {
+    private ParticleBudget() {}
+
+    // null outside spell work
+    private static FxPriority priority;
+
+    public static FxPriority priority() {
+        return priority;
+    }
+
+    /** Set the current priority and return the previous one, to be put back with {@code setPriority(previous)}. */
+    public static FxPriority setPriority(FxPriority p) {
+        FxPriority previous = priority;
+        priority = p;
+        return previous;
+    }
+
+    /**
+     * Whether spell work may emit {@code count} particles in this world now; if so they are taken
+     * out of this tick's budget. Count 0 (one directional particle) counts as one.
+     */
+    public static boolean tryEmit(ServerWorld world, int count) {
+        FxPriority p = priority;
+        int budget = ModConfig.fxBudgetPerTick;
+        if (p == null || budget <= 0) return true;
+
+        WorldBucket bucket = SpellRuntime.bucket(world);
+        long now = world.getTime();
+        if (bucket.particleTick != now) {
+            bucket.particleTick = now;
+            bucket.particlesUsed = 0;
+        }
+        int n = Math.max(1, count);
+        if (bucket.particlesUsed + n > budget * p.share) {
+            SpellMetrics.particlesDropped(p, n);
+            return false;
+        }
+        bucket.particlesUsed += n;
+        return true;
+    }
+}
@@ -0,0 +1,221 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Timed buffs attached to a player instead of a world. State is keyed by player UUID, so a buff
+ * survives portal travel, and damage/fall hooks answer {@link #has} with one map lookup.
+ * Expiry runs off a min-heap ordered by end tick on a server-wide clock: between expirations the
+ * registry costs one counter increment and one heap peek per server tick.
+ * <p>
+ * Refreshing a buff pushes a new heap entry rather than re-ordering the old one; stale entries are
+ * skipped when they surface (lazy deletion).
+ */
+public final class PlayerBuffs {
+    private PlayerBuffs() {}
+
+    /** Called when a buff runs out, or its owner disconnects, while the player is online. */
+    @FunctionalInterface
+    public interface ExpiryListener {
+        void expired(ServerPlayerEntity player);
+    }
+
+    /** Called when a player with an active buff arrives in another world. Respawn per-world visuals here. */
+    @FunctionalInterface
+    public interface RelocationListener {
+        void relocated(ServerPlayerEntity player, ServerWorld world, Buff buff);
+    }
+
+    public static final class Buff {
+        final UUID owner;
+        final BuffKind kind;
+        long endTick;
+        boolean removed;
+
+        Buff(UUID owner, BuffKind kind, long endTick) {
+            this.owner = owner;
+            this.kind = kind;
+            this.endTick = endTick;
+        }
+
+        /** False once the buff has expired, been cleared, or been replaced by a fresh cast. */
+        public boolean isActive() {
+            return !removed && endTick > now;
+        }
+
+        public int remaining() {
+            return isActive() ? (int) (endTick - now) : 0;
+        }
+    }
+
+    private record Expiry(Buff buff, long endTick) {}
+
+    private static final int KINDS = BuffKind.values().length;
+
+    private static final Map<UUID, Buff[]> BY_PLAYER = new HashMap<>();
+    private static final PriorityQueue<Expiry> HEAP = new PriorityQueue<>(Comparator.comparingLong(Expiry::endTick));
+    private static final Map<BuffKind, List<ExpiryListener>> ON_EXPIRED = new EnumMap<>(BuffKind.class);
+    private static final Map<BuffKind, List<RelocationListener>> ON_RELOCATED = new EnumMap<>(BuffKind.class);
+    private static long now = 0;
+    private static boolean initialized = false;
+
+    /**
+     * Registers the clock and player lifecycle hooks once. Called from {@link SpellRuntime#init()} after
+     * {@link OwnerHandles#init()}, so handles are already invalidated when relocation listeners run.
+     */
+    static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerTickEvents.START_SERVER_TICK.register(PlayerBuffs::tick);
+        // map node + UUID key + slot array; heap entries are a record and an array slot
+        SpellMemory.register("player buffs", BY_PLAYER::size, 96 + 4L * KINDS);
+        SpellMemory.register("buff expiry heap", HEAP::size, 32);
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> expireAll(handler.getPlayer()));
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, source) -> {
+            if (entity instanceof ServerPlayerEntity) clearAll(entity.getUuid());
+        });
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> {
+            // only an "alive" respawn (leaving the End) keeps buffs, death already cleared them
+            if (alive) relocate(newPlayer, newPlayer.getServerWorld());
+        });
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> relocate(player, destination));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            BY_PLAYER.clear();
+            HEAP.clear();
+            now = 0;
+        });
+    }
+
+    public static void onExpired(BuffKind kind, ExpiryListener listener) {
+        ON_EXPIRED.computeIfAbsent(kind, k -> new ArrayList<>()).add(listener);
+    }
+
+    public static void onRelocated(BuffKind kind, RelocationListener listener) {
+        ON_RELOCATED.computeIfAbsent(kind, k -> new ArrayList<>()).add(listener);
+    }
+
+    /**
+     * Give a player a buff for at least {@code ticks} more ticks. An active buff of the same kind is
+     * extended (never shortened) and returned as is; otherwise a new buff is started.
+     */
+    public static Buff apply(PlayerEntity player, BuffKind kind, int ticks) {
+        Buff[] slots = BY_PLAYER.computeIfAbsent(player.getUuid(), k -> new Buff[KINDS]);
+        Buff b = slots[kind.ordinal()];
+        long end = now + ticks;
+
+        if (b == null || !b.isActive()) {
+            if (b != null) b.removed = true;
+            b = new Buff(player.getUuid(), kind, end);
+            slots[kind.ordinal()] = b;
+        } else if (end > b.endTick) {
+            b.endTick = end;
+        } else {
+            return b;
+        }
+        HEAP.add(new Expiry(b, end));
+        return b;
+    }
+
+    public static boolean has(PlayerEntity player, BuffKind kind) {
+        if (BY_PLAYER.isEmpty()) return false;
+        Buff[] slots = BY_PLAYER.get(player.getUuid());
+        if (slots == null) return false;
+        Buff b = slots[kind.ordinal()];
+        return b != null && b.endTick > now;
+    }
+
+    /** Ticks left on a player's buff, 0 if they don't have it. */
+    public static int remaining(PlayerEntity player, BuffKind kind) {
+        Buff[] slots = BY_PLAYER.get(player.getUuid());
+        if (slots == null) return 0;
+        Buff b = slots[kind.ordinal()];
+        return b == null ? 0 : b.remaining();
+    }
+
+    /** Drop a buff early without firing expiry listeners. */
+    public static void clear(PlayerEntity player, BuffKind kind) {
+        Buff[] slots = BY_PLAYER.get(player.getUuid());
+        if (slots == null) return;
+        Buff b = slots[kind.ordinal()];
+        if (b != null) detach(b);
+    }
+
+    private static void tick(MinecraftServer server) {
+        now++;
+        while (!HEAP.isEmpty() && HEAP.peek().endTick <= now) {
+            Expiry e = HEAP.poll();
+            Buff b = e.buff;
+            if (b.removed || b.endTick != e.endTick) continue; // cleared or refreshed since this entry was pushed
+
+            detach(b);
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(b.owner);
+            if (player != null) fireExpired(b.kind, player);
+        }
+    }
+
+    private static void detach(Buff b) {
+        b.removed = true;
+        Buff[] slots = BY_PLAYER.get(b.owner);
+        if (slots == null || slots[b.kind.ordinal()] != b) return;
+        slots[b.kind.ordinal()] = null;
+        for (Buff other : slots) {
+            if (other != null) return;
+        }
+        BY_PLAYER.remove(b.owner);
+    }
+
+    private static void expireAll(ServerPlayerEntity player) {
+        Buff[] slots = BY_PLAYER.remove(player.getUuid());
+        if (slots == null) return;
+        for (Buff b : slots) {
+            if (b == null) continue;
+            boolean wasActive = b.isActive();
+            b.removed = true;
+            if (wasActive) fireExpired(b.kind, player);
+        }
+    }
+
+    private static void clearAll(UUID owner) {
+        Buff[] slots = BY_PLAYER.remove(owner);
+        if (slots == null) return;
+        for (Buff b : slots) {
+            if (b != null) b.removed = true;
+        }
+    }
+
+    private static void relocate(ServerPlayerEntity player, ServerWorld world) {
+        Buff[] slots = BY_PLAYER.get(player.getUuid());
+        if (slots == null) return;
+        for (Buff b : slots) {
+            if (b == null || !b.isActive()) continue;
+            List<RelocationListener> listeners = ON_RELOCATED.get(b.kind);
+            if (listeners == null) continue;
+            for (RelocationListener l : listeners) l.relocated(player, world, b);
+        }
+    }
+
+    private static void fireExpired(BuffKind kind, ServerPlayerEntity player) {
+        List<ExpiryListener> listeners = ON_EXPIRED.get(kind);
+        if (listeners == null) return;
+        for (ExpiryListener l : listeners) l.expired(player);
+    }
+}
@@ -0,0 +1,19 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Resumable work for {@link SpellRuntime#runSliced}: a big job (a sweep over many blocks or
+ * entities) cut into small steps, so the runtime can stop between any two of them when the
+ * tick's budget is spent and carry on from the same place next tick.
+ * Keep the cursor (an index, an iterator) in the implementation; the world may have changed
+ * between two steps, so re-check anything a step relies on.
+ */
+@FunctionalInterface
+public interface SlicedWork {
+    /**
+     * Do one step.
+     * @return true while there are steps left
+     */
+    boolean step(ServerWorld world);
+}
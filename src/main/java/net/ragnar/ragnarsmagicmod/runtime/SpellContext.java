@@ -0,0 +1,39 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import java.util.UUID;
+
+/**
+ * The spell the server thread is currently doing work for, or null. Set around staff casts and,
+ * from the tag each effect and scheduled task inherits when it is created, around their ticks.
+ * Lets side effects that don't know about spells (packets, spawned entities) be attributed to one.
+ * The caster's UUID travels the same way, for per-player caps and log lines. Server thread only.
+ */
+public final class SpellContext {
+    private SpellContext() {}
+
+    private static String current;
+    private static UUID caster;
+
+    public static String current() {
+        return current;
+    }
+
+    /** Set the current spell and return the previous one, to be put back with {@code set(previous)}. */
+    public static String set(String spell) {
+        String previous = current;
+        current = spell;
+        return previous;
+    }
+
+    /** UUID of the player whose cast the current work comes from, or null. */
+    public static UUID caster() {
+        return caster;
+    }
+
+    /** Same as {@link #set}, for the caster. */
+    public static UUID setCaster(UUID player) {
+        UUID previous = caster;
+        caster = player;
+        return previous;
+    }
+}
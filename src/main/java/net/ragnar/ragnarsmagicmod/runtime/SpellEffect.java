@@ -0,0 +1,71 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.UUID;
+
+/**
+ * One live instance of a ticking spell effect (a beam, an orb, a dash...).
+ * Instances are owned by {@link SpellRuntime} and ticked once per tick of the world they were spawned in.
+ */
+public abstract class SpellEffect {
+    // set while the instance came from (and should go back to) a pool
+    EffectPool<?> pool;
+    // spell whose cast (or whose effects) spawned this one, see SpellContext
+    String origin;
+    // world time it was spawned at, for SpellMemory's age report
+    long spawnTick;
+    // UUID of the player who cast it, see SpellContext
+    UUID caster;
+    // EffectWatchdog's books: time spent in tick() so far, its moving average per tick and ticks over budget in a row
+    long cpuNanos;
+    long avgNanos;
+    int strikes;
+    // set by EffectCaps to make room for a newer instance; stopped on its next tick
+    boolean evicted;
+
+    /**
+     * Advance this effect by one tick.
+     * @return false once the effect has finished and should be dropped
+     */
+    public abstract boolean tick(ServerWorld world);
+
+    /**
+     * Called once after the runtime drops this effect. Pooled effects should let go of
+     * players, entities and lists here so a parked instance doesn't keep them alive.
+     */
+    protected void onFinished() {}
+
+    /**
+     * Called when the runtime stops this effect early, because it kept going over its tick budget
+     * (see {@link EffectWatchdog}) or a newer instance evicted it, right before {@link #onFinished()}. Effects that put blocks in
+     * the world should take them back out here, the way they would at the end of a normal run.
+     */
+    protected void onTerminated(ServerWorld world) {}
+
+    /**
+     * Offered a newer instance of the same type from the same caster when the type's cap is full
+     * and its policy is {@link CapPolicy#MERGE}. Return true to fold it into this one (refresh,
+     * move, extend...); the newer instance is then dropped without ticking. Overrides should still
+     * check {@link #isSameCaster} before taking anything over.
+     */
+    protected boolean absorb(ServerWorld world, SpellEffect newer) {
+        return false;
+    }
+
+    /** Whether both instances were cast by the same player; effects with no caster never match. */
+    protected final boolean isSameCaster(SpellEffect other) {
+        return caster != null && caster.equals(other.caster);
+    }
+
+    /** Where the effect is right now, for log lines, or null if it isn't anywhere in particular. */
+    protected Vec3d position(ServerWorld world) {
+        return null;
+    }
+
+    final void finish() {
+        onFinished();
+        if (pool != null) pool.release(this);
+    }
+}
@@ -0,0 +1,93 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * What spell state is holding on to, for {@code /rmm memory}. Reports, per world, every effect type
+ * with live instances and the scheduler's pending tasks, plus the global maps registered through
+ * {@link #register}: entry count, estimated bytes (see {@link ObjectSizes}) and the oldest entry's age.
+ * <p>
+ * Effects older than their type's declared lifetime (see {@link SpellRuntime#registerType(String, int)}),
+ * plus a second of grace, and scheduled tasks still pending past their due tick are counted as
+ * overdue: they are leaking, or about to. Walks everything, so it's for on-demand reports only.
+ * Server thread only.
+ */
+public final class SpellMemory {
+    private SpellMemory() {}
+
+    /**
+     * One collection. {@code oldestAgeTicks} and {@code maxLifetimeTicks} are -1 and 0 when unknown,
+     * {@code world} is null for global collections.
+     */
+    public record Row(String collection, String world, int entries, long bytes, long oldestAgeTicks,
+                      int maxLifetimeTicks, int overdue) {}
+
+    private record Gauge(String name, IntSupplier entries, long bytesPerEntry) {}
+
+    private static final int GRACE_TICKS = 20;
+    private static final List<Gauge> GAUGES = new ArrayList<>();
+
+    /**
+     * Include a global collection in reports. {@code bytesPerEntry} is a fixed estimate, map node and
+     * value included. Call once, at init.
+     */
+    public static void register(String name, IntSupplier entries, long bytesPerEntry) {
+        GAUGES.add(new Gauge(name, entries, bytesPerEntry));
+    }
+
+    /** Largest first. */
+    public static List<Row> report(MinecraftServer server) {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<RegistryKey<World>, WorldBucket> e : SpellRuntime.buckets().entrySet()) {
+            ServerWorld world = server.getWorld(e.getKey());
+            if (world == null) continue;
+            String worldName = e.getKey().getValue().toString();
+            WorldBucket bucket = e.getValue();
+            long now = world.getTime();
+
+            for (EffectType type : SpellRuntime.getTypes()) {
+                List<SpellEffect> effects = bucket.effects(type);
+                if (effects == null || effects.isEmpty()) continue;
+                long bytes = ObjectSizes.list(effects.size());
+                long oldest = 0;
+                int overdue = 0;
+                int max = type.getMaxLifetimeTicks();
+                for (SpellEffect effect : effects) {
+                    long age = now - effect.spawnTick;
+                    bytes += ObjectSizes.estimate(effect);
+                    if (age > oldest) oldest = age;
+                    if (max > 0 && age > max + GRACE_TICKS) overdue++;
+                }
+                rows.add(new Row(type.getName(), worldName, effects.size(), bytes, oldest, max, overdue));
+            }
+
+            TimingWheel wheel = bucket.wheel;
+            if (wheel.size > 0) {
+                long wheelNow = wheel.now();
+                long[] stats = new long[3]; // bytes, oldest age, overdue
+                wheel.forEach(h -> {
+                    stats[0] += ObjectSizes.estimate(h) + ObjectSizes.estimate(h.task);
+                    stats[1] = Math.max(stats[1], wheelNow - (h.due - h.delay));
+                    if (!h.cancelled && wheelNow > h.due) stats[2]++;
+                });
+                rows.add(new Row("scheduled tasks", worldName, wheel.size, stats[0], stats[1], 0, (int) stats[2]));
+            }
+        }
+
+        for (Gauge g : GAUGES) {
+            int n = g.entries().getAsInt();
+            if (n > 0) rows.add(new Row(g.name(), null, n, n * g.bytesPerEntry(), -1, 0, 0));
+        }
+        rows.sort(Comparator.comparingLong(Row::bytes).reversed());
+        return rows;
+    }
+}
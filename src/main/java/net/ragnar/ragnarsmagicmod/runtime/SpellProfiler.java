@@ -0,0 +1,101 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sampling-window profiler for spell work, driven by {@code /rmm profile}. While a window is open,
+ * every cast and every effect type's per-world tick is timed with {@link System#nanoTime()} into a
+ * {@link TimeHistogram}; scheduled tasks are timed together as one entry. When no window is open
+ * the hooks cost one static boolean check. Server thread only.
+ */
+public final class SpellProfiler {
+    private SpellProfiler() {}
+
+    /** One line of a {@link #report}: a cast, an effect type, or the scheduler. */
+    public record Row(String name, long calls, long totalNanos, long p50Nanos, long p99Nanos, long maxNanos,
+                      int liveNow, int livePeak) {}
+
+    private static boolean running = false;
+    private static long startNanos, stopNanos;
+
+    private static TimeHistogram[] ticks = new TimeHistogram[0];
+    private static int[] livePeak = new int[0];
+    private static final Map<String, TimeHistogram> CASTS = new HashMap<>();
+    private static final TimeHistogram SCHEDULER = new TimeHistogram();
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /** Open a fresh window, dropping whatever the last one collected. */
+    public static void start() {
+        for (TimeHistogram h : ticks) {
+            if (h != null) h.reset();
+        }
+        Arrays.fill(livePeak, 0);
+        CASTS.clear();
+        SCHEDULER.reset();
+        startNanos = System.nanoTime();
+        running = true;
+    }
+
+    /** Close the window; its numbers stay available to {@link #report} until the next start. */
+    public static void stop() {
+        if (!running) return;
+        running = false;
+        stopNanos = System.nanoTime();
+    }
+
+    /** Length of the current (or last) window. */
+    public static long windowNanos() {
+        if (startNanos == 0) return 0;
+        return (running ? System.nanoTime() : stopNanos) - startNanos;
+    }
+
+    public static void recordCast(String spell, long nanos) {
+        CASTS.computeIfAbsent(spell, k -> new TimeHistogram()).record(nanos);
+    }
+
+    static void recordTick(int typeIndex, long nanos, int live) {
+        if (typeIndex >= ticks.length) {
+            ticks = Arrays.copyOf(ticks, typeIndex + 1);
+            livePeak = Arrays.copyOf(livePeak, typeIndex + 1);
+        }
+        TimeHistogram h = ticks[typeIndex];
+        if (h == null) h = ticks[typeIndex] = new TimeHistogram();
+        h.record(nanos);
+        if (live > livePeak[typeIndex]) livePeak[typeIndex] = live;
+    }
+
+    static void recordScheduler(long nanos) {
+        SCHEDULER.record(nanos);
+    }
+
+    /** Everything seen in the window, most total time first. */
+    public static List<Row> report() {
+        List<Row> rows = new ArrayList<>();
+        List<EffectType> types = SpellRuntime.getTypes();
+        for (int i = 0; i < ticks.length; i++) {
+            TimeHistogram h = ticks[i];
+            if (h == null || h.count == 0) continue;
+            EffectType type = types.get(i);
+            rows.add(row("tick " + type.getName(), h, SpellRuntime.liveCount(type), livePeak[i]));
+        }
+        for (Map.Entry<String, TimeHistogram> e : CASTS.entrySet()) {
+            rows.add(row("cast " + e.getKey(), e.getValue(), 0, 0));
+        }
+        if (SCHEDULER.count > 0) rows.add(row("scheduled tasks", SCHEDULER, 0, 0));
+
+        rows.sort(Comparator.comparingLong(Row::totalNanos).reversed());
+        return rows;
+    }
+
+    private static Row row(String name, TimeHistogram h, int liveNow, int livePeak) {
+        return new Row(name, h.count, h.total, h.percentile(0.50), h.percentile(0.99), h.max, liveNow, livePeak);
+    }
+}
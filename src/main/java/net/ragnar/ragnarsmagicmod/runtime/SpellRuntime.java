@@ -0,0 +1,199 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+import net.ragnar.ragnarsmagicmod.config.ModConfig;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+import net.ragnar.ragnarsmagicmod.metrics.SpellMetrics;
+import net.ragnar.ragnarsmagicmod.network.PacketBundler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the single world-tick hook for every ticking spell effect.
+ * Effects are kept in per-world buckets, so worlds with nothing active cost one map lookup per tick
+ * and effect types with nothing active in a world cost one emptiness check.
+ */
+public final class SpellRuntime {
+    private SpellRuntime() {}
+
+    private static final List<EffectType> TYPES = new ArrayList<>();
+    private static final Map<RegistryKey<World>, WorldBucket> BUCKETS = new HashMap<>();
+    private static boolean initialized = false;
+
+    private static final EffectType SLICED = registerType("sliced_work");
+
+    /** Registers the tick hook once. Called from the mod initializer. */
+    public static void init() {
+        if (initialized) return;
+        initialized = true;
+
+        ServerTickEvents.END_WORLD_TICK.register(SpellRuntime::tickWorld);
+        OwnerHandles.init();
+        PlayerBuffs.init();
+        PacketBundler.init();
+        FxQuality.init();
+        CastLimiter.init();
+        // buckets hold world/entity references, don't carry them into the next server (singleplayer)
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> BUCKETS.clear());
+    }
+
+    /** Declare a new kind of effect. Call once, from a static field initializer. */
+    public static EffectType registerType(String name) {
+        return registerType(name, 0);
+    }
+
+    /**
+     * Declare a new kind of effect whose instances never live longer than {@code maxLifetimeTicks}.
+     * {@link SpellMemory} flags instances older than that as leaked.
+     */
+    public static EffectType registerType(String name, int maxLifetimeTicks) {
+        EffectType type = new EffectType(name, TYPES.size(), maxLifetimeTicks);
+        TYPES.add(type);
+        return type;
+    }
+
+    public static List<EffectType> getTypes() {
+        return Collections.unmodifiableList(TYPES);
+    }
+
+    /**
+     * Start ticking an effect in the given world, beginning with that world's next tick.
+     * @return false if the type's {@link EffectCap} turned it away (rejected or merged into a live
+     * instance); the effect has then already been finished
+     */
+    public static boolean spawn(ServerWorld world, EffectType type, SpellEffect effect) {
+        effect.origin = SpellContext.current();
+        effect.spawnTick = world.getTime();
+        effect.caster = SpellContext.caster();
+        effect.cpuNanos = 0;
+        effect.avgNanos = 0;
+        effect.strikes = 0;
+        effect.evicted = false;
+        WorldBucket bucket = bucket(world);
+        if (!EffectCaps.admit(world, bucket, type, effect)) {
+            effect.finish();
+            return false;
+        }
+        bucket.add(type, effect);
+        return true;
+    }
+
+    /**
+     * False if a cast by {@code player} would only have its effect rejected by the type's cap, so
+     * spells with a {@link CapPolicy#REJECT} cap can refuse before doing anything.
+     */
+    public static boolean hasRoom(ServerWorld world, EffectType type, PlayerEntity player) {
+        WorldBucket bucket = peekBucket(world);
+        return bucket == null || !EffectCaps.wouldReject(bucket, type, player.getUuid());
+    }
+
+    /**
+     * Run {@code work} a step at a time for at most {@code budgetNanos} per tick, starting now.
+     * Whatever is left when the budget runs out carries over to the following ticks (at least one
+     * step per tick, so it always finishes); the carried part runs with the same {@link SpellContext}
+     * as this call.
+     * @return true if the work already finished within this tick
+     */
+    public static boolean runSliced(ServerWorld world, long budgetNanos, SlicedWork work) {
+        if (!Sliced.run(world, work, budgetNanos)) return true;
+        spawn(world, SLICED, new Sliced(work, budgetNanos));
+        return false;
+    }
+
+    /** {@link #runSliced(ServerWorld, long, SlicedWork)} with the configured {@code slice.budgetMs}. */
+    public static boolean runSliced(ServerWorld world, SlicedWork work) {
+        return runSliced(world, (long) (ModConfig.sliceBudgetMs * 1.0e6), work);
+    }
+
+    /** Number of live instances of a type in a world. */
+    public static int count(ServerWorld world, EffectType type) {
+        WorldBucket bucket = peekBucket(world);
+        return bucket == null ? 0 : bucket.count(type);
+    }
+
+    /** Live instances of a type across all worlds. */
+    static int liveCount(EffectType type) {
+        int n = 0;
+        for (WorldBucket bucket : BUCKETS.values()) n += bucket.count(type);
+        return n;
+    }
+
+    static WorldBucket bucket(ServerWorld world) {
+        return BUCKETS.computeIfAbsent(world.getRegistryKey(), k -> new WorldBucket());
+    }
+
+    static WorldBucket peekBucket(ServerWorld world) {
+        return BUCKETS.get(world.getRegistryKey());
+    }
+
+    static Map<RegistryKey<World>, WorldBucket> buckets() {
+        return BUCKETS;
+    }
+
+    private static void tickWorld(ServerWorld world) {
+        if (AllocationProbe.ENABLED) AllocationProbe.tick();
+
+        WorldBucket bucket = BUCKETS.get(world.getRegistryKey());
+        if (bucket == null) return;
+        if (bucket.wheel.size == 0 && bucket.live == 0) return;
+
+        // everything effects emit this tick goes out as one bundle per player at the end of the server tick
+        PacketBundler.begin();
+        int particles = SpellCounters.particlesEmitted;
+        int sounds = SpellCounters.soundsPlayed;
+        FxPriority outerPriority = ParticleBudget.setPriority(FxPriority.NORMAL);
+        try {
+            // the wheel keeps its own clock, so an empty wheel doesn't need to advance at all
+            if (bucket.wheel.size > 0) advanceWheel(world, bucket);
+            if (bucket.live > 0) bucket.tick(world);
+        } finally {
+            PacketBundler.end();
+            ParticleBudget.setPriority(outerPriority);
+            SpellMetrics.emitted(SpellCounters.particlesEmitted - particles, SpellCounters.soundsPlayed - sounds);
+        }
+    }
+
+    private static void advanceWheel(ServerWorld world, WorldBucket bucket) {
+        if (!SpellProfiler.isRunning()) {
+            bucket.wheel.advance(world);
+            return;
+        }
+        long start = System.nanoTime();
+        bucket.wheel.advance(world);
+        SpellProfiler.recordScheduler(System.nanoTime() - start);
+    }
+
+    // carries a SlicedWork over from tick to tick
+    private static final class Sliced extends SpellEffect {
+        final SlicedWork work;
+        final long budgetNanos;
+
+        Sliced(SlicedWork work, long budgetNanos) {
+            this.work = work;
+            this.budgetNanos = budgetNanos;
+        }
+
+        // steps until the work is done (false) or the budget is spent (true)
+        static boolean run(ServerWorld world, SlicedWork work, long budgetNanos) {
+            long deadline = System.nanoTime() + budgetNanos;
+            do {
+                if (!work.step(world)) return false;
+            } while (System.nanoTime() < deadline);
+            return true;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return run(world, work, budgetNanos);
+        }
+    }
+}
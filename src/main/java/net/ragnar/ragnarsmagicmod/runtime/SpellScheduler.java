@@ -0,0 +1,61 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.UUID;
+
+/**
+ * Runs one-shot work a fixed number of ticks from now, in a given world.
+ * Use this instead of a {@link SpellEffect} that only counts down: a scheduled task costs nothing until it is due.
+ * Tasks run at the start of the world's spell tick, before effects are ticked.
+ */
+public final class SpellScheduler {
+    private SpellScheduler() {}
+
+    @FunctionalInterface
+    public interface Task {
+        void run(ServerWorld world);
+    }
+
+    /** Returned by {@link #schedule}; lets the caller call the task off before it fires. */
+    public static final class Handle {
+        final Task task;
+        long due;
+        int delay;
+        String origin;
+        UUID caster;
+        Handle next;
+        boolean cancelled;
+        boolean fired;
+
+        Handle(Task task) {
+            this.task = task;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isPending() {
+            return !cancelled && !fired;
+        }
+    }
+
+    /**
+     * Run a task in {@code delayTicks} ticks of this world. Delays below 1 mean the next tick.
+     * Pending tasks are dropped if the server stops.
+     */
+    public static Handle schedule(ServerWorld world, int delayTicks, Task task) {
+        Handle h = new Handle(task);
+        h.origin = SpellContext.current();
+        h.caster = SpellContext.caster();
+        SpellRuntime.bucket(world).wheel.schedule(h, delayTicks);
+        return h;
+    }
+
+    /** Number of tasks waiting in this world (cancelled ones count until their slot is reached). */
+    public static int pending(ServerWorld world) {
+        WorldBucket bucket = SpellRuntime.peekBucket(world);
+        return bucket == null ? 0 : bucket.wheel.size;
+    }
+}
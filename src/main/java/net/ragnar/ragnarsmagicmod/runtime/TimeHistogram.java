@@ -0,0 +1,60 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of nanosecond timings. Buckets are log-linear: every power of two is split
+ * into {@value #SUB} sub-buckets, so percentiles are within 12.5% of the true value and recording is
+ * a couple of shifts and an array increment, with no allocation.
+ */
+final class TimeHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS) * SUB];
+    long count;
+    long total;
+    long max;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /** Upper bound of the bucket holding the {@code p}-th quantile (0..1), capped at the real max. */
+    long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) return Math.min(upperBound(b), max);
+        }
+        return max;
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    private static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1));
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int b) {
+        if (b < SUB) return b;
+        int exp = b / SUB + SUB_BITS - 1;
+        int shift = exp - SUB_BITS;
+        long lower = (long) (SUB + b % SUB) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,143 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.jfr.ScheduledTaskEvent;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: 4 levels of 64 slots (tick, 64 ticks, ~3 min, ~3.8 h) plus an overflow list.
+ * Scheduling is O(1); advancing one tick touches one level-0 slot, and a higher level slot only when
+ * its boundary is crossed, at which point its entries cascade down. Entries that aren't due are never looked at.
+ *
+ * Time is the wheel's own tick counter, not world time, so /time set can't skip or replay anything.
+ */
+final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final SpellScheduler.Handle[] heads = new SpellScheduler.Handle[LEVELS * SLOTS];
+    private final SpellScheduler.Handle[] tails = new SpellScheduler.Handle[LEVELS * SLOTS];
+    private SpellScheduler.Handle overflowHead, overflowTail;
+
+    private long now = 0;
+    int size = 0;
+
+    void schedule(SpellScheduler.Handle h, int delay) {
+        h.delay = Math.max(1, delay);
+        h.due = now + h.delay;
+        insert(h);
+        size++;
+    }
+
+    long now() {
+        return now;
+    }
+
+    /** Visit every pending entry, cancelled ones included. Nothing may be scheduled meanwhile. */
+    void forEach(Consumer<SpellScheduler.Handle> action) {
+        for (SpellScheduler.Handle head : heads) {
+            for (SpellScheduler.Handle h = head; h != null; h = h.next) action.accept(h);
+        }
+        for (SpellScheduler.Handle h = overflowHead; h != null; h = h.next) action.accept(h);
+    }
+
+    /** Advance one tick and run everything due on it. */
+    void advance(ServerWorld world) {
+        now++;
+
+        // cascade from the highest boundary crossed, so entries can fall through several levels
+        if ((now & ((1L << (BITS * LEVELS)) - 1)) == 0) cascadeOverflow();
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((now & ((1L << (BITS * level)) - 1)) == 0) {
+                cascade(level, (int) ((now >>> (BITS * level)) & MASK));
+            }
+        }
+
+        int idx = (int) (now & MASK);
+        SpellScheduler.Handle h = heads[idx];
+        if (h == null) return;
+        heads[idx] = null;
+        tails[idx] = null;
+
+        // tasks may schedule more work; that always lands on a later tick, never in this detached list
+        while (h != null) {
+            SpellScheduler.Handle next = h.next;
+            h.next = null;
+            size--;
+            if (!h.cancelled) {
+                h.fired = true;
+                run(world, h);
+            }
+            h = next;
+        }
+    }
+
+    private static void run(ServerWorld world, SpellScheduler.Handle h) {
+        String outer = SpellContext.set(h.origin);
+        UUID outerCaster = SpellContext.setCaster(h.caster);
+        ScheduledTaskEvent event = new ScheduledTaskEvent();
+        if (!event.isEnabled()) {
+            h.task.run(world);
+            SpellContext.set(outer);
+            SpellContext.setCaster(outerCaster);
+            return;
+        }
+        event.begin();
+        h.task.run(world);
+        event.end();
+        SpellContext.set(outer);
+        SpellContext.setCaster(outerCaster);
+        if (event.shouldCommit()) {
+            event.task = h.task.getClass();
+            event.world = world.getRegistryKey().getValue().toString();
+            event.delayTicks = h.delay;
+            event.commit();
+        }
+    }
+
+    private void insert(SpellScheduler.Handle h) {
+        // lowest level whose parent slot is the current one; the entry's slot there is still ahead of us
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((h.due >>> shift) == (now >>> shift)) {
+                append(level * SLOTS + (int) ((h.due >>> (BITS * level)) & MASK), h);
+                return;
+            }
+        }
+        if (overflowTail == null) overflowHead = h; else overflowTail.next = h;
+        overflowTail = h;
+    }
+
+    private void append(int idx, SpellScheduler.Handle h) {
+        if (tails[idx] == null) heads[idx] = h; else tails[idx].next = h;
+        tails[idx] = h;
+    }
+
+    private void cascade(int level, int slot) {
+        int idx = level * SLOTS + slot;
+        SpellScheduler.Handle h = heads[idx];
+        heads[idx] = null;
+        tails[idx] = null;
+        reinsert(h);
+    }
+
+    private void cascadeOverflow() {
+        SpellScheduler.Handle h = overflowHead;
+        overflowHead = null;
+        overflowTail = null;
+        reinsert(h);
+    }
+
+    private void reinsert(SpellScheduler.Handle h) {
+        while (h != null) {
+            SpellScheduler.Handle next = h.next;
+            h.next = null;
+            if (h.cancelled) size--; else insert(h);
+            h = next;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package net.ragnar.ragnarsmagicmod.runtime;
+
+import net.minecraft.server.world.ServerWorld;
+import net.ragnar.ragnarsmagicmod.jfr.EffectTickEvent;
+import net.ragnar.ragnarsmagicmod.jfr.SpellCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Active effects and scheduled tasks of one world, effects grouped by effect type. */
+final class WorldBucket {
+    final TimingWheel wheel = new TimingWheel();
+
+    // indexed by EffectType.index; null until that type spawns something here
+    private final List<ArrayList<SpellEffect>> byType = new ArrayList<>();
+    int live = 0;
+    // ParticleBudget's books for the current world tick
+    long particleTick = -1;
+    int particlesUsed;
+
+    void add(EffectType type, SpellEffect effect) {
+        while (byType.size() <= type.index) byType.add(null);
+        ArrayList<SpellEffect> list = byType.get(type.index);
+        if (list == null) {
+            list = new ArrayList<>();
+            byType.set(type.index, list);
+        }
+        list.add(effect);
+        live++;
+    }
+
+    /** Live instances of a type, or null if it never spawned here. Don't modify. */
+    List<SpellEffect> effects(EffectType type) {
+        return type.index < byType.size() ? byType.get(type.index) : null;
+    }
+
+    int count(EffectType type) {
+        if (type.index >= byType.size()) return 0;
+        ArrayList<SpellEffect> list = byType.get(type.index);
+        return list == null ? 0 : list.size();
+    }
+
+    void tick(ServerWorld world) {
+        for (int i = 0; i < byType.size(); i++) {
+            ArrayList<SpellEffect> list = byType.get(i);
+            if (list == null || list.isEmpty()) continue;
+            if (AllocationProbe.ENABLED) {
+                int n = list.size();
+                long start = AllocationProbe.begin();
+                tickList(world, i, list);
+                AllocationProbe.end(i, start, n);
+            } else {
+                EffectTickEvent event = new EffectTickEvent();
+                if (SpellProfiler.isRunning() || event.isEnabled()) {
+                    tickMeasured(world, i, list, event);
+                } else {
+                    tickList(world, i, list);
+                }
+            }
+        }
+    }
+
+    private void tickMeasured(ServerWorld world, int typeIndex, ArrayList<SpellEffect> list, EffectTickEvent event) {
+        int n = list.size();
+        int entities = SpellCounters.entitiesQueried;
+        int particles = SpellCounters.particlesEmitted;
+
+        event.begin();
+        long start = System.nanoTime();
+        tickList(world, typeIndex, list);
+        long nanos = System.nanoTime() - start;
+        event.end();
+
+        if (SpellProfiler.isRunning()) SpellProfiler.recordTick(typeIndex, nanos, n);
+        if (event.shouldCommit()) {
+            event.effectType = SpellRuntime.getTypes().get(typeIndex).getName();
+            event.world = world.getRegistryKey().getValue().toString();
+            event.instances = n;
+            event.entitiesQueried = SpellCounters.entitiesQueried - entities;
+            event.particlesEmitted = SpellCounters.particlesEmitted - particles;
+            event.commit();
+        }
+    }
+
+    /**
+     * Ticks every effect in the list and compacts out the finished ones in place.
+     * Effects spawned into this list while it is being ticked are kept and first tick next time.
+     * Finished effects are handed back through {@link SpellEffect#finish()} (which recycles pooled ones).
+     * With the {@link EffectWatchdog} on, each tick is timed and runaway effects are finished early.
+     */
+    private void tickList(ServerWorld world, int typeIndex, ArrayList<SpellEffect> list) {
+        int n = list.size();
+        int w = 0;
+        FxPriority outerPriority = ParticleBudget.setPriority(SpellRuntime.getTypes().get(typeIndex).getFxPriority());
+        boolean watched = EffectWatchdog.isEnabled();
+        String outer = SpellContext.current();
+        UUID outerCaster = SpellContext.caster();
+        for (int r = 0; r < n; r++) {
+            SpellEffect e = list.get(r);
+            SpellContext.set(e.origin);
+            SpellContext.setCaster(e.caster);
+            boolean alive;
+            if (e.evicted) {
+                e.onTerminated(world);
+                alive = false;
+            } else if (watched) {
+                long start = System.nanoTime();
+                alive = e.tick(world);
+                if (alive && EffectWatchdog.check(world, typeIndex, e, System.nanoTime() - start)) {
+                    e.onTerminated(world);
+                    alive = false;
+                }
+            } else {
+                alive = e.tick(world);
+            }
+            if (alive) {
+                if (w != r) list.set(w, e);
+                w++;
+            } else {
+                e.finish();
+            }
+        }
+        SpellContext.set(outer);
+        SpellContext.setCaster(outerCaster);
+        ParticleBudget.setPriority(outerPriority);
+
+        int size = list.size();
+        for (int r = n; r < size; r++) {
+            list.set(w++, list.get(r));
+        }
+        live -= size - w;
+        while (list.size() > w) list.remove(list.size() - 1);
+    }
+}
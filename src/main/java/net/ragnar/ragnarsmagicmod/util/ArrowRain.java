@@ -1,7 +1,6 @@
 // File: src/main/java/net/ragnar/ragnarsmagicmod/util/ArrowRain.java
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.projectile.ArrowEntity;
 import net.minecraft.entity.projectile.PersistentProjectileEntity;
 import net.minecraft.item.ItemStack;
@@ -13,17 +12,18 @@ import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.math.Vec3d;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
+
 import java.util.UUID;
 
 public final class ArrowRain {
     private ArrowRain() {}
 
-    private static boolean registered = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("arrow_rain");
 
-    private static class RainState {
+    private static class RainState extends SpellEffect {
         ServerWorld world;
         Vec3d targetCenter;
         UUID casterId;
@@ -39,46 +39,35 @@ public final class ArrowRain {
             this.casterId = id;
             this.age = 0;
         }
-    }
-
-    private static final List<RainState> RAINS = new ArrayList<>();
-
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (RAINS.isEmpty()) return;
 
-            Iterator<RainState> it = RAINS.iterator();
-            while (it.hasNext()) {
-                RainState s = it.next();
-                if (s.world != world) continue;
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickRain(this);
+        }
+    }
 
-                s.age++;
+    private static boolean tickRain(RainState s) {
+        s.age++;
 
-                if (s.age <= s.duration) {
-                    // Logic preserved: Spawns 2 arrows every 2 ticks
-                    if (s.age % 2 == 0) {
-                        spawnArrow(s);
-                        spawnArrow(s);
-                    }
+        if (s.age <= s.duration) {
+            // Logic preserved: Spawns 2 arrows every 2 ticks
+            if (s.age % 2 == 0) {
+                spawnArrow(s);
+                spawnArrow(s);
+            }
 
-                    if (s.age % 10 == 0) {
-                        float weirdPitch = 0.5f + s.world.random.nextFloat();
-                        s.world.playSound(null, s.targetCenter.x, s.targetCenter.y + s.spawnHeight, s.targetCenter.z,
-                                SoundEvents.ENTITY_PHANTOM_FLAP, SoundCategory.PLAYERS, 2.0f, weirdPitch);
-                    }
-                } else {
-                    it.remove();
-                }
+            if (s.age % 10 == 0) {
+                float weirdPitch = 0.5f + s.world.random.nextFloat();
+                s.world.playSound(null, s.targetCenter.x, s.targetCenter.y + s.spawnHeight, s.targetCenter.z,
+                        SoundEvents.ENTITY_PHANTOM_FLAP, SoundCategory.PLAYERS, 2.0f, weirdPitch);
             }
-        });
+            return true;
+        }
+        return false;
     }
 
     public static void create(ServerWorld world, Vec3d center, UUID casterId) {
-        ensureRegistered();
-        RAINS.add(new RainState(world, center, casterId));
+        SpellRuntime.spawn(world, TYPE, new RainState(world, center, casterId));
     }
 
     private static void spawnArrow(RainState s) {
@@ -1,123 +1,139 @@
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
+import net.ragnar.ragnarsmagicmod.runtime.BuffKind;
+import net.ragnar.ragnarsmagicmod.runtime.EffectPool;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.PlayerBuffs;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.UUID;
 
 public final class CloudRunner {
     private CloudRunner() {}
 
-    private static boolean registered = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("cloud_flight");
 
-    // State: ticksLeft determines phase.
-    private record ActiveFlight(ServerWorld world, UUID playerId, int ticksLeft, boolean isCreative) {}
+    private static final EffectPool<ActiveFlight> POOL = new EffectPool<>(32, ActiveFlight::new);
 
-    private static final List<ActiveFlight> ACTIVE = new ArrayList<>();
+    // Flight time lives in a CLOUD_FLIGHT buff on the player; this effect only drives the launch,
+    // the warning sounds and the particles in the player's current world. Pooled, so set() must reset every field.
+    private static final class ActiveFlight extends SpellEffect {
+        OwnerHandle owner;
+        PlayerBuffs.Buff buff;
+
+        ActiveFlight set(OwnerHandle owner, PlayerBuffs.Buff buff) {
+            this.owner = owner;
+            this.buff = buff;
+            return this;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickFlight(world, this);
+        }
+
+        @Override
+        protected void onFinished() {
+            owner = null;
+            buff = null;
+        }
+    }
 
     // Launch duration before "sudden stop"
     private static final int LAUNCH_TICKS = 8;
 
+    static {
+        PlayerBuffs.onExpired(BuffKind.CLOUD_FLIGHT, CloudRunner::endFlight);
+        PlayerBuffs.onRelocated(BuffKind.CLOUD_FLIGHT, (player, world, buff) ->
+                SpellRuntime.spawn(world, TYPE, POOL.acquire().set(OwnerHandles.of(player), buff)));
+    }
+
     public static void start(ServerWorld world, PlayerEntity player, int durationTicks) {
-        ensureRegistered();
         // Launch user immediately
         player.addVelocity(0, 1.25, 0);
         player.velocityModified = true;
 
-        ACTIVE.add(new ActiveFlight(world, player.getUuid(), durationTicks, player.isCreative()));
+        // a recast while flying extends the buff; the running effect sees the reset timer and relaunches
+        boolean fresh = !PlayerBuffs.has(player, BuffKind.CLOUD_FLIGHT);
+        PlayerBuffs.Buff buff = PlayerBuffs.apply(player, BuffKind.CLOUD_FLIGHT, durationTicks);
+        if (fresh) {
+            SpellRuntime.spawn(world, TYPE, POOL.acquire().set(OwnerHandles.of(player), buff));
+        }
     }
 
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (ACTIVE.isEmpty()) return;
-
-            Iterator<ActiveFlight> it = ACTIVE.iterator();
-            List<ActiveFlight> requeue = new ArrayList<>();
-
-            while (it.hasNext()) {
-                ActiveFlight f = it.next();
-                if (f.world != world) continue;
-
-                PlayerEntity p = world.getPlayerByUuid(f.playerId);
-
-                // Cleanup if player is gone or dead
-                if (p == null || p.isRemoved() || !p.isAlive()) {
-                    it.remove();
-                    continue;
-                }
-
-                int totalDuration = 400; // 20 seconds
-                int elapsed = totalDuration - f.ticksLeft;
-
-                // --- 3 Second Warning Logic ---
-                if (f.ticksLeft == 60) { // 3 Seconds remaining
-                    world.playSound(null, p.getX(), p.getY(), p.getZ(),
-                            SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 1.4F);
-                } else if (f.ticksLeft == 40) { // 2 Seconds remaining
-                    world.playSound(null, p.getX(), p.getY(), p.getZ(),
-                            SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 1.1F); // Lower
-                } else if (f.ticksLeft == 20) { // 1 Second remaining
-                    world.playSound(null, p.getX(), p.getY(), p.getZ(),
-                            SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 0.7F); // Lowest
-                }
-                // ------------------------------
-
-                // Movement/Flight Logic
-                if (elapsed < LAUNCH_TICKS) {
-                    // Phase 1: Launching
-                    world.spawnParticles(ParticleTypes.CLOUD, p.getX(), p.getY(), p.getZ(), 1, 0.2, 0.1, 0.2, 0.1);
-                } else if (elapsed == LAUNCH_TICKS) {
-                    // Phase 2: Sudden Stop & Stabilize
-                    p.setVelocity(0, 0, 0);
-                    p.velocityModified = true;
-
-                    if (!p.isSpectator()) {
-                        p.getAbilities().allowFlying = true;
-                        p.getAbilities().flying = true;
-                        p.sendAbilitiesUpdate();
-                    }
-
-                    world.playSound(null, p.getBlockPos(), SoundEvents.BLOCK_POWDER_SNOW_BREAK, SoundCategory.PLAYERS, 1.0f, 0.5f);
-                } else {
-                    // Phase 3: Flying
-                    if (!p.isCreative() && !p.isSpectator()) {
-                        p.getAbilities().allowFlying = true;
-                        p.sendAbilitiesUpdate();
-                    }
-
-                    if (!p.isOnGround()) {
-                        world.spawnParticles(ParticleTypes.CLOUD, p.getX(), p.getY() - 0.2, p.getZ(),
-                                2, 0.3, 0.05, 0.3, 0.01);
-                    }
-                }
-
-                int t = f.ticksLeft - 1;
-                if (t <= 0) {
-                    // Time up: Disable flight
-                    if (!f.isCreative && !p.isSpectator()) {
-                        p.getAbilities().allowFlying = false;
-                        p.getAbilities().flying = false;
-                        p.sendAbilitiesUpdate();
-                    }
-                    // End sound (Extinguish)
-                    world.playSound(null, p.getBlockPos(), SoundEvents.BLOCK_LAVA_EXTINGUISH, SoundCategory.PLAYERS, 0.5f, 2.0f);
-                    it.remove();
-                } else {
-                    requeue.add(new ActiveFlight(f.world, f.playerId, t, f.isCreative));
-                    it.remove();
-                }
+    private static boolean tickFlight(ServerWorld world, ActiveFlight f) {
+        PlayerEntity p = f.owner.get();
+
+        // Cleanup if player is gone or dead, or the flight ran out (endFlight handles the landing)
+        if (p == null || p.isRemoved() || !p.isAlive() || !f.buff.isActive()) {
+            return false;
+        }
+
+        int ticksLeft = f.buff.remaining();
+        int totalDuration = 400; // 20 seconds
+        int elapsed = totalDuration - ticksLeft;
+
+        // --- 3 Second Warning Logic ---
+        if (ticksLeft == 60) { // 3 Seconds remaining
+            world.playSound(null, p.getX(), p.getY(), p.getZ(),
+                    SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 1.4F);
+        } else if (ticksLeft == 40) { // 2 Seconds remaining
+            world.playSound(null, p.getX(), p.getY(), p.getZ(),
+                    SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 1.1F); // Lower
+        } else if (ticksLeft == 20) { // 1 Second remaining
+            world.playSound(null, p.getX(), p.getY(), p.getZ(),
+                    SoundEvents.BLOCK_DECORATED_POT_INSERT_FAIL, SoundCategory.PLAYERS, 1.4F, 0.7F); // Lowest
+        }
+        // ------------------------------
+
+        // Movement/Flight Logic
+        if (elapsed < LAUNCH_TICKS) {
+            // Phase 1: Launching
+            world.spawnParticles(ParticleTypes.CLOUD, p.getX(), p.getY(), p.getZ(), 1, 0.2, 0.1, 0.2, 0.1);
+        } else if (elapsed == LAUNCH_TICKS) {
+            // Phase 2: Sudden Stop & Stabilize
+            p.setVelocity(0, 0, 0);
+            p.velocityModified = true;
+
+            if (!p.isSpectator()) {
+                p.getAbilities().allowFlying = true;
+                p.getAbilities().flying = true;
+                p.sendAbilitiesUpdate();
             }
-            ACTIVE.addAll(requeue);
-        });
+
+            world.playSound(null, p.getBlockPos(), SoundEvents.BLOCK_POWDER_SNOW_BREAK, SoundCategory.PLAYERS, 1.0f, 0.5f);
+        } else {
+            // Phase 3: Flying
+            if (!p.isCreative() && !p.isSpectator()) {
+                p.getAbilities().allowFlying = true;
+                p.sendAbilitiesUpdate();
+            }
+
+            if (!p.isOnGround()) {
+                world.spawnParticles(ParticleTypes.CLOUD, p.getX(), p.getY() - 0.2, p.getZ(),
+                        2, 0.3, 0.05, 0.3, 0.01);
+            }
+        }
+
+        return true;
+    }
+
+    private static void endFlight(ServerPlayerEntity p) {
+        // Time up: Disable flight
+        if (!p.isCreative() && !p.isSpectator()) {
+            p.getAbilities().allowFlying = false;
+            p.getAbilities().flying = false;
+            p.sendAbilitiesUpdate();
+        }
+        // End sound (Extinguish)
+        p.getServerWorld().playSound(null, p.getBlockPos(), SoundEvents.BLOCK_LAVA_EXTINGUISH, SoundCategory.PLAYERS, 0.5f, 2.0f);
     }
-}
\ No newline at end of file
+}
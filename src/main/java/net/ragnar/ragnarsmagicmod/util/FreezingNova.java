@@ -1,7 +1,6 @@
 // File: src/main/java/net/ragnar/ragnarsmagicmod/util/FreezingNova.java
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffectInstance;
@@ -13,22 +12,33 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.fx.FxBatch;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitter;
+import net.ragnar.ragnarsmagicmod.fx.FxEmitters;
+import net.ragnar.ragnarsmagicmod.fx.FxLayer;
+import net.ragnar.ragnarsmagicmod.fx.FxShape;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.SlicedWork;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
+
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
 public final class FreezingNova {
     private FreezingNova() {}
 
-    private static boolean registered = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("freezing_nova");
 
-    private static class NovaState {
+    private static class NovaState extends SpellEffect {
         ServerWorld world;
         Vec3d center;
         UUID casterId;
         int age;
         float currentRadius;
+        // set once the runtime drops the effect, so a detonation still being sliced stops there
+        boolean finished;
 
         // Settings
         final float maxRadius = 22.0f;
@@ -46,65 +56,62 @@ public final class FreezingNova {
             this.age = 0;
             this.currentRadius = 0;
         }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickNova(world, this);
+        }
+
+        @Override
+        protected void onFinished() {
+            finished = true;
+            frozenTargets.clear();
+        }
     }
 
-    private static final List<NovaState> NOVAS = new ArrayList<>();
-
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (NOVAS.isEmpty()) return;
-
-            Iterator<NovaState> it = NOVAS.iterator();
-            while (it.hasNext()) {
-                NovaState s = it.next();
-                if (s.world != world) continue;
-
-                s.age++;
-                int detonateTick = s.expansionTicks + s.holdTicks;       // 50
-                int finishTick = detonateTick + s.freezeDuration;        // 200
-
-                // 1. EXPANSION (0-40)
-                if (s.age <= s.expansionTicks) {
-                    s.currentRadius = (float) s.age / s.expansionTicks * s.maxRadius;
-                    if (s.age % 5 == 0) {
-                        float progress = (float) s.age / s.expansionTicks;
-                        world.playSound(null, s.center.x, s.center.y, s.center.z,
-                                SoundEvents.BLOCK_GLASS_PLACE, SoundCategory.PLAYERS, 2.0f, 0.5f + progress);
-                    }
-                    spawnSphereParticles(s.world, s.center, s.currentRadius);
-                }
-
-                // 2. HOLD (41-50)
-                else if (s.age <= detonateTick) {
-                    s.currentRadius = s.maxRadius;
-                    spawnSphereParticles(s.world, s.center, s.maxRadius);
-                }
-
-                // 3. DETONATION (50)
-                if (s.age == detonateTick) {
-                    freezeEverything(s);
-                }
-
-                // 4. LINGERING (51-150)
-                // Continuously spawn particles on victims until they unfreeze
-                if (s.age > detonateTick && s.age <= finishTick) {
-                    spawnLingeringParticles(s);
-                }
-
-                // cleanup
-                if (s.age > finishTick) {
-                    it.remove();
-                }
+    private static boolean tickNova(ServerWorld world, NovaState s) {
+        s.age++;
+        int detonateTick = s.expansionTicks + s.holdTicks;       // 50
+        int finishTick = detonateTick + s.freezeDuration;        // 200
+
+        // 1. EXPANSION (0-40)
+        if (s.age <= s.expansionTicks) {
+            s.currentRadius = (float) s.age / s.expansionTicks * s.maxRadius;
+            if (s.age % 5 == 0) {
+                float progress = (float) s.age / s.expansionTicks;
+                world.playSound(null, s.center.x, s.center.y, s.center.z,
+                        SoundEvents.BLOCK_GLASS_PLACE, SoundCategory.PLAYERS, 2.0f, 0.5f + progress);
             }
-        });
+        }
+
+        // 2. HOLD (41-50)
+        else if (s.age <= detonateTick) {
+            s.currentRadius = s.maxRadius;
+        }
+
+        // 3. DETONATION (50)
+        if (s.age == detonateTick) {
+            freezeEverything(s);
+        }
+
+        // 4. LINGERING (51-150)
+        // Continuously spawn particles on victims until they unfreeze
+        if (s.age > detonateTick && s.age <= finishTick) {
+            spawnLingeringParticles(s);
+        }
+
+        return s.age <= finishTick;
     }
 
     public static void create(ServerWorld world, Vec3d center, UUID casterId) {
-        ensureRegistered();
-        NOVAS.add(new NovaState(world, center, casterId));
+        NovaState s = new NovaState(world, center, casterId);
+        SpellRuntime.spawn(world, TYPE, s);
+
+        // expanding + holding snow sphere is animated by the clients, ~12 snowflakes per block of radius
+        FxEmitters.start(world, new FxEmitter(center, s.expansionTicks + s.holdTicks)
+                .layer(FxLayer.of(FxShape.SCATTER, ParticleTypes.SNOWFLAKE)
+                        .radius(0.0f, s.maxRadius, s.expansionTicks)
+                        .points(0, (int) (s.maxRadius * 12))));
     }
 
     private static void freezeEverything(NovaState s) {
@@ -120,32 +127,46 @@ public final class FreezingNova {
         Box box = Box.of(s.center, s.maxRadius * 2, s.maxRadius * 2, s.maxRadius * 2);
         List<LivingEntity> targets = s.world.getEntitiesByClass(LivingEntity.class, box, e -> e.squaredDistanceTo(s.center) <= s.maxRadius * s.maxRadius);
 
-        for (LivingEntity e : targets) {
-            if (s.casterId != null && e.getUuid().equals(s.casterId)) continue;
+        // a crowded 22-block sphere is a lot of damage calls, let them spill into the next ticks
+        SpellRuntime.runSliced(s.world, new SlicedWork() {
+            int next = 0;
+
+            @Override
+            public boolean step(ServerWorld world) {
+                if (s.finished || next >= targets.size()) return false;
+                freeze(s, targets.get(next++));
+                return next < targets.size();
+            }
+        });
+    }
 
-            // Damage + Effect
-            e.damage(s.world.getDamageSources().freeze(), 10.0f);
-            e.addStatusEffect(new StatusEffectInstance(StatusEffects.SLOWNESS, 100, 255, false, false, true));
-            e.addStatusEffect(new StatusEffectInstance(StatusEffects.MINING_FATIGUE, 100, 255, false, false, true));
+    private static void freeze(NovaState s, LivingEntity e) {
+        if (!e.isAlive()) return;
+        if (s.casterId != null && e.getUuid().equals(s.casterId)) return;
 
-            // Visual Freeze (Screen Tint / Shaking)
-            e.setFrozenTicks(240);
+        // Damage + Effect
+        e.damage(s.world.getDamageSources().freeze(), 10.0f);
+        e.addStatusEffect(new StatusEffectInstance(StatusEffects.SLOWNESS, 100, 255, false, false, true));
+        e.addStatusEffect(new StatusEffectInstance(StatusEffects.MINING_FATIGUE, 100, 255, false, false, true));
 
-            // Add to lingering list
-            s.frozenTargets.add(e);
-        }
+        // Visual Freeze (Screen Tint / Shaking)
+        e.setFrozenTicks(240);
+
+        // Add to lingering list
+        s.frozenTargets.add(e);
     }
 
     private static void spawnLingeringParticles(NovaState s) {
-        // Run every tick for smooth visuals
+        // Run every tick for smooth visuals, all victims in one packet
         var iceParticle = new BlockStateParticleEffect(ParticleTypes.BLOCK, Blocks.ICE.getDefaultState());
+        FxBatch fx = FxBatch.begin(s.world, s.center);
 
         for (LivingEntity e : s.frozenTargets) {
             if (!e.isAlive()) continue;
 
             // Spawn 2 particles per tick on every frozen entity
             // This creates a constant "crumbling ice" effect clinging to them
-            s.world.spawnParticles(
+            fx.particle(
                     iceParticle,
                     e.getX(), e.getY() + e.getHeight() / 2.0, e.getZ(),
                     2,                       // Count (Low per tick, but constant)
@@ -155,10 +176,12 @@ public final class FreezingNova {
                     0.02                     // Speed
             );
         }
+        fx.send();
     }
 
     private static void spawnSphereParticles(ServerWorld w, Vec3d center, float radius) {
         int particleCount = (int) (radius * 12);
+        FxBatch fx = FxBatch.begin(w, center);
         for (int i = 0; i < particleCount; i++) {
             double theta = w.random.nextDouble() * 2 * Math.PI;
             double phi = Math.acos(2 * w.random.nextDouble() - 1);
@@ -167,7 +190,8 @@ public final class FreezingNova {
             double y = center.y + radius * Math.sin(phi) * Math.sin(theta);
             double z = center.z + radius * Math.cos(phi);
 
-            w.spawnParticles(ParticleTypes.SNOWFLAKE, x, y, z, 1, 0, 0, 0, 0);
+            fx.particle(ParticleTypes.SNOWFLAKE, x, y, z, 1, 0, 0, 0, 0);
         }
+        fx.send();
     }
 }
\ No newline at end of file
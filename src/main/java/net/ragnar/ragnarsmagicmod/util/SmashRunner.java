@@ -1,6 +1,5 @@
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -10,29 +9,57 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.runtime.BuffKind;
+import net.ragnar.ragnarsmagicmod.runtime.EffectPool;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandle;
+import net.ragnar.ragnarsmagicmod.runtime.OwnerHandles;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.PlayerBuffs;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
 
 public final class SmashRunner {
     private SmashRunner() {}
 
-    private static boolean registered = false;
+    private static final EffectPool<ActiveSmash> POOL = new EffectPool<>(32, ActiveSmash::new);
 
-    // Phases: 0 = Launching/Rising, 1 = Smashing (Falling)
-    private record ActiveSmash(ServerWorld world, UUID playerId, int age, int phase) {}
+    // Phases: 0 = Launching/Rising, 1 = Smashing (Falling). Pooled, so set() must reset every field.
+    private static final class ActiveSmash extends SpellEffect {
+        OwnerHandle owner;
+        int age;
+        int phase;
 
-    private static final List<ActiveSmash> ACTIVE = new ArrayList<>();
+        ActiveSmash set(OwnerHandle owner) {
+            this.owner = owner;
+            this.age = 0;
+            this.phase = 0;
+            return this;
+        }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickSmash(world, this);
+        }
+
+        @Override
+        protected void onFinished() {
+            owner = null;
+        }
+    }
 
     // Tweakables
     private static final int PEAK_TIME = 15; // Ticks to reach peak/hang
     private static final double SMASH_RADIUS = 5.0;
     private static final float DAMAGE = 12.0f; // 6 Hearts
+    private static final int MAX_TICKS = 100; // safety timeout (void)
+
+    private static final EffectType TYPE = SpellRuntime.registerType("smash", MAX_TICKS);
 
     public static void start(ServerWorld world, PlayerEntity player) {
-        ensureRegistered();
         // 1. Launch Effect
         player.addVelocity(0, 1.35, 0); // approx 10-12 blocks
         player.velocityModified = true;
@@ -41,81 +68,65 @@ public final class SmashRunner {
         world.playSound(null, player.getBlockPos(), SoundEvents.ENTITY_WIND_CHARGE_THROW, SoundCategory.PLAYERS, 1.0f, 0.8f);
         world.spawnParticles(ParticleTypes.CLOUD, player.getX(), player.getY(), player.getZ(), 10, 0.2, 0.1, 0.2, 0.1);
 
-        ACTIVE.add(new ActiveSmash(world, player.getUuid(), 0, 0));
+        // fall damage is cancelled by the mixin hook for the whole move, cleared again on impact
+        PlayerBuffs.apply(player, BuffKind.FALL_IMMUNE, MAX_TICKS + 1);
+        SpellRuntime.spawn(world, TYPE, POOL.acquire().set(OwnerHandles.of(player)));
     }
 
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (ACTIVE.isEmpty()) return;
-
-            Iterator<ActiveSmash> it = ACTIVE.iterator();
-            List<ActiveSmash> requeue = new ArrayList<>();
-
-            while (it.hasNext()) {
-                ActiveSmash s = it.next();
-                if (s.world != world) continue;
-
-                PlayerEntity p = world.getPlayerByUuid(s.playerId);
-                if (p == null || p.isRemoved() || !p.isAlive()) {
-                    it.remove();
-                    continue;
-                }
-
-                // Always Negate fall damage during the move
-                p.fallDistance = 0;
-
-                int nextPhase = s.phase;
-                int nextAge = s.age + 1;
-                boolean keepGoing = true;
-
-                if (s.phase == 0) {
-                    // RISING PHASE
-                    // Particle trail
-                    if (nextAge % 2 == 0) {
-                        world.spawnParticles(ParticleTypes.CAMPFIRE_COSY_SMOKE, p.getX(), p.getY(), p.getZ(), 1, 0, 0, 0, 0);
-                    }
-
-                    // Check if we hit peak or waiting time is over
-                    if (nextAge >= PEAK_TIME || p.getVelocity().y < -0.1) {
-                        // SWITCH TO SMASH
-                        nextPhase = 1;
-                        // Force Downward Velocity
-                        p.setVelocity(0, -3.5, 0);
-                        p.velocityModified = true;
-                        p.velocityDirty = true;
-
-                        // Sound for the downward thrust
-                        world.playSound(null, p.getBlockPos(), SoundEvents.ENTITY_BREEZE_IDLE_AIR, SoundCategory.PLAYERS, 1.0f, 0.5f);
-                    }
-                } else {
-                    // FALLING/SMASH PHASE
-                    // Keep forcing down in case they hit water or drag slows them
-                    p.addVelocity(0, -0.2, 0);
-                    p.velocityModified = true;
-
-                    // Trail
-                    world.spawnParticles(ParticleTypes.SONIC_BOOM, p.getX(), p.getY(), p.getZ(), 1, 0,0,0, 0);
-
-                    if (p.isOnGround()) {
-                        // --- IMPACT ---
-                        performImpact(world, p);
-                        keepGoing = false; // Stop tracking
-                    }
-
-                    // Safety timeout (if they fall into void)
-                    if (nextAge > 100) keepGoing = false;
-                }
-
-                if (keepGoing) {
-                    requeue.add(new ActiveSmash(s.world, s.playerId, nextAge, nextPhase));
-                }
-                it.remove();
+    private static boolean tickSmash(ServerWorld world, ActiveSmash s) {
+        PlayerEntity p = s.owner.get();
+        if (p == null || p.isRemoved() || !p.isAlive()) {
+            return false;
+        }
+
+        int nextPhase = s.phase;
+        int nextAge = s.age + 1;
+        boolean keepGoing = true;
+
+        if (s.phase == 0) {
+            // RISING PHASE
+            // Particle trail
+            if (nextAge % 2 == 0) {
+                world.spawnParticles(ParticleTypes.CAMPFIRE_COSY_SMOKE, p.getX(), p.getY(), p.getZ(), 1, 0, 0, 0, 0);
+            }
+
+            // Check if we hit peak or waiting time is over
+            if (nextAge >= PEAK_TIME || p.getVelocity().y < -0.1) {
+                // SWITCH TO SMASH
+                nextPhase = 1;
+                // Force Downward Velocity
+                p.setVelocity(0, -3.5, 0);
+                p.velocityModified = true;
+                p.velocityDirty = true;
+
+                // Sound for the downward thrust
+                world.playSound(null, p.getBlockPos(), SoundEvents.ENTITY_BREEZE_IDLE_AIR, SoundCategory.PLAYERS, 1.0f, 0.5f);
+            }
+        } else {
+            // FALLING/SMASH PHASE
+            // Keep forcing down in case they hit water or drag slows them
+            p.addVelocity(0, -0.2, 0);
+            p.velocityModified = true;
+
+            // Trail
+            world.spawnParticles(ParticleTypes.SONIC_BOOM, p.getX(), p.getY(), p.getZ(), 1, 0,0,0, 0);
+
+            if (p.isOnGround()) {
+                // --- IMPACT ---
+                performImpact(world, p);
+                keepGoing = false; // Stop tracking
             }
-            ACTIVE.addAll(requeue);
-        });
+
+            // Safety timeout (if they fall into void)
+            if (nextAge > MAX_TICKS) keepGoing = false;
+
+            // landing has already been processed by now, later falls hurt again
+            if (!keepGoing) PlayerBuffs.clear(p, BuffKind.FALL_IMMUNE);
+        }
+
+        s.age = nextAge;
+        s.phase = nextPhase;
+        return keepGoing;
     }
 
     private static void performImpact(ServerWorld world, PlayerEntity p) {
@@ -125,11 +136,13 @@ public final class SmashRunner {
 
         // 2. Particles (Cool Shockwave)
         // Center "Poof"
+        FxPriority outer = ParticleBudget.setPriority(FxPriority.IMPACT);
         world.spawnParticles(ParticleTypes.EXPLOSION_EMITTER, p.getX(), p.getY(), p.getZ(), 1, 0, 0, 0, 0);
         // Ring of debris/smoke
         world.spawnParticles(ParticleTypes.CAMPFIRE_SIGNAL_SMOKE, p.getX(), p.getY(), p.getZ(), 20, 1.5, 0.2, 1.5, 0.1);
         // Sweep attack particles flying out
         world.spawnParticles(ParticleTypes.SWEEP_ATTACK, p.getX(), p.getY() + 0.5, p.getZ(), 8, 1.0, 0.1, 1.0, 0.5);
+        ParticleBudget.setPriority(outer);
 
         // 3. AoE Logic
         Box box = p.getBoundingBox().expand(SMASH_RADIUS, 2.0, SMASH_RADIUS);
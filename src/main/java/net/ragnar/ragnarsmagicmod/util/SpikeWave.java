@@ -1,7 +1,6 @@
 // File: src/main/java/net/ragnar/ragnarsmagicmod/util/SpikeWave.java
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.PointedDripstoneBlock;
@@ -18,112 +17,105 @@ import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
-import java.util.UUID;
+import net.ragnar.ragnarsmagicmod.geom.Lanes;
+import net.ragnar.ragnarsmagicmod.runtime.EffectPool;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.FxPriority;
+import net.ragnar.ragnarsmagicmod.runtime.ParticleBudget;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
+import net.ragnar.ragnarsmagicmod.runtime.SpellScheduler;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 public final class SpikeWave {
     private SpikeWave() {}
 
-    private static boolean registered = false;
-
-    private record PendingSpawn(
-            ServerWorld w, double x, double z, double startY,
-            double dirX, double dirZ, int ticksUntil, int lifetime,
-            UUID casterId,
-            int height,
-            double lift,
-            float damage
-    ) {}
-
-    private record ActiveSpike(ServerWorld w, List<BlockPos> blocks, int ticksLeft) {}
-
-    private static final List<PendingSpawn> SPAWNS = new ArrayList<>();
-    private static final List<ActiveSpike> ACTIVE  = new ArrayList<>();
-
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            // handle spawns
-            if (!SPAWNS.isEmpty()) {
-                Iterator<PendingSpawn> it = SPAWNS.iterator();
-                List<PendingSpawn> requeue = new ArrayList<>();
-                while (it.hasNext()) {
-                    PendingSpawn p = it.next();
-                    if (p.w() != world) continue;
-                    int t = p.ticksUntil() - 1;
-                    if (t <= 0) {
-                        spawnSpike(p);
-                        it.remove();
-                    } else {
-                        requeue.add(new PendingSpawn(
-                                p.w(), p.x(), p.z(), p.startY(),
-                                p.dirX(), p.dirZ(),
-                                t, p.lifetime(),
-                                p.casterId(),
-                                p.height(),
-                                p.lift(),
-                                p.damage()
-                        ));
-                        it.remove();
-                    }
-                }
-                SPAWNS.addAll(requeue);
+    private static final EffectType ACTIVE = SpellRuntime.registerType("spike");
+
+    private static final class PendingSpawn implements SpellScheduler.Task {
+        final ServerWorld w;
+        final double x, z, startY;
+        final double dirX, dirZ;
+        final int lifetime;
+        final UUID casterId;
+        final int height;
+        final double lift;
+        final float damage;
+
+        PendingSpawn(ServerWorld w, double x, double z, double startY,
+                     double dirX, double dirZ, int lifetime,
+                     UUID casterId, int height, double lift, float damage) {
+            this.w = w;
+            this.x = x; this.z = z; this.startY = startY;
+            this.dirX = dirX; this.dirZ = dirZ;
+            this.lifetime = lifetime;
+            this.casterId = casterId;
+            this.height = height;
+            this.lift = lift;
+            this.damage = damage;
+        }
+
+        @Override
+        public void run(ServerWorld world) {
+            spawnSpike(this);
+        }
+    }
+
+    private static final EffectPool<ActiveSpike> POOL = new EffectPool<>(256, ActiveSpike::new);
+
+    // Pooled: the block list is kept and reused, cleared when the spike breaks.
+    private static final class ActiveSpike extends SpellEffect {
+        final List<BlockPos> blocks = new ArrayList<>(4);
+        int ticksLeft;
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            if (--ticksLeft > 0) return true;
+
+            BlockPos bottom = blocks.isEmpty() ? null : blocks.get(0);
+            for (BlockPos pos : blocks) {
+                world.breakBlock(pos, false);
             }
+            if (bottom != null) {
+                impactFX(world, bottom.getX() + 0.5, bottom.getY(), bottom.getZ() + 0.5, true);
+            }
+            return false;
+        }
 
-            // handle despawns
-            if (!ACTIVE.isEmpty()) {
-                Iterator<ActiveSpike> it2 = ACTIVE.iterator();
-                List<ActiveSpike> requeue2 = new ArrayList<>();
-                while (it2.hasNext()) {
-                    ActiveSpike a = it2.next();
-                    if (a.w() != world) continue;
-                    int t = a.ticksLeft() - 1;
-                    if (t <= 0) {
-                        BlockPos bottom = a.blocks.isEmpty() ? null : a.blocks.get(0);
-                        for (BlockPos pos : a.blocks) {
-                            a.w().breakBlock(pos, false);
-                        }
-                        if (bottom != null) {
-                            impactFX(a.w(), bottom.getX() + 0.5, bottom.getY(), bottom.getZ() + 0.5, true);
-                        }
-                        it2.remove();
-                    } else {
-                        requeue2.add(new ActiveSpike(a.w(), a.blocks(), t));
-                        it2.remove();
-                    }
-                }
-                ACTIVE.addAll(requeue2);
+        // stopped early: take the blocks back out, without the impact
+        @Override
+        protected void onTerminated(ServerWorld world) {
+            for (BlockPos pos : blocks) {
+                world.breakBlock(pos, false);
             }
-        });
+        }
+
+        @Override
+        protected void onFinished() {
+            blocks.clear();
+        }
     }
 
     /** Rising Spikes: h=2, lift=1.0 (Stronger to compensate for single loop), dmg=12 */
     public static void queueWave(ServerWorld world, Vec3d origin, Vec3d forward,
                                  int length, int[] laneOffsets, int stepDelayTicks,
                                  int lifetimeTicks, UUID casterId) {
-        ensureRegistered();
-        Vec3d f = new Vec3d(forward.x, 0, forward.z);
-        if (f.lengthSquared() < 1.0e-6) return;
-        f = f.normalize();
-        Vec3d s = new Vec3d(-f.z, 0, f.x); // left
+        double[] f = new double[2];
+        if (!Lanes.heading(forward.x, forward.z, f)) return;
+        double fx = f[0], fz = f[1];
 
         // Using +2.5 offset for cave/tree compatibility
         double startY = origin.y + 2.5;
         for (int step = 1; step <= length; step++) {
-            Vec3d base = origin.add(f.multiply(step));
             for (int off : laneOffsets) {
-                Vec3d lane = base.add(s.multiply(off));
-                SPAWNS.add(new PendingSpawn(
+                SpellScheduler.schedule(world, step * stepDelayTicks, new PendingSpawn(
                         world,
-                        lane.x, lane.z,
+                        Lanes.x(origin.x, fx, fz, step, off), Lanes.z(origin.z, fx, fz, step, off),
                         startY,
-                        f.x, f.z,
-                        step * stepDelayTicks,
+                        fx, fz,
                         lifetimeTicks,
                         casterId,
                         2,      // Height
@@ -138,11 +130,9 @@ public final class SpikeWave {
     public static void queueSingleSpike(ServerWorld world, double x, double z, double startY,
                                         double dirX, double dirZ, int delayTicks, int lifetimeTicks,
                                         UUID casterId, int height, double lift, float damage) {
-        ensureRegistered();
-        SPAWNS.add(new PendingSpawn(
+        SpellScheduler.schedule(world, delayTicks, new PendingSpawn(
                 world, x, z, startY,
                 dirX, dirZ,
-                delayTicks,
                 lifetimeTicks,
                 casterId,
                 height,
@@ -152,15 +142,14 @@ public final class SpikeWave {
     }
 
     private static void spawnSpike(PendingSpawn p) {
-        int startYInt = MathHelper.floor(p.startY());
-        BlockPos ground = findGround(p.w(), MathHelper.floor(p.x()), MathHelper.floor(p.z()), startYInt);
+        int startYInt = MathHelper.floor(p.startY);
+        BlockPos ground = findGround(p.w, MathHelper.floor(p.x), MathHelper.floor(p.z), startYInt);
         if (ground == null) return;
 
-        List<BlockPos> placedPositions = new ArrayList<>();
-        int h = Math.max(1, p.height());
+        int h = Math.max(1, p.height);
 
         for (int i = 1; i <= h; i++) {
-            if (!isAiry(p.w(), ground.up(i))) return;
+            if (!isAiry(p.w, ground.up(i))) return;
         }
 
         // Apply Entity Effects (Damage + Launch + Teleport)
@@ -168,23 +157,25 @@ public final class SpikeWave {
         Box aabb = new Box(ground.up(1)).expand(0.85, h, 0.85);
         double topY = ground.getY() + 1.0 + h; // The Y level just above the spike tip
 
-        for (Entity e : p.w().getOtherEntities(null, aabb, en -> en.isAlive() && !en.isSpectator())) {
+        for (Entity e : p.w.getOtherEntities(null, aabb, en -> en.isAlive() && !en.isSpectator())) {
             if (e instanceof LivingEntity le) {
-                if (p.casterId() != null && le.getUuid().equals(p.casterId())) continue;
+                if (p.casterId != null && le.getUuid().equals(p.casterId)) continue;
 
                 // FIX: Pop entity to the top of the spike so they don't get stuck
                 le.setPosition(le.getX(), topY, le.getZ());
 
                 // Damage
-                le.damage(p.w().getDamageSources().stalagmite(), p.damage());
+                le.damage(p.w.getDamageSources().stalagmite(), p.damage);
 
                 // Launch
-                le.addVelocity(p.dirX() * 0.35, p.lift(), p.dirZ() * 0.35);
+                le.addVelocity(p.dirX * 0.35, p.lift, p.dirZ * 0.35);
                 le.velocityDirty = true;
             }
         }
 
         // Place Blocks
+        ActiveSpike spike = POOL.acquire();
+        spike.ticksLeft = p.lifetime;
         for (int i = 1; i <= h; i++) {
             BlockPos pos = ground.up(i);
             Thickness thick;
@@ -203,19 +194,21 @@ public final class SpikeWave {
                     .with(PointedDripstoneBlock.THICKNESS, thick)
                     .with(PointedDripstoneBlock.WATERLOGGED, false);
 
-            p.w().setBlockState(pos, state, 3);
-            placedPositions.add(pos);
+            p.w.setBlockState(pos, state, 3);
+            spike.blocks.add(pos);
         }
 
         BlockPos basePos = ground.up(1);
-        impactFX(p.w(), basePos.getX() + 0.5, basePos.getY(), basePos.getZ() + 0.5, false);
-        ACTIVE.add(new ActiveSpike(p.w(), placedPositions, p.lifetime()));
+        impactFX(p.w, basePos.getX() + 0.5, basePos.getY(), basePos.getZ() + 0.5, false);
+        SpellRuntime.spawn(p.w, ACTIVE, spike);
     }
 
     private static void impactFX(ServerWorld w, double x, double y, double z, boolean breakSound) {
         var effect = new BlockStateParticleEffect(ParticleTypes.BLOCK, Blocks.DRIPSTONE_BLOCK.getDefaultState());
+        FxPriority outer = ParticleBudget.setPriority(FxPriority.IMPACT);
         w.spawnParticles(effect, x, y, z, 24, 0.5, 0.25, 0.5, 0.08);
         w.spawnParticles(ParticleTypes.POOF, x, y + 0.2, z, 8, 0.2, 0.2, 0.2, 0.02);
+        ParticleBudget.setPriority(outer);
         if (breakSound) {
             w.playSound(null, x, y, z, SoundEvents.BLOCK_STONE_BREAK, SoundCategory.PLAYERS, 0.9f, 1.0f);
         } else {
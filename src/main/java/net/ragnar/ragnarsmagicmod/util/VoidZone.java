@@ -1,7 +1,6 @@
 // File: src/main/java/net/ragnar/ragnarsmagicmod/util/VoidZone.java
 package net.ragnar.ragnarsmagicmod.util;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.particle.ParticleTypes;
@@ -11,15 +10,23 @@ import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
+import net.ragnar.ragnarsmagicmod.fx.FxViewers;
+import net.ragnar.ragnarsmagicmod.runtime.EffectType;
+import net.ragnar.ragnarsmagicmod.runtime.SlicedWork;
+import net.ragnar.ragnarsmagicmod.runtime.SpellEffect;
+import net.ragnar.ragnarsmagicmod.runtime.SpellRuntime;
+
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
 public final class VoidZone {
     private VoidZone() {}
 
-    private static boolean registered = false;
+    private static final EffectType TYPE = SpellRuntime.registerType("void_zone");
+    private static final int RADIUS = 5;
+    // farthest a floor block can be from the middle one: the square's corner plus findSurface's +-4
+    private static final double REACH = RADIUS * Math.sqrt(2) + 5;
 
     private record ActiveZone(
             ServerWorld w,
@@ -31,100 +38,100 @@ public final class VoidZone {
         private static class State { int t; }
     }
 
-    private static class ZoneState {
+    private static class ZoneState extends SpellEffect {
         ActiveZone zone;
         int age;
 
         ZoneState(ActiveZone z) { this.zone = z; this.age = 0; }
+
+        @Override
+        public boolean tick(ServerWorld world) {
+            return tickZone(world, this);
+        }
     }
 
-    private static final List<ZoneState> ZONES = new ArrayList<>();
-
-    private static void ensureRegistered() {
-        if (registered) return;
-        registered = true;
-
-        ServerTickEvents.END_WORLD_TICK.register(world -> {
-            if (ZONES.isEmpty()) return;
-
-            Iterator<ZoneState> it = ZONES.iterator();
-            while (it.hasNext()) {
-                ZoneState s = it.next();
-                if (s.zone.w() != world) continue;
-
-                s.age++;
-
-                // 1. WARNING PHASE (0 - 20 ticks)
-                if (s.age < 20) {
-                    if (s.age == 1) {
-                        BlockPos center = s.zone.floorBlocks().get(s.zone.floorBlocks().size() / 2);
-                        world.playSound(null, center, SoundEvents.BLOCK_SCULK_SHRIEKER_SHRIEK, SoundCategory.PLAYERS, 0.5f, 0.5f);
-                    }
-                    if (s.age % 5 == 0) {
-                        for (BlockPos pos : s.zone.floorBlocks()) {
-                            // Warning smoke raised slightly too
-                            world.spawnParticles(ParticleTypes.SMOKE,
-                                    pos.getX() + 0.5, pos.getY() + 1.5, pos.getZ() + 0.5,
-                                    1, 0.2, 0.1, 0.2, 0.01);
-                        }
-                    }
-                }
+    private static boolean tickZone(ServerWorld world, ZoneState s) {
+        s.age++;
+        BlockPos middle = s.zone.floorBlocks().get(s.zone.floorBlocks().size() / 2);
+        FxViewers viewers = FxViewers.near(world, Vec3d.ofCenter(middle), REACH);
 
-                // 2. ACTIVATION
-                else if (s.age == 20) {
-                    BlockPos center = s.zone.floorBlocks().get(s.zone.floorBlocks().size() / 2);
-                    world.playSound(null, center, SoundEvents.ENTITY_WARDEN_SONIC_BOOM, SoundCategory.PLAYERS, 1.0f, 0.5f);
-                    world.playSound(null, center, SoundEvents.ENTITY_WITHER_SPAWN, SoundCategory.PLAYERS, 0.75f, 0.5f);
+        // 1. WARNING PHASE (0 - 20 ticks)
+        if (s.age < 20) {
+            if (s.age == 1) {
+                viewers.sound(middle, SoundEvents.BLOCK_SCULK_SHRIEKER_SHRIEK, SoundCategory.PLAYERS, 0.5f, 0.5f);
+            }
+            if (s.age % 5 == 0) {
+                for (BlockPos pos : s.zone.floorBlocks()) {
+                    // Warning smoke raised slightly too
+                    viewers.particles(ParticleTypes.SMOKE,
+                            pos.getX() + 0.5, pos.getY() + 1.5, pos.getZ() + 0.5,
+                            1, 0.2, 0.1, 0.2, 0.01);
                 }
+            }
+        }
 
-                // 3. ACTIVE PHASE
-                else {
-                    // FIX: Raised particles from +0.5 to +1.2 so they don't clip into ground
-                    for (BlockPos pos : s.zone.floorBlocks()) {
-                        world.spawnParticles(ParticleTypes.SQUID_INK,
-                                pos.getX() + 0.5, pos.getY() + 0.8, pos.getZ() + 0.5,
-                                2, 0.4, 0.1, 0.4, 0.01);
-
-                        if (world.random.nextFloat() < 0.05f) {
-                            world.spawnParticles(ParticleTypes.SCULK_SOUL,
-                                    pos.getX() + 0.5, pos.getY() + 1.2, pos.getZ() + 0.5,
-                                    1, 0.2, 0.2, 0.2, 0.05);
-                        }
-                    }
-
-                    if (s.age % 10 == 0) {
-                        damageEntitiesInZone(s.zone);
-                    }
-                }
+        // 2. ACTIVATION
+        else if (s.age == 20) {
+            viewers.sound(middle, SoundEvents.ENTITY_WARDEN_SONIC_BOOM, SoundCategory.PLAYERS, 1.0f, 0.5f);
+            viewers.sound(middle, SoundEvents.ENTITY_WITHER_SPAWN, SoundCategory.PLAYERS, 0.75f, 0.5f);
+        }
 
-                if (s.age >= s.zone.maxDuration()) {
-                    it.remove();
+        // 3. ACTIVE PHASE
+        else {
+            // FIX: Raised particles from +0.5 to +1.2 so they don't clip into ground
+            for (BlockPos pos : s.zone.floorBlocks()) {
+                viewers.particles(ParticleTypes.SQUID_INK,
+                        pos.getX() + 0.5, pos.getY() + 0.8, pos.getZ() + 0.5,
+                        2, 0.4, 0.1, 0.4, 0.01);
+
+                if (world.random.nextFloat() < 0.05f) {
+                    viewers.particles(ParticleTypes.SCULK_SOUL,
+                            pos.getX() + 0.5, pos.getY() + 1.2, pos.getZ() + 0.5,
+                            1, 0.2, 0.2, 0.2, 0.05);
                 }
             }
-        });
+
+            if (s.age % 10 == 0) {
+                damageEntitiesInZone(s.zone);
+            }
+        }
+
+        viewers.release();
+        return s.age < s.zone.maxDuration();
     }
 
     public static void create(ServerWorld world, Vec3d centerPos, UUID casterId) {
-        ensureRegistered();
+        SpellRuntime.runSliced(world, new SurfaceScan(BlockPos.ofFloored(centerPos), casterId));
+    }
 
-        List<BlockPos> floorBlocks = new ArrayList<>();
-        BlockPos center = BlockPos.ofFloored(centerPos);
+    // one column per step; the zone starts ticking once every column has been looked at
+    private static final class SurfaceScan implements SlicedWork {
+        private static final int SIDE = RADIUS * 2 + 1;
 
+        final BlockPos center;
+        final UUID casterId;
+        final List<BlockPos> floorBlocks = new ArrayList<>();
+        int column = 0;
 
-        int radius = 5;
+        SurfaceScan(BlockPos center, UUID casterId) {
+            this.center = center;
+            this.casterId = casterId;
+        }
 
-        for (int x = -radius; x <= radius; x++) {
-            for (int z = -radius; z <= radius; z++) {
-                BlockPos colCenter = center.add(x, 0, z);
-                BlockPos surface = findSurface(world, colCenter);
-                if (surface != null) {
-                    floorBlocks.add(surface);
-                }
+        @Override
+        public boolean step(ServerWorld world) {
+            int x = column / SIDE - RADIUS;
+            int z = column % SIDE - RADIUS;
+            BlockPos surface = findSurface(world, center.add(x, 0, z));
+            if (surface != null) {
+                floorBlocks.add(surface);
             }
-        }
+            if (++column < SIDE * SIDE) return true;
 
-        if (!floorBlocks.isEmpty()) {
-            ZONES.add(new ZoneState(new ActiveZone(world, floorBlocks, casterId, 0, 120)));
+            if (!floorBlocks.isEmpty()) {
+                SpellRuntime.spawn(world, TYPE, new ZoneState(new ActiveZone(world, floorBlocks, casterId, 0, 120)));
+            }
+            return false;
         }
     }
 